@@ -16,32 +16,76 @@ package org.epos.api;
  * the License.
  ******************************************************************************/
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import jakarta.servlet.http.HttpServletRequest;
 
-import org.apache.commons.lang3.StringUtils;
+import org.epos.api.beans.Distribution;
+import org.epos.api.beans.DistributionExtended;
+import org.epos.api.beans.SearchResponse;
 import org.epos.api.core.MonitoringGeneration;
+import org.epos.api.core.distributions.DetailsResultCache;
 import org.epos.api.core.distributions.DistributionDetailsExtendedGenerationJPA;
 import org.epos.api.core.distributions.DistributionDetailsGenerationJPA;
 import org.epos.api.core.distributions.DistributionSearchGenerationJPA;
+import org.epos.api.core.distributions.SearchResultCache;
 import org.epos.api.core.facilities.EquipmentsDetailsItemGenerationJPA;
 import org.epos.api.core.facilities.FacilityDetailsItemGenerationJPA;
 import org.epos.api.core.facilities.FacilitySearchGenerationJPA;
 import org.epos.api.core.organizations.OrganisationsGeneration;
+import org.epos.api.facets.Facets;
+import org.epos.api.utility.CapturingOutputStream;
+import org.epos.api.utility.GeneratorJsonWriter;
 import org.epos.api.utility.Utils;
 import org.epos.eposdatamodel.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonSyntaxException;
 
 abstract class ApiController<T> {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ApiController.class);
+
+	public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	/**
+	 * Encodings of the response object model, JSON first so that it wins on equal preference
+	 */
+	private static final List<MediaType> PRODUCIBLE_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+	/**
+	 * Services whose mappings also produce the binary encodings
+	 */
+	private static final Set<String> BINARY_SERVICES = Set.of("SEARCH", "DETAILS");
+
+	private static final JsonFactory CBOR_FACTORY = CBORFactory.builder()
+			.disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+	private static final JsonFactory SMILE_FACTORY = SmileFactory.builder()
+			.disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
 	protected final HttpServletRequest request;
 
 	protected ApiController(HttpServletRequest request) {
@@ -51,66 +95,212 @@ abstract class ApiController<T> {
 	@SuppressWarnings("unchecked")
 	protected ResponseEntity<T> standardRequest(String service, Map<String, Object> requestParams, User user) {
 		
-		String response = null;
+		Object response = null;
 		
+		MediaType mediaType = BINARY_SERVICES.contains(service) ? negotiateMediaType() : MediaType.APPLICATION_JSON;
+
 		switch(service) {
 		case "SEARCH":
-			response = Utils.gson.toJson(DistributionSearchGenerationJPA.generate(requestParams, user));
-			break;
+			SearchResultCache searchCache = SearchResultCache.getInstance();
+			String searchKey = searchCache.key(requestParams, user, mediaType.toString());
+			byte[] payload = searchCache.getIfPresent(searchKey);
+			if(payload!=null) {
+				return (ResponseEntity<T>) ResponseEntity.ok().contentType(mediaType)
+						.body((StreamingResponseBody) outputStream -> outputStream.write(payload));
+			}
+			SearchResponse searchResponse = DistributionSearchGenerationJPA.generate(requestParams, user);
+			if(!hasContent(searchResponse)) {
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+			}
+			return (ResponseEntity<T>) ResponseEntity.ok().contentType(mediaType)
+					.body((StreamingResponseBody) outputStream -> write(searchResponse, mediaType, outputStream,
+							searchCache.getMaxPayloadBytes(), written -> searchCache.put(searchKey, written)));
 		case "DETAILS":
-			if(Boolean.valueOf(requestParams.get("extended").toString()))
-				response = Utils.gson.toJson(DistributionDetailsExtendedGenerationJPA.generate(requestParams));
-			else
-				response = Utils.gson.toJson(DistributionDetailsGenerationJPA.generate(requestParams));
-			break;
+			boolean extended = Boolean.valueOf(requestParams.get("extended").toString());
+			String id = requestParams.get("id").toString();
+			String encoding = mediaType.toString();
+			DetailsResultCache detailsCache = DetailsResultCache.getInstance();
+			Object document = detailsCache.getDetails(id, extended,
+					() -> extended
+							? DistributionDetailsExtendedGenerationJPA.generate(requestParams)
+							: DistributionDetailsGenerationJPA.generate(requestParams));
+			if(!hasContent(document)) {
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+			}
+			byte[] details = detailsCache.getPayload(id, extended, encoding);
+			if(details!=null) {
+				return (ResponseEntity<T>) ResponseEntity.ok().contentType(mediaType)
+						.body((StreamingResponseBody) outputStream -> outputStream.write(details));
+			}
+			return (ResponseEntity<T>) ResponseEntity.ok().contentType(mediaType)
+					.body((StreamingResponseBody) outputStream -> write(document, mediaType, outputStream,
+							detailsCache.getMaxPayloadBytes(),
+							written -> detailsCache.putPayload(id, extended, encoding, document, written)));
+		case "DETAILSBATCH":
+			boolean extendedBatch = Boolean.valueOf(requestParams.get("extended").toString());
+			Map<String, Object> documents = DetailsResultCache.getInstance().getAllDetails(
+					(List<String>) requestParams.get("ids"), extendedBatch,
+					missing -> extendedBatch
+							? DistributionDetailsExtendedGenerationJPA.generate(missing)
+							: DistributionDetailsGenerationJPA.generate(missing, Facets.Type.DATA));
+			return (ResponseEntity<T>) ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+					.body((StreamingResponseBody) outputStream -> writeDetailsArray(documents, extendedBatch, outputStream));
 		case "FACILITYSEARCH":
-			response = Utils.gson.toJson(FacilitySearchGenerationJPA.generate(requestParams));
+			response = FacilitySearchGenerationJPA.generate(requestParams);
 			break;
 		case "FACILITYDETAILS":
-			response = Utils.gson.toJson(FacilityDetailsItemGenerationJPA.generate(requestParams));
+			response = FacilityDetailsItemGenerationJPA.generate(requestParams);
 			break;
 		case "EQUIPMENTDETAILS":
-			response = Utils.gson.toJson(EquipmentsDetailsItemGenerationJPA.generate(requestParams));
+			response = EquipmentsDetailsItemGenerationJPA.generate(requestParams);
 			break;
 		case "MONITORING":
-			response = Utils.gson.toJson(MonitoringGeneration.generate());
+			response = MonitoringGeneration.generate();
 			break;
 		case "ORGANISATIONS":
-			response = Utils.gson.toJson(OrganisationsGeneration.generate(requestParams));
+			response = OrganisationsGeneration.generate(requestParams);
 			break;
 		default:
 			break;
 		}
 		
-		if(response!=null) {
-			LOGGER.debug("Payload text received => "+response);
+		if(!hasContent(response)) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+		Object body = response;
+		return (ResponseEntity<T>) ResponseEntity.ok().contentType(mediaType)
+				.body((StreamingResponseBody) outputStream -> write(body, mediaType, outputStream));
+	}
 
-			if(Utils.gson.fromJson(response, JsonElement.class).isJsonObject()) {
-				if(!Utils.gson.fromJson(response, JsonElement.class).getAsJsonObject().entrySet().isEmpty()) {
-					LOGGER.debug("Payload Array received => "+response);;
-					return hasContent(response)? (ResponseEntity<T>) ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response) : ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+	/**
+	 * Encoding preferred by the Accept header among JSON, CBOR and Smile, JSON if none is acceptable
+	 */
+	protected MediaType negotiateMediaType() {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if(accept == null || accept.isBlank()) {
+			return MediaType.APPLICATION_JSON;
+		}
+		try {
+			List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+			accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+			for(MediaType acceptedType : accepted) {
+				if(acceptedType.getQualityValue() <= 0) {
+					continue;
 				}
-			}
-			else if(Utils.gson.fromJson(response, JsonElement.class).isJsonArray()) {
-				if(Utils.gson.fromJson(response, JsonElement.class).getAsJsonArray().size()>0) {
-					LOGGER.debug("Payload Array received => "+response);
-					return hasContent(response)? (ResponseEntity<T>) ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response) : ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+				for(MediaType producible : PRODUCIBLE_MEDIA_TYPES) {
+					if(acceptedType.includes(producible)) {
+						return producible;
+					}
 				}
 			}
-			else {
-				return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-			}	
+		} catch (InvalidMediaTypeException e) {
+			LOGGER.debug("Invalid Accept header '{}', answering with JSON", accept);
 		}
-		return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		return MediaType.APPLICATION_JSON;
 	}
 
+	/**
+	 * Writes the response in the given encoding, the binary ones go through the same Gson adapters as JSON
+	 */
+	private static void write(Object response, MediaType mediaType, OutputStream outputStream) throws IOException {
+		if(MediaType.APPLICATION_CBOR.equals(mediaType) || APPLICATION_SMILE.equals(mediaType)) {
+			JsonFactory factory = MediaType.APPLICATION_CBOR.equals(mediaType) ? CBOR_FACTORY : SMILE_FACTORY;
+			try(GeneratorJsonWriter writer = new GeneratorJsonWriter(factory.createGenerator(outputStream))) {
+				Utils.gson.toJson(response, response.getClass(), writer);
+			}
+			return;
+		}
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		Utils.gson.toJson(response, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Writes the response straight to the output stream and hands the bytes written to the cache once
+	 * the response is complete. The copy taken for the cache is given up past the cache limit.
+	 */
+	private static void write(Object response, MediaType mediaType, OutputStream outputStream, long cacheLimit,
+			Consumer<byte[]> cache) throws IOException {
+		CapturingOutputStream capturing = new CapturingOutputStream(outputStream, cacheLimit);
+		write(response, mediaType, capturing);
+		byte[] written = capturing.getCapturedBytes();
+		if(written != null) {
+			cache.accept(written);
+		}
+	}
+
+	/**
+	 * Writes the documents as one JSON array, each element being the JSON payload cached for its id
+	 */
+	private static void writeDetailsArray(Map<String, Object> documents, boolean extended, OutputStream outputStream)
+			throws IOException {
+		outputStream.write('[');
+		boolean first = true;
+		for (Map.Entry<String, Object> document : documents.entrySet()) {
+			byte[] payload = DetailsResultCache.getInstance().getPayload(document.getKey(), extended,
+					MediaType.APPLICATION_JSON.toString(), document::getValue,
+					details -> hasContent(details) ? toBytes(details, MediaType.APPLICATION_JSON) : null);
+			if(payload == null) {
+				continue;
+			}
+			if(!first) {
+				outputStream.write(',');
+			}
+			outputStream.write(payload);
+			first = false;
+		}
+		outputStream.write(']');
+	}
 
-	private static boolean hasContent(String payload) throws JsonSyntaxException {
-		LOGGER.debug("Has Content Payload => "+payload);
-		JsonElement jsonElement = Utils.gson.fromJson(payload, JsonElement.class);
-		LOGGER.debug("Has Content Json Element => "+jsonElement.toString());
-		return ((jsonElement.isJsonArray() && jsonElement.getAsJsonArray().size()<1) 
-				|| (jsonElement.isJsonObject() && jsonElement.getAsJsonObject().entrySet().isEmpty()))? 
-						false : true;
+	/**
+	 * Payload of a response to be cached, serialised without an intermediate String
+	 */
+	private static byte[] toBytes(Object response, MediaType mediaType) {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try {
+			write(response, mediaType, buffer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * True if the response serialises to a non empty JSON object or array. The response beans are
+	 * checked on the fields written out, {@link Utils#gson} omitting null fields and empty collections,
+	 * other objects on their JSON tree.
+	 */
+	static boolean hasContent(Object response) {
+		if(response == null) {
+			return false;
+		}
+		if(response instanceof JsonElement) {
+			JsonElement element = (JsonElement) response;
+			return (element.isJsonObject() && !element.getAsJsonObject().isEmpty())
+					|| (element.isJsonArray() && !element.getAsJsonArray().isEmpty());
+		}
+		if(response instanceof SearchResponse) {
+			SearchResponse searchResponse = (SearchResponse) response;
+			return searchResponse.getResults() != null
+					|| (searchResponse.getFilters() != null && !searchResponse.getFilters().isEmpty())
+					|| searchResponse.getErrorMessage() != null
+					|| searchResponse.getTotal() != null
+					|| searchResponse.getNextCursor() != null;
+		}
+		if(response instanceof Distribution) {
+			Distribution distribution = (Distribution) response;
+			return distribution.getId() != null || distribution.getUid() != null || distribution.getErrorMessage() != null;
+		}
+		if(response instanceof DistributionExtended) {
+			DistributionExtended distribution = (DistributionExtended) response;
+			return distribution.getId() != null || distribution.getUid() != null || distribution.getErrorMessage() != null;
+		}
+		if(response instanceof Collection) {
+			return !((Collection<?>) response).isEmpty();
+		}
+		if(response instanceof Map) {
+			return !((Map<?, ?>) response).isEmpty();
+		}
+		return hasContent(Utils.gson.toJsonTree(response));
 	}
-}
\ No newline at end of file
+}
@@ -41,7 +41,8 @@ public interface CacheInvalidationApi {
     @RequestMapping(value = "/invalidate",
         produces = { "application/json" }, 
         method = RequestMethod.POST)
-    ResponseEntity<Object> resourcesInvalidationCache();
+    ResponseEntity<Object> resourcesInvalidationCache(
+            @Parameter(in = ParameterIn.QUERY, description = "instance id of the distribution to invalidate, all cached responses if absent. Its details are then read from the database until the next catalogue refresh, search results keep the catalogue state until then", schema = @Schema()) @RequestParam(value = "id", required = false) String id);
 
 
 }
@@ -10,8 +10,11 @@ import org.epos.api.beans.Distribution;
 import org.epos.api.beans.LinkedResponse;
 import org.epos.api.beans.ParametersResponse;
 import org.epos.api.beans.SearchResponse;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.distributions.DetailsResultCache;
 import org.epos.api.core.distributions.LinkedEntityParametersSearch;
 import org.epos.api.core.distributions.LinkedEntityWebserviceSearch;
+import org.epos.api.core.distributions.SearchResultCache;
 import org.epos.api.utility.Utils;
 import org.epos.eposdatamodel.User;
 import org.slf4j.Logger;
@@ -19,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -43,8 +47,17 @@ public class CacheInvalidationApiController extends ApiController implements Cac
 	}
 
 	@Override
-	public ResponseEntity<Object> resourcesInvalidationCache() {
+	public ResponseEntity<Object> resourcesInvalidationCache(
+			@Parameter(in = ParameterIn.QUERY, description = "instance id of the distribution to invalidate, all cached responses if absent. Its details are then read from the database until the next catalogue refresh, search results keep the catalogue state until then", schema = @Schema()) @RequestParam(value = "id", required = false) String id) {
 		// EposDataModelDAO.clearAllCaches();
+		if (!StringUtils.isBlank(id)) {
+			Catalogue.getInstance().markOutdated(id);
+			DetailsResultCache.getInstance().invalidate(id);
+		} else {
+			DetailsResultCache.getInstance().invalidateAll();
+			SearchResultCache.getInstance().invalidateAll();
+		}
 		return new ResponseEntity<>(HttpStatus.OK);
 	}
+
 }
@@ -1,5 +1,7 @@
 package org.epos.api;
 
+import java.util.List;
+
 import org.epos.api.beans.Distribution;
 import org.epos.api.beans.Facility;
 import org.epos.api.beans.LinkedResponse;
@@ -12,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -19,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -48,11 +52,27 @@ public interface ClientHelpersApi {
 
 			@ApiResponse(responseCode = "404", description = "Not Found") })
 	@RequestMapping(value = "/resources/details/{instance_id}", produces = {
-			"application/json" }, method = RequestMethod.GET)
+			"application/json", "application/cbor", "application/x-jackson-smile" }, method = RequestMethod.GET)
 	ResponseEntity<Distribution> resourcesDiscoveryGetUsingGET(
 			@Parameter(in = ParameterIn.PATH, description = "The distribution ID", required = true, schema = @Schema()) @PathVariable("instance_id") String id,
 			@Parameter(in = ParameterIn.QUERY, description = "extended payload", schema = @Schema()) @Valid @RequestParam(value = "extended", required = false) Boolean extended);
 
+	@Operation(summary = "metadata resources details in batch", description = "returns the detailed information of several distributions in one response, in the order of the requested ids; unknown ids are left out", tags = {
+			"Resources Service" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "ok.", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Distribution.class)))),
+
+			@ApiResponse(responseCode = "400", description = "Bad request."),
+
+			@ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
+
+			@ApiResponse(responseCode = "403", description = "Forbidden") })
+	@RequestMapping(value = "/resources/details", produces = { "application/json" }, consumes = {
+			"application/json" }, method = RequestMethod.POST)
+	ResponseEntity<List<Distribution>> resourcesDiscoveryBatchUsingPOST(
+			@Parameter(in = ParameterIn.DEFAULT, description = "The distribution IDs", required = true, array = @ArraySchema(schema = @Schema())) @RequestBody List<String> ids,
+			@Parameter(in = ParameterIn.QUERY, description = "extended payload", schema = @Schema()) @Valid @RequestParam(value = "extended", required = false) Boolean extended);
+
 	@Operation(summary = "search operation", description = "Search endpoint", tags = { "Resources Service" })
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "ok.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SearchResponse.class))),
@@ -70,7 +90,8 @@ public interface ClientHelpersApi {
 			@ApiResponse(responseCode = "403", description = "Forbidden"),
 
 			@ApiResponse(responseCode = "404", description = "Not Found") })
-	@RequestMapping(value = "/resources/search", produces = { "application/json" }, method = RequestMethod.GET)
+	@RequestMapping(value = "/resources/search", produces = { "application/json", "application/cbor",
+			"application/x-jackson-smile" }, method = RequestMethod.GET)
 	ResponseEntity<SearchResponse> searchUsingGet(
 			@Parameter(in = ParameterIn.QUERY, description = "q", schema = @Schema()) @Valid @RequestParam(value = "q", required = false) String q,
 			@Parameter(in = ParameterIn.QUERY, description = "startDate", schema = @Schema()) @Valid @RequestParam(value = "startDate", required = false) String startDate,
@@ -82,7 +103,11 @@ public interface ClientHelpersApi {
 			@Parameter(in = ParameterIn.QUERY, description = "organisations", schema = @Schema()) @Valid @RequestParam(value = "organisations", required = false) String organisations,
 			@Parameter(in = ParameterIn.QUERY, description = "facetstype {categories, dataproviders, serviceproviders}", schema = @Schema()) @Valid @RequestParam(value = "facetstype", required = false) String facetsType,
 			@Parameter(in = ParameterIn.QUERY, description = "facets", schema = @Schema()) @Valid @RequestParam(value = "facets", required = false) Boolean facets,
-			@Parameter(in = ParameterIn.QUERY, description = "versioningStatus", schema = @Schema()) @Valid @RequestParam(value = "versioningStatus", required = false) String versioningStatus);
+			@Parameter(in = ParameterIn.QUERY, description = "versioningStatus", schema = @Schema()) @Valid @RequestParam(value = "versioningStatus", required = false) String versioningStatus,
+			@Parameter(in = ParameterIn.QUERY, description = "limit, maximum number of results per page", schema = @Schema()) @Valid @RequestParam(value = "limit", required = false) Integer limit,
+			@Parameter(in = ParameterIn.QUERY, description = "cursor, nextCursor of the previous page", schema = @Schema()) @Valid @RequestParam(value = "cursor", required = false) String cursor,
+			@Parameter(in = ParameterIn.QUERY, description = "fields, comma separated properties of the returned items", schema = @Schema()) @Valid @RequestParam(value = "fields", required = false) String fields,
+			@Parameter(in = ParameterIn.QUERY, description = "facetsmode {items, counts, ids}", schema = @Schema()) @Valid @RequestParam(value = "facetsmode", required = false) String facetsMode);
 
 	@Operation(summary = "metadata resources details", description = "returns detailed information useful to contextualise the discovery phase", tags = {
 			"Resources Service" })
@@ -177,7 +202,8 @@ public interface ClientHelpersApi {
 	@GetMapping(value = "/resources/linkedentities/webservices", produces = { "application/json" })
 	ResponseEntity<LinkedResponse> searchLinkedWebservices(
 			@Parameter(in = ParameterIn.QUERY, description = "The instance ID", schema = @Schema()) @RequestParam(value = "instance_id", required = false) String id,
-			@Parameter(in = ParameterIn.QUERY, description = "Parameter names", schema = @Schema()) @RequestParam(value = "params", required = true) String params);
+			@Parameter(in = ParameterIn.QUERY, description = "Parameter names", schema = @Schema()) @RequestParam(value = "params", required = true) String params,
+			@Parameter(in = ParameterIn.QUERY, description = "fields, comma separated properties of the returned items", schema = @Schema()) @RequestParam(value = "fields", required = false) String fields);
 
 	@Operation(summary = "linked parameters", description = "returns all the output parameters available for a distribution that are linked to something", tags = {
 			"Resources Service" })
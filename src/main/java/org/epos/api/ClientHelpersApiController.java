@@ -2,8 +2,12 @@ package org.epos.api;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.epos.api.beans.Distribution;
@@ -11,6 +15,8 @@ import org.epos.api.beans.LinkedResponse;
 import org.epos.api.beans.ParametersResponse;
 import org.epos.api.beans.SearchResponse;
 import org.epos.api.beans.software.SoftwareDetailsResponse;
+import org.epos.api.core.distributions.DiscoveryItemFields;
+import org.epos.api.core.distributions.DistributionSearchGenerationJPA;
 import org.epos.api.core.distributions.LinkedEntityParametersSearch;
 import org.epos.api.core.distributions.LinkedEntityWebserviceSearch;
 import org.epos.api.core.software.SoftwareDetails;
@@ -24,6 +30,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,6 +38,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -43,6 +51,11 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 	private static final String A_PROBLEM_WAS_ENCOUNTERED_DECODING = "A problem was encountered decoding: ";
 	private static final Logger LOGGER = LoggerFactory.getLogger(ClientHelpersApiController.class);
 
+	/**
+	 * Largest number of distribution ids accepted by one batch details request
+	 */
+	private static final int MAX_BATCH_DETAILS = 500;
+
 	private final ObjectMapper objectMapper;
 
 	private final HttpServletRequest request;
@@ -62,8 +75,8 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 	 * 
 	 */
 
-	protected User getUserFromSession() {
-		return (User) request.getSession().getAttribute("user");
+	protected User getUserFromRequest() {
+		return LogUserInInterceptor.getUser(request);
 	}
 
 	public ResponseEntity<Distribution> resourcesDiscoveryGetUsingGET(
@@ -93,6 +106,33 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 		return standardRequest("DETAILS", requestParams, null);
 	}
 
+	public ResponseEntity<List<Distribution>> resourcesDiscoveryBatchUsingPOST(
+			@Parameter(in = ParameterIn.DEFAULT, description = "The distribution IDs", required = true, array = @ArraySchema(schema = @Schema())) @RequestBody List<String> ids,
+			@Parameter(in = ParameterIn.QUERY, description = "extended payload", schema = @Schema()) @Valid @RequestParam(value = "extended", required = false) Boolean extended) {
+
+		if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_DETAILS) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+
+		if (extended == null) {
+			extended = false;
+		}
+
+		Set<String> distinctIds = new LinkedHashSet<>();
+		for (String id : ids) {
+			if (StringUtils.isBlank(id)) {
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+			}
+			distinctIds.add(id);
+		}
+
+		Map<String, Object> requestParams = new HashMap<>();
+		requestParams.put("ids", new ArrayList<>(distinctIds));
+		requestParams.put("extended", extended);
+
+		return standardRequest("DETAILSBATCH", requestParams, null);
+	}
+
 	public ResponseEntity<SearchResponse> searchUsingGet(
 			@Parameter(in = ParameterIn.QUERY, description = "q", schema = @Schema()) @Valid @RequestParam(value = "q", required = false) String q,
 			@Parameter(in = ParameterIn.QUERY, description = "startDate", schema = @Schema()) @Valid @RequestParam(value = "startDate", required = false) String startDate,
@@ -106,10 +146,15 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 					"categories", "dataproviders",
 					"serviceproviders" })) @Valid @RequestParam(value = "facetstype", required = false) String facetsType,
 			@Parameter(in = ParameterIn.QUERY, description = "facets", schema = @Schema()) @Valid @RequestParam(value = "facets", required = false) Boolean facets,
-			@Parameter(in = ParameterIn.QUERY, description = "versioningStatus", schema = @Schema()) @Valid @RequestParam(value = "versioningStatus", required = false) String versioningStatus) {
+			@Parameter(in = ParameterIn.QUERY, description = "versioningStatus", schema = @Schema()) @Valid @RequestParam(value = "versioningStatus", required = false) String versioningStatus,
+			@Parameter(in = ParameterIn.QUERY, description = "limit, maximum number of results per page", schema = @Schema()) @Valid @RequestParam(value = "limit", required = false) Integer limit,
+			@Parameter(in = ParameterIn.QUERY, description = "cursor, nextCursor of the previous page", schema = @Schema()) @Valid @RequestParam(value = "cursor", required = false) String cursor,
+			@Parameter(in = ParameterIn.QUERY, description = "fields, comma separated properties of the returned items", schema = @Schema()) @Valid @RequestParam(value = "fields", required = false) String fields,
+			@Parameter(in = ParameterIn.QUERY, description = "facetsmode {items, counts, ids}", schema = @Schema(allowableValues = {
+					"items", "counts", "ids" })) @Valid @RequestParam(value = "facetsmode", required = false) String facetsMode) {
 
 		Map<String, Object> requestParameters = new HashMap<>();
-		User user = getUserFromSession();
+		User user = getUserFromRequest();
 
 		if (!StringUtils.isBlank(q)) {
 			try {
@@ -260,6 +305,16 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 			requestParameters.put("facetstype", facetsType);
 		}
 
+		if (!StringUtils.isBlank(facetsMode)) {
+			facetsMode = facetsMode.trim();
+			if (!(facetsMode.equals("items") || facetsMode.equals("counts") || facetsMode.equals("ids"))) {
+				SearchResponse errorResponse = new SearchResponse(
+						"The facets mode is not a valid mode, supported modes: items, counts, ids");
+				return ResponseEntity.badRequest().body(errorResponse);
+			}
+			requestParameters.put("facetsmode", facetsMode);
+		}
+
 		if (!StringUtils.isBlank(versioningStatus)) {
 			try {
 				versioningStatus = java.net.URLDecoder.decode(versioningStatus, StandardCharsets.UTF_8.name());
@@ -287,6 +342,24 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 			}
 		}
 
+		if (!StringUtils.isBlank(fields)) {
+			String unknownField = DiscoveryItemFields.parse(fields).unknownField();
+			if (unknownField != null) {
+				return ResponseEntity.badRequest().body(new SearchResponse("Unknown field: " + unknownField));
+			}
+			requestParameters.put(DiscoveryItemFields.PARAMETER, fields);
+		}
+		if (limit != null) {
+			requestParameters.put("limit", limit);
+		}
+		if (!StringUtils.isBlank(cursor)) {
+			requestParameters.put("cursor", cursor);
+		}
+		String pagingError = DistributionSearchGenerationJPA.validatePaging(requestParameters);
+		if (pagingError != null) {
+			return ResponseEntity.badRequest().body(new SearchResponse(pagingError));
+		}
+
 		return standardRequest("SEARCH", requestParameters, user);
 	}
 
@@ -521,11 +594,15 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 	}
 
 	@Override
-	public ResponseEntity<LinkedResponse> searchLinkedWebservices(String id, String paramsString) {
+	public ResponseEntity<LinkedResponse> searchLinkedWebservices(String id, String paramsString, String fieldsString) {
 		// validate the parameters
 		if (paramsString == null || paramsString.isEmpty()) {
 			return ResponseEntity.badRequest().build();
 		}
+		DiscoveryItemFields fields = DiscoveryItemFields.parse(fieldsString);
+		if (fields.unknownField() != null) {
+			return ResponseEntity.badRequest().build();
+		}
 
 		// the paramString comes as a json so we have to convert it
 		Map<String, String> params = Utils.gson.fromJson(paramsString, Map.class);
@@ -536,9 +613,9 @@ public class ClientHelpersApiController extends ApiController implements ClientH
 
 		LinkedResponse response = null;
 		if (id != null && id != "") {
-			response = LinkedEntityWebserviceSearch.generate(id, params);
+			response = LinkedEntityWebserviceSearch.generate(id, params, fields);
 		} else {
-			response = LinkedEntityWebserviceSearch.generate(params);
+			response = LinkedEntityWebserviceSearch.generate(params, fields);
 		}
 
 		// if got no results return no content
@@ -6,48 +6,52 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.HandlerInterceptor;
 import usermanagementapis.UserGroupManagementAPI;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
-import java.io.IOException;
-import java.util.Map;
-import java.util.TreeMap;
+import java.time.Duration;
 
+/**
+ * Resolves the backoffice user of the {@code userId} parameter and hands it to the controller as a
+ * request attribute. Users are kept in a small cache with a short time to live instead of being
+ * read from the database on every request, no HTTP session is created.
+ */
 public class LogUserInInterceptor implements HandlerInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(LogUserInInterceptor.class);
 
+    public static final String USER_ATTRIBUTE = LogUserInInterceptor.class.getName() + ".user";
 
-    @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
-
-        Map<String, String> allRequestParams = convertQueryParameterFromArrayStringToString(request);
-
-        System.out.println(allRequestParams);
+    private static final long MAX_USERS = 1024;
+    private static final Duration USER_TTL = Duration.ofSeconds(60);
 
-        if(allRequestParams.containsKey("userId")) {
+    private final Cache<String, User> users = Caffeine.newBuilder()
+            .maximumSize(MAX_USERS)
+            .expireAfterWrite(USER_TTL)
+            .build();
 
-            User user = UserGroupManagementAPI.retrieveUserById(allRequestParams.get("userId"));
-
-            System.out.println(user);
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
 
-            HttpSession session = request.getSession();
-            session.setAttribute("user", user);
+        String userId = request.getParameter("userId");
 
-            return true;
+        if (userId != null) {
+            User user = users.get(userId, UserGroupManagementAPI::retrieveUserById);
+            if (user == null) {
+                log.debug("No user found for userId {}", userId);
+            }
+            request.setAttribute(USER_ATTRIBUTE, user);
         }
         return true;
     }
 
-    private Map<String, String> convertQueryParameterFromArrayStringToString(HttpServletRequest request) {
-        Map<String, String> allRequestParams = new TreeMap<>();
-
-        Map<String, String[]> parameterMapArrayString = request.getParameterMap();
-        for (String valueParamkey : parameterMapArrayString.keySet()) {
-            if (parameterMapArrayString.get(valueParamkey).length > 0)
-                allRequestParams.put(valueParamkey, parameterMapArrayString.get(valueParamkey)[0]);
-        }
-        return allRequestParams;
+    /**
+     * User resolved for the request, null for anonymous requests
+     */
+    public static User getUser(HttpServletRequest request) {
+        return (User) request.getAttribute(USER_ATTRIBUTE);
     }
 
 }
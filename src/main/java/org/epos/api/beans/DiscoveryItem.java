@@ -22,7 +22,7 @@ public class DiscoveryItem implements Serializable {
     private transient List<String> categories;
     private String title;
     private String description;
-    private int status = 0;
+    private Integer status = 0;
     private DataServiceProvider dataServiceProvider;
     private String versioningStatus;
     private String statusTimestamp;
@@ -34,6 +34,33 @@ public class DiscoveryItem implements Serializable {
 
     public DiscoveryItem() {}
 
+    /**
+     * Shallow copy, used to overlay per request fields on a shared item
+     */
+    public DiscoveryItem(DiscoveryItem other) {
+        this.href = other.href;
+        this.hrefExtended = other.hrefExtended;
+        this.id = other.id;
+        this.uid = other.uid;
+        this.metaId = other.metaId;
+        this.sha256id = other.sha256id;
+        this.dataprovider = other.dataprovider;
+        this.facilityprovider = other.facilityprovider;
+        this.serviceprovider = other.serviceprovider;
+        this.categories = other.categories;
+        this.title = other.title;
+        this.description = other.description;
+        this.status = other.status;
+        this.dataServiceProvider = other.dataServiceProvider;
+        this.versioningStatus = other.versioningStatus;
+        this.statusTimestamp = other.statusTimestamp;
+        this.statusURL = other.statusURL;
+        this.availableFormats = other.availableFormats;
+        this.editorId = other.editorId;
+        this.editorFullName = other.editorFullName;
+        this.changeDate = other.changeDate;
+    }
+
     public DiscoveryItem(DiscoveryItemBuilder builder) {
         this.href = builder.href;
         this.hrefExtended = builder.hrefExtended;
@@ -153,11 +180,11 @@ public class DiscoveryItem implements Serializable {
         this.dataServiceProvider = dataServiceProvider;
     }
 
-    public int getStatus() {
+    public Integer getStatus() {
         return status;
     }
 
-    public void setStatus(int status) {
+    public void setStatus(Integer status) {
         this.status = status;
     }
 
@@ -240,7 +267,7 @@ public class DiscoveryItem implements Serializable {
         private List<String> categories;
         private String title;
         private String description;
-        private int status = 0;
+        private Integer status = 0;
         private DataServiceProvider dataServiceProvider;
         private String versioningStatus;
         private String statusTimestamp;
@@ -16,6 +16,8 @@ public class SearchResponse implements Serializable {
 	private Node results;
 	private ArrayList<NodeFilters> filters;
 	private String errorMessage;
+	private Integer total;
+	private String nextCursor;
 
 	public SearchResponse(Node results, ArrayList<NodeFilters> filters) {
 		this.results = results.getChildren()!=null? results.getChildren().get(0) : null;
@@ -50,9 +52,25 @@ public class SearchResponse implements Serializable {
 		this.errorMessage = errorMessage;
 	}
 
+	public Integer getTotal() {
+		return total;
+	}
+
+	public void setTotal(Integer total) {
+		this.total = total;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(filters, results);
+		return Objects.hash(filters, results, total, nextCursor);
 	}
 
 	@Override
@@ -64,12 +82,14 @@ public class SearchResponse implements Serializable {
 		if (getClass() != obj.getClass())
 			return false;
 		SearchResponse other = (SearchResponse) obj;
-		return Objects.equals(filters, other.filters) && Objects.equals(results, other.results);
+		return Objects.equals(filters, other.filters) && Objects.equals(results, other.results)
+				&& Objects.equals(total, other.total) && Objects.equals(nextCursor, other.nextCursor);
 	}
 
 	@Override
 	public String toString() {
-		return "SearchResponse [results=" + results + ", filters=" + filters + "]";
+		return "SearchResponse [results=" + results + ", filters=" + filters + ", total=" + total + ", nextCursor="
+				+ nextCursor + "]";
 	}
 	
 	
@@ -1,42 +1,46 @@
 package org.epos.api.core;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
 import org.epos.api.beans.AvailableFormat;
 import org.epos.api.beans.AvailableFormatConverted;
 import org.epos.api.beans.Plugin;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.enums.AvailableFormatType;
 import org.epos.api.routines.DatabaseConnections;
 import org.epos.eposdatamodel.Distribution;
 import org.epos.eposdatamodel.LinkedEntity;
 import org.epos.eposdatamodel.Mapping;
 import org.epos.eposdatamodel.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Optimized version of AvailableFormatsGeneration with:
  * - Batch fetching of mappings (eliminates N+1 queries)
- * - Parallel processing for large lists
+ * - Formats of every distribution precomputed once per catalogue snapshot and plugin reload
  * - Reduced object allocations
  * - Cleaner code structure
  */
 public class AvailableFormatsGeneration {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AvailableFormatsGeneration.class);
+
     private static final String API_PATH_EXECUTE = EnvironmentVariables.API_CONTEXT + "/execute/";
     private static final String API_PATH_EXECUTE_OGC = EnvironmentVariables.API_CONTEXT + "/ogcexecute/";
     private static final String API_FORMAT = "?format=";
     private static final String API_INPUT_FORMAT = "inputFormat=";
     private static final String API_PLUGIN_ID = "pluginId=";
 
-    private static Map<String, List<AvailableFormat>> formats;
-
-    public static Map<String, List<AvailableFormat>> getFormats() {
-        return formats;
-    }
+    /**
+     * Links read to build the formats of a distribution
+     */
+    private static final EntityGraph FORMATS_GRAPH = EntityGraph.empty()
+            .followFirst(Distribution.class, Operation.class, Distribution::getSupportedOperation)
+            .follow(Operation.class, Mapping.class, Operation::getMapping);
 
     /**
      * Helper method to create AvailableFormat objects
@@ -70,48 +74,94 @@ public class AvailableFormatsGeneration {
     }
 
     /**
-     * Generate formats for a list of distributions (with pre-computed map)
+     * Formats of every distribution of the snapshot, computed once per snapshot and again whenever
+     * the plugin relations are reloaded. The map and its lists are immutable.
      */
-    public static Map<String, List<AvailableFormat>> generate(List<Distribution> distributions) {
-        formats = new ConcurrentHashMap<>();
-        distributions.forEach(distribution -> {
-            formats.put(distribution.getInstanceId(), generate(distribution));
-        });
-        return formats;
+    public static Map<String, List<AvailableFormat>> formatsOf(CatalogueSnapshot snapshot) {
+        FormatsHolder holder = snapshot.derive(FormatsHolder.class, s -> new FormatsHolder());
+        Map<String, List<Plugin.Relations>> plugins = DatabaseConnections.getInstance().getPlugins();
+        FormatsTable table = holder.table;
+        if (table == null || table.plugins != plugins) {
+            synchronized (holder) {
+                table = holder.table;
+                if (table == null || table.plugins != plugins) {
+                    table = new FormatsTable(plugins, build(snapshot, plugins));
+                    holder.table = table;
+                }
+            }
+        }
+        return table.formats;
+    }
+
+    private static Map<String, List<AvailableFormat>> build(CatalogueSnapshot snapshot,
+                                                            Map<String, List<Plugin.Relations>> plugins) {
+        long startTime = System.currentTimeMillis();
+        Map<String, List<AvailableFormat>> formats = snapshot.getAll(Distribution.class).parallelStream()
+                .filter(distribution -> distribution.getInstanceId() != null)
+                .collect(Collectors.toConcurrentMap(
+                        Distribution::getInstanceId,
+                        distribution -> Collections.unmodifiableList(generate(distribution, snapshot, plugins)),
+                        (existing, replacement) -> existing));
+        LOGGER.info("[PERF] Available formats of catalogue version {} built in {} ms ({} distributions)",
+                snapshot.getVersion(), System.currentTimeMillis() - startTime, formats.size());
+        return Map.copyOf(formats);
     }
 
     /**
-     * Generate formats for all distributions (optimized with parallel streams)
+     * Formats of a single distribution, read from the current snapshot or, for a distribution newer
+     * than the snapshot, resolved from the database
      */
-    public static Map<String, List<AvailableFormat>> generate() {
-        List<Distribution> distributions = (List<Distribution>) AbstractAPI
-                .retrieveAPI(EntityNames.DISTRIBUTION.name())
-                .retrieveAll();
-
-        formats = new ConcurrentHashMap<>();
-
-        // Use parallel processing for large lists
-        if (distributions.size() > 100) {
-            distributions.parallelStream().forEach(distribution -> {
-                if (distribution != null) {
-                    formats.put(distribution.getInstanceId(), generate(distribution));
-                }
-            });
-        } else {
-            distributions.forEach(distribution -> {
-                if (distribution != null) {
-                    formats.put(distribution.getInstanceId(), generate(distribution));
-                }
-            });
+    public static List<AvailableFormat> generate(Distribution distribution) {
+        CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+        if (snapshot.contains(Distribution.class, distribution.getInstanceId())) {
+            return generate(distribution, snapshot);
         }
 
-        return formats;
+        // Distribution newer than the snapshot: load its operation and mappings from the database
+        return generate(distribution, new EntityGraphLoader()
+                .expand(FORMATS_GRAPH, Distribution.class, List.of(distribution)));
+    }
+
+    /**
+     * Formats of a distribution whose operation and mappings the lookup resolves, read from the
+     * precomputed formats when the lookup is a snapshot holding the distribution
+     */
+    public static List<AvailableFormat> generate(Distribution distribution, EntityLookup lookup) {
+        if (lookup instanceof CatalogueSnapshot
+                && ((CatalogueSnapshot) lookup).contains(Distribution.class, distribution.getInstanceId())) {
+            return generate(distribution, (CatalogueSnapshot) lookup);
+        }
+        return generate(distribution, lookup, DatabaseConnections.getInstance().getPlugins());
+    }
+
+    /**
+     * Formats of a single distribution of the given snapshot, read from its precomputed formats
+     */
+    public static List<AvailableFormat> generate(Distribution distribution, CatalogueSnapshot snapshot) {
+        if (distribution.getInstanceId() == null) {
+            return List.of();
+        }
+        return formatsOf(snapshot).getOrDefault(distribution.getInstanceId(), List.of());
+    }
+
+    private static List<AvailableFormat> generate(Distribution distribution, EntityLookup lookup,
+                                                  Map<String, List<Plugin.Relations>> plugins) {
+        return generate(distribution,
+                linkedEntity -> lookup.get(Operation.class, linkedEntity),
+                mappingIds -> mappingIds.stream()
+                        .map(mappingId -> lookup.get(Mapping.class, mappingId))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()),
+                plugins);
     }
 
     /**
      * Generate formats for a single distribution (OPTIMIZED with batch fetching)
      */
-    public static List<AvailableFormat> generate(Distribution distribution) {
+    private static List<AvailableFormat> generate(Distribution distribution,
+                                                  Function<LinkedEntity, Operation> operationResolver,
+                                                  Function<List<String>, List<Mapping>> mappingsResolver,
+                                                  Map<String, List<Plugin.Relations>> plugins) {
         List<AvailableFormat> formats = new ArrayList<>();
 
         // DOWNLOADABLE FILE
@@ -130,8 +180,7 @@ public class AvailableFormatsGeneration {
         }
 
         // WEBSERVICE - retrieve operation
-        Operation operation = (Operation) LinkedEntityAPI.retrieveFromLinkedEntity(
-                distribution.getSupportedOperation().get(0));
+        Operation operation = operationResolver.apply(distribution.getSupportedOperation().get(0));
 
         if (operation == null) {
             return formats;
@@ -140,9 +189,9 @@ public class AvailableFormatsGeneration {
         boolean isOgcFormat = false;
 
         // Process plugins if available
-        if (DatabaseConnections.getInstance().getPlugins().containsKey(distribution.getInstanceId())) {
-            for (Plugin.Relations relation : DatabaseConnections.getInstance().getPlugins()
-                    .get(distribution.getInstanceId())) {
+        List<Plugin.Relations> relations = plugins != null ? plugins.get(distribution.getInstanceId()) : null;
+        if (relations != null) {
+            for (Plugin.Relations relation : relations) {
                 processPluginRelation(relation, distribution, formats);
             }
         }
@@ -154,9 +203,7 @@ public class AvailableFormatsGeneration {
                     .collect(Collectors.toList());
 
             // Single batch fetch instead of N individual queries
-            List<Mapping> mappings = (List<Mapping>) AbstractAPI
-                    .retrieveAPI(EntityNames.MAPPING.name())
-                    .retrieveBunch(mappingIds);
+            List<Mapping> mappings = mappingsResolver.apply(mappingIds);
 
             if (mappings != null && !mappings.isEmpty()) {
                 isOgcFormat = processMappings(mappings, operation, distribution, formats);
@@ -323,4 +370,21 @@ public class AvailableFormatsGeneration {
     private static String buildHrefOgc(Distribution distribution) {
         return EnvironmentVariables.API_HOST + API_PATH_EXECUTE_OGC + distribution.getInstanceId();
     }
+
+    /**
+     * Formats table of one snapshot, replaced when the plugin relations change
+     */
+    private static final class FormatsHolder {
+        private volatile FormatsTable table;
+    }
+
+    private static final class FormatsTable {
+        private final Map<String, List<Plugin.Relations>> plugins;
+        private final Map<String, List<AvailableFormat>> formats;
+
+        private FormatsTable(Map<String, List<Plugin.Relations>> plugins, Map<String, List<AvailableFormat>> formats) {
+            this.plugins = plugins;
+            this.formats = formats;
+        }
+    }
 }
\ No newline at end of file
@@ -2,71 +2,39 @@ package org.epos.api.core;
 
 import java.util.*;
 
-import abstractapis.AbstractAPI;
-import metadataapis.EntityNames;
 import org.epos.api.beans.DataServiceProvider;
-import org.epos.api.routines.DatabaseConnections;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
+import org.epos.api.core.catalogue.OrganisationIndex;
 import org.epos.eposdatamodel.Address;
-import org.epos.eposdatamodel.Category;
-import org.epos.eposdatamodel.LinkedEntity;
 import org.epos.eposdatamodel.Organization;
 
 public class DataServiceProviderGeneration {
 
 	public static List<DataServiceProvider> getProviders(List<Organization> organizations) {
+		return getProviders(organizations, Catalogue.getInstance().getSnapshot());
+	}
+
+	public static List<DataServiceProvider> getProviders(List<Organization> organizations, CatalogueSnapshot snapshot) {
 
-		List<Organization> organizationList = (List<Organization>) AbstractAPI.retrieveAPI(EntityNames.ORGANIZATION.name()).retrieveAll();
+		OrganisationIndex organisationIndex = snapshot.getOrganisationIndex();
 
 		List<DataServiceProvider> organizationStructure = new ArrayList<>();
 		for (Organization org : organizations) {
 			if (org != null) {
 				// only take into account the organization with legalname
-				if (org.getLegalName() != null && !org.getLegalName().isEmpty()) {
+				if (OrganisationIndex.hasLegalName(org)) {
 
-					String mainOrganizationLegalName;
 					List<DataServiceProvider> relatedOrganizations = new ArrayList<>();
 
-					mainOrganizationLegalName = String.join(".", org.getLegalName());
-
+					// members are already sorted by legal name in the organisation index
 					if (org.getMemberOf() == null) {
-						organizationList.stream().filter(organization -> organization.getMemberOf() != null)
-								.forEach(organization1 -> {
-									Optional<LinkedEntity> resultEntities = organization1.getMemberOf().stream()
-											.filter(linkedEntity -> linkedEntity.getInstanceId().equals(org.getInstanceId()))
-											.findAny();
-
-									if (resultEntities.isPresent()) {
-										if (organization1.getLegalName() != null && !organization1.getLegalName().isEmpty()) {
-											String relatedOrganizationLegalName = String.join(".", organization1.getLegalName());
-											DataServiceProvider relatedDataprovider = new DataServiceProvider();
-											relatedDataprovider.setDataProviderLegalName(relatedOrganizationLegalName);
-											relatedDataprovider.setDataProviderUrl(organization1.getURL());
-											relatedDataprovider.setUid(organization1.getInstanceId());
-											relatedDataprovider.setInstanceid(organization1.getInstanceId());
-											relatedDataprovider.setMetaid(organization1.getInstanceId());
-											if (organization1.getAddress() != null) {
-												Address address = (Address) AbstractAPI.retrieveAPI(EntityNames.ADDRESS.name()).retrieve(organization1.getAddress().getInstanceId());
-												if(Objects.nonNull(address) && Objects.nonNull(address.getCountry())) relatedDataprovider.setCountry(address.getCountry());
-											}
-											relatedOrganizations.add(relatedDataprovider);
-										}
-									}
-								});
+						for (Organization member : organisationIndex.getMembers(org.getInstanceId())) {
+							relatedOrganizations.add(toProvider(member, null, snapshot));
+						}
 					}
-					relatedOrganizations.sort(Comparator.comparing(DataServiceProvider::getDataProviderLegalName));
 
-					DataServiceProvider dataServiceProvider = new DataServiceProvider();
-					dataServiceProvider.setDataProviderLegalName(mainOrganizationLegalName);
-					dataServiceProvider.setRelatedDataProvider(relatedOrganizations);
-					dataServiceProvider.setDataProviderUrl(org.getURL());
-					dataServiceProvider.setUid(org.getInstanceId());
-					dataServiceProvider.setInstanceid(org.getInstanceId());
-					dataServiceProvider.setMetaid(org.getInstanceId());
-					if (org.getAddress() != null) {
-						Address address = (Address) AbstractAPI.retrieveAPI(EntityNames.ADDRESS.name()).retrieve(org.getAddress().getInstanceId());
-						if(Objects.nonNull(address) && Objects.nonNull(address.getCountry())) dataServiceProvider.setCountry(address.getCountry());
-					}
-					organizationStructure.add(dataServiceProvider);
+					organizationStructure.add(toProvider(org, relatedOrganizations, snapshot));
 				}
 			}
 		}
@@ -74,4 +42,22 @@ public class DataServiceProviderGeneration {
 		organizationStructure.sort(Comparator.comparing(DataServiceProvider::getDataProviderLegalName));
 		return organizationStructure;
 	}
+
+	private static DataServiceProvider toProvider(Organization organization, List<DataServiceProvider> relatedOrganizations,
+			CatalogueSnapshot snapshot) {
+		DataServiceProvider dataServiceProvider = new DataServiceProvider();
+		dataServiceProvider.setDataProviderLegalName(OrganisationIndex.legalName(organization));
+		dataServiceProvider.setRelatedDataProvider(relatedOrganizations);
+		dataServiceProvider.setDataProviderUrl(organization.getURL());
+		dataServiceProvider.setUid(organization.getInstanceId());
+		dataServiceProvider.setInstanceid(organization.getInstanceId());
+		dataServiceProvider.setMetaid(organization.getInstanceId());
+		String country = snapshot.getOrganisationIndex().getCountry(organization.getInstanceId());
+		if (country == null && organization.getAddress() != null) {
+			Address address = snapshot.get(Address.class, organization.getAddress());
+			if (Objects.nonNull(address)) country = address.getCountry();
+		}
+		if (Objects.nonNull(country)) dataServiceProvider.setCountry(country);
+		return dataServiceProvider;
+	}
 }
@@ -0,0 +1,75 @@
+package org.epos.api.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.epos.api.routines.DatabaseConnections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs independent database fetches, such as the entity types of one {@link EntityGraphLoader}
+ * level, concurrently on virtual threads.
+ * At most as many fetches as the API may hold database connections run at once, the others wait
+ * for a permit instead of queueing on the connection pool.
+ * <p>
+ * Only leaf fetches should be submitted: a task waiting on other submitted tasks while holding a
+ * permit could starve them.
+ */
+public class EntityFetchExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityFetchExecutor.class);
+
+    private static EntityFetchExecutor instance;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+
+    private EntityFetchExecutor() {
+        int maxConnections = Math.max(1, DatabaseConnections.getInstance().getMaxDbConnections());
+        this.permits = new Semaphore(maxConnections);
+        LOGGER.info("Entity fetches bounded to {} concurrent database connections", maxConnections);
+    }
+
+    public static synchronized EntityFetchExecutor getInstance() {
+        if (instance == null) {
+            instance = new EntityFetchExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the fetch on a virtual thread once a database permit is available
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> fetch) {
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return fetch.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Result of the fetch, rethrowing its failure as it would have been thrown by a direct call
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
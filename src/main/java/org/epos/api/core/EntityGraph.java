@@ -0,0 +1,103 @@
+package org.epos.api.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.epos.eposdatamodel.LinkedEntity;
+
+/**
+ * Declared traversal of the EDM graph for an {@link EntityGraphLoader}: the links to follow from
+ * each entity type. A graph is immutable, every method returns an extended copy, so graphs are
+ * declared once as constants next to the code reading the entities.
+ */
+public final class EntityGraph {
+
+    private static final EntityGraph EMPTY = new EntityGraph(Collections.emptyList());
+
+    private final List<Edge<?>> edges;
+
+    private EntityGraph(List<Edge<?>> edges) {
+        this.edges = edges;
+    }
+
+    public static EntityGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Follows every link of a multi-valued property
+     */
+    public <S> EntityGraph follow(Class<S> source, Class<?> target, Function<S, List<LinkedEntity>> links) {
+        return with(new Edge<>(source, target, links));
+    }
+
+    /**
+     * Follows only the first link of a multi-valued property, the one the generators read
+     */
+    public <S> EntityGraph followFirst(Class<S> source, Class<?> target, Function<S, List<LinkedEntity>> links) {
+        return with(new Edge<>(source, target, entity -> {
+            List<LinkedEntity> linkedEntities = links.apply(entity);
+            return linkedEntities != null && !linkedEntities.isEmpty() ? linkedEntities.subList(0, 1) : null;
+        }));
+    }
+
+    /**
+     * Follows a single-valued property
+     */
+    public <S> EntityGraph followOne(Class<S> source, Class<?> target, Function<S, LinkedEntity> link) {
+        return with(new Edge<>(source, target, entity -> {
+            LinkedEntity linkedEntity = link.apply(entity);
+            return linkedEntity != null ? List.of(linkedEntity) : null;
+        }));
+    }
+
+    List<Edge<?>> getEdges() {
+        return edges;
+    }
+
+    private EntityGraph with(Edge<?> edge) {
+        List<Edge<?>> extended = new ArrayList<>(edges);
+        extended.add(edge);
+        return new EntityGraph(Collections.unmodifiableList(extended));
+    }
+
+    static final class Edge<S> {
+        private final Class<S> source;
+        private final Class<?> target;
+        private final Function<S, List<LinkedEntity>> links;
+
+        private Edge(Class<S> source, Class<?> target, Function<S, List<LinkedEntity>> links) {
+            this.source = source;
+            this.target = target;
+            this.links = links;
+        }
+
+        Class<S> getSource() {
+            return source;
+        }
+
+        Class<?> getTarget() {
+            return target;
+        }
+
+        /**
+         * Hands the linked instance ids of the entity to the consumer
+         */
+        void collect(Object entity, Consumer<String> ids) {
+            if (!source.isInstance(entity)) {
+                return;
+            }
+            List<LinkedEntity> linkedEntities = links.apply(source.cast(entity));
+            if (linkedEntities != null) {
+                for (LinkedEntity linkedEntity : linkedEntities) {
+                    if (linkedEntity != null && linkedEntity.getInstanceId() != null) {
+                        ids.accept(linkedEntity.getInstanceId());
+                    }
+                }
+            }
+        }
+    }
+}
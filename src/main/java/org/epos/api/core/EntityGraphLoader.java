@@ -0,0 +1,272 @@
+package org.epos.api.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.epos.eposdatamodel.Address;
+import org.epos.eposdatamodel.Category;
+import org.epos.eposdatamodel.CategoryScheme;
+import org.epos.eposdatamodel.ContactPoint;
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Documentation;
+import org.epos.eposdatamodel.EPOSDataModelEntity;
+import org.epos.eposdatamodel.Equipment;
+import org.epos.eposdatamodel.Facility;
+import org.epos.eposdatamodel.Identifier;
+import org.epos.eposdatamodel.Location;
+import org.epos.eposdatamodel.Mapping;
+import org.epos.eposdatamodel.Operation;
+import org.epos.eposdatamodel.Organization;
+import org.epos.eposdatamodel.PeriodOfTime;
+import org.epos.eposdatamodel.Person;
+import org.epos.eposdatamodel.SoftwareApplication;
+import org.epos.eposdatamodel.SoftwareSourceCode;
+import org.epos.eposdatamodel.WebService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import abstractapis.AbstractAPI;
+import metadataapis.EntityNames;
+
+/**
+ * Loads EDM entities along a declared {@link EntityGraph}, data loader style: the traversal goes
+ * level by level from the roots, every entity type of a level is fetched with one retrieveBunch over
+ * the ids collected from all the roots, and the types of a level are fetched concurrently. Each id
+ * is requested at most once per loader, ids missing from the database included.
+ * <p>
+ * Lookups of entities the graph did not declare are fetched on their own and memoised as well. A
+ * loader is meant for one request or one catalogue load and is not thread safe.
+ */
+public class EntityGraphLoader implements EntityLookup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityGraphLoader.class);
+
+    private static final Map<Class<?>, EntityNames> ENTITY_NAMES = Map.ofEntries(
+            Map.entry(Address.class, EntityNames.ADDRESS),
+            Map.entry(Category.class, EntityNames.CATEGORY),
+            Map.entry(CategoryScheme.class, EntityNames.CATEGORYSCHEME),
+            Map.entry(ContactPoint.class, EntityNames.CONTACTPOINT),
+            Map.entry(DataProduct.class, EntityNames.DATAPRODUCT),
+            Map.entry(Distribution.class, EntityNames.DISTRIBUTION),
+            Map.entry(Documentation.class, EntityNames.DOCUMENTATION),
+            Map.entry(Equipment.class, EntityNames.EQUIPMENT),
+            Map.entry(Facility.class, EntityNames.FACILITY),
+            Map.entry(Identifier.class, EntityNames.IDENTIFIER),
+            Map.entry(Location.class, EntityNames.LOCATION),
+            Map.entry(Mapping.class, EntityNames.MAPPING),
+            Map.entry(Operation.class, EntityNames.OPERATION),
+            Map.entry(Organization.class, EntityNames.ORGANIZATION),
+            Map.entry(PeriodOfTime.class, EntityNames.PERIODOFTIME),
+            Map.entry(Person.class, EntityNames.PERSON),
+            Map.entry(SoftwareApplication.class, EntityNames.SOFTWAREAPPLICATION),
+            Map.entry(SoftwareSourceCode.class, EntityNames.SOFTWARESOURCECODE),
+            Map.entry(WebService.class, EntityNames.WEBSERVICE));
+
+    private final Map<Class<?>, Map<String, Object>> entities = new LinkedHashMap<>();
+    private final Map<Class<?>, Set<String>> requested = new HashMap<>();
+    private final Set<Class<?>> complete = new HashSet<>();
+
+    /**
+     * Loads every entity of the given types, which are then never fetched by id
+     */
+    public EntityGraphLoader loadAll(Class<?>... types) {
+        Map<Class<?>, CompletableFuture<List<?>>> futures = new LinkedHashMap<>();
+        for (Class<?> type : types) {
+            EntityNames entityName = entityName(type);
+            complete.add(type);
+            futures.put(type, submit(() -> (List<?>) AbstractAPI.retrieveAPI(entityName.name()).retrieveAll()));
+        }
+        futures.forEach((type, future) -> index(type, EntityFetchExecutor.join(future)));
+        return this;
+    }
+
+    /**
+     * Fetches the roots by id, then the graph reachable from them
+     */
+    public EntityGraphLoader load(EntityGraph graph, Class<?> rootType, Collection<String> ids) {
+        Set<String> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(requested(rootType));
+        if (!missing.isEmpty() && !complete.contains(rootType)) {
+            fetch(Map.of(rootType, missing));
+        }
+        Map<String, Object> loaded = entities.getOrDefault(rootType, Collections.emptyMap());
+        List<Object> roots = new ArrayList<>();
+        for (String id : ids) {
+            Object root = loaded.get(id);
+            if (root != null) {
+                roots.add(root);
+            }
+        }
+        traverse(graph, Map.of(rootType, roots));
+        return this;
+    }
+
+    /**
+     * Fetches the graph reachable from roots already at hand, which become part of the loader
+     */
+    public <T extends EPOSDataModelEntity> EntityGraphLoader expand(EntityGraph graph, Class<T> rootType,
+                                                                   Collection<? extends T> roots) {
+        index(rootType, new ArrayList<>(roots));
+        traverse(graph, Map.of(rootType, new ArrayList<>(roots)));
+        return this;
+    }
+
+    /**
+     * Fetches the graph reachable from every entity loaded so far
+     */
+    public EntityGraphLoader expand(EntityGraph graph) {
+        Map<Class<?>, List<Object>> roots = new LinkedHashMap<>();
+        entities.forEach((type, byId) -> roots.put(type, new ArrayList<>(byId.values())));
+        traverse(graph, roots);
+        return this;
+    }
+
+    @Override
+    public <T> T get(Class<T> type, String instanceId) {
+        if (instanceId == null) {
+            return null;
+        }
+        Object entity = entities.getOrDefault(type, Collections.emptyMap()).get(instanceId);
+        if (entity == null && !complete.contains(type) && !requested(type).contains(instanceId)
+                && ENTITY_NAMES.containsKey(type)) {
+            LOGGER.debug("{} {} not declared in the entity graph, fetched on its own", type.getSimpleName(),
+                    instanceId);
+            fetch(Map.of(type, Set.of(instanceId)));
+            entity = entities.getOrDefault(type, Collections.emptyMap()).get(instanceId);
+        }
+        return type.isInstance(entity) ? type.cast(entity) : null;
+    }
+
+    /**
+     * Entities of a type loaded so far, in load order
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getMap(Class<T> type) {
+        Map<String, Object> byId = entities.get(type);
+        return byId != null ? (Map<String, T>) Collections.unmodifiableMap(byId) : Collections.emptyMap();
+    }
+
+    @Override
+    public PreFetchedEntities toPreFetchedEntities() {
+        PreFetchedEntities preFetched = new PreFetchedEntities();
+        preFetched.addresses = view(Address.class);
+        preFetched.identifiers = view(Identifier.class);
+        preFetched.locations = view(Location.class);
+        preFetched.temporals = view(PeriodOfTime.class);
+        preFetched.organizations = view(Organization.class);
+        preFetched.categories = view(Category.class);
+        preFetched.contactPoints = view(ContactPoint.class);
+        preFetched.persons = view(Person.class);
+        preFetched.documentations = view(Documentation.class);
+        preFetched.operations = view(Operation.class);
+        preFetched.mappings = view(Mapping.class);
+        preFetched.distributions = view(Distribution.class);
+        preFetched.webServices = view(WebService.class);
+        return preFetched;
+    }
+
+    private Map<String, Object> view(Class<?> type) {
+        return Collections.unmodifiableMap(entities.getOrDefault(type, Collections.emptyMap()));
+    }
+
+    /**
+     * Follows the edges of the graph level by level, a level being the entities first loaded by
+     * the previous one
+     */
+    private void traverse(EntityGraph graph, Map<Class<?>, List<Object>> roots) {
+        Map<Class<?>, List<Object>> frontier = roots;
+        int level = 0;
+        while (!frontier.isEmpty()) {
+            Map<Class<?>, Set<String>> pending = new LinkedHashMap<>();
+            for (EntityGraph.Edge<?> edge : graph.getEdges()) {
+                List<Object> sources = frontier.get(edge.getSource());
+                if (sources == null || sources.isEmpty() || complete.contains(edge.getTarget())) {
+                    continue;
+                }
+                Set<String> known = requested(edge.getTarget());
+                Set<String> ids = pending.computeIfAbsent(edge.getTarget(), type -> new LinkedHashSet<>());
+                for (Object source : sources) {
+                    edge.collect(source, id -> {
+                        if (!known.contains(id)) {
+                            ids.add(id);
+                        }
+                    });
+                }
+            }
+            pending.values().removeIf(Set::isEmpty);
+            if (pending.isEmpty()) {
+                break;
+            }
+            long startTime = System.currentTimeMillis();
+            frontier = fetch(pending);
+            level++;
+            StringJoiner loaded = new StringJoiner(", ");
+            frontier.forEach((type, fetched) -> loaded.add(fetched.size() + " " + type.getSimpleName()));
+            LOGGER.info("[PERF] Entity graph level {}: {} in {} ms", level, loaded,
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Fetches the ids of each type with one retrieveBunch, the types concurrently, and returns the
+     * entities loaded for the first time
+     */
+    private Map<Class<?>, List<Object>> fetch(Map<Class<?>, Set<String>> pending) {
+        Map<Class<?>, CompletableFuture<List<?>>> futures = new LinkedHashMap<>();
+        pending.forEach((type, ids) -> {
+            EntityNames entityName = entityName(type);
+            requested.computeIfAbsent(type, t -> new HashSet<>()).addAll(ids);
+            List<String> idList = new ArrayList<>(ids);
+            futures.put(type, submit(() -> (List<?>) AbstractAPI.retrieveAPI(entityName.name()).retrieveBunch(idList)));
+        });
+        Map<Class<?>, List<Object>> loaded = new LinkedHashMap<>();
+        futures.forEach((type, future) -> loaded.put(type, index(type, EntityFetchExecutor.join(future))));
+        return loaded;
+    }
+
+    private static CompletableFuture<List<?>> submit(Supplier<List<?>> fetch) {
+        return EntityFetchExecutor.getInstance().submit(fetch);
+    }
+
+    private List<Object> index(Class<?> type, List<?> results) {
+        Map<String, Object> byId = entities.computeIfAbsent(type, t -> new LinkedHashMap<>());
+        Set<String> known = requested.computeIfAbsent(type, t -> new HashSet<>());
+        List<Object> added = new ArrayList<>();
+        if (results != null) {
+            for (Object result : results) {
+                if (type.isInstance(result)) {
+                    String instanceId = ((EPOSDataModelEntity) result).getInstanceId();
+                    if (instanceId != null && byId.putIfAbsent(instanceId, result) == null) {
+                        known.add(instanceId);
+                        added.add(result);
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    private Set<String> requested(Class<?> type) {
+        return requested.getOrDefault(type, Collections.emptySet());
+    }
+
+    private static EntityNames entityName(Class<?> type) {
+        EntityNames entityName = ENTITY_NAMES.get(type);
+        if (entityName == null) {
+            throw new IllegalArgumentException("No entity name for " + type.getName());
+        }
+        return entityName;
+    }
+}
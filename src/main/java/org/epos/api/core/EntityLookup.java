@@ -0,0 +1,42 @@
+package org.epos.api.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.epos.eposdatamodel.LinkedEntity;
+
+/**
+ * Typed access to EDM entities by instance id, answered by the catalogue snapshot or by an
+ * {@link EntityGraphLoader} filled for one request.
+ */
+public interface EntityLookup {
+
+    <T> T get(Class<T> type, String instanceId);
+
+    default <T> T get(Class<T> type, LinkedEntity linkedEntity) {
+        return linkedEntity != null ? get(type, linkedEntity.getInstanceId()) : null;
+    }
+
+    /**
+     * Resolves a list of links, skipping the ones that cannot be resolved
+     */
+    default <T> List<T> getAll(Class<T> type, List<LinkedEntity> linkedEntities) {
+        if (linkedEntities == null || linkedEntities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> resolved = new ArrayList<>(linkedEntities.size());
+        for (LinkedEntity linkedEntity : linkedEntities) {
+            T entity = get(type, linkedEntity);
+            if (entity != null) {
+                resolved.add(entity);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Exposes the entities through the pre-fetch structure read by the generation classes
+     */
+    PreFetchedEntities toPreFetchedEntities();
+}
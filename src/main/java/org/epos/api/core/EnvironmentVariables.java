@@ -21,6 +21,11 @@ public class EnvironmentVariables {
 	public static final String MONITORING = System.getenv("MONITORING");
 	public static final String MONITORING_URL = System.getenv("MONITORING_URL");
     public static final String MONITORING_API_TOKEN = System.getenv("MONITORING_PWD");
+	public static final String SEARCH_CACHE_MAX_MB = System.getenv("SEARCH_CACHE_MAX_MB");
+	public static final String SEARCH_CACHE_TTL_SECONDS = System.getenv("SEARCH_CACHE_TTL_SECONDS");
+	public static final String DETAILS_CACHE_MAX_MB = System.getenv("DETAILS_CACHE_MAX_MB");
+	public static final String DETAILS_CACHE_TTL_SECONDS = System.getenv("DETAILS_CACHE_TTL_SECONDS");
+	public static final String USER_DIRECTORY_TTL_SECONDS = System.getenv("USER_DIRECTORY_TTL_SECONDS");
 
     ///api/frontend/v1
 	
@@ -0,0 +1,154 @@
+package org.epos.api.core.catalogue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holder of the current {@link CatalogueSnapshot}. A refresh builds the next snapshot off to the
+ * side and swaps it in atomically, readers never block and never see a half-built catalogue.
+ * The last few versions stay reachable by number so that paged searches can finish on the
+ * snapshot they started on. Version numbers are only taken by published snapshots; until the
+ * first load succeeds, readers get an empty snapshot and the load is retried at most once per
+ * retry delay.
+ * <p>
+ * Entities changed in the database after a snapshot was loaded can be marked as outdated, readers
+ * then load them from the database until a snapshot loaded after the change is published.
+ */
+public class Catalogue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Catalogue.class);
+
+    /**
+     * Published versions kept reachable, the current one included
+     */
+    private static final int RETAINED_VERSIONS = 3;
+
+    /**
+     * Minimum delay between two loads triggered by readers while no snapshot has been published
+     */
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    private static Catalogue catalogue;
+
+    private final AtomicReference<CatalogueSnapshot> snapshot = new AtomicReference<>();
+    private final Map<Long, CatalogueSnapshot> retained = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final LongFunction<CatalogueSnapshot> builder;
+    private final CatalogueSnapshot empty = CatalogueSnapshot.empty();
+    private final Map<String, Long> outdated = new ConcurrentHashMap<>();
+    private volatile long publishedVersion;
+    private volatile long failedAt;
+
+    private Catalogue() {
+        this(version -> new CatalogueSnapshotBuilder().build(version));
+    }
+
+    Catalogue(LongFunction<CatalogueSnapshot> builder) {
+        this.builder = builder;
+    }
+
+    public static synchronized Catalogue getInstance() {
+        if (catalogue == null) {
+            catalogue = new Catalogue();
+        }
+        return catalogue;
+    }
+
+    /**
+     * Current snapshot, built on the calling thread if no refresh has completed yet. The empty
+     * snapshot is returned while a failed first load waits for its retry.
+     */
+    public CatalogueSnapshot getSnapshot() {
+        CatalogueSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        if (isBackingOff()) {
+            return empty;
+        }
+        refreshLock.lock();
+        try {
+            current = snapshot.get();
+            if (current != null) {
+                return current;
+            }
+            return isBackingOff() ? empty : buildAndPublish();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot published as the given version, null once it is no longer retained
+     */
+    public CatalogueSnapshot getSnapshot(long version) {
+        CatalogueSnapshot current = getSnapshot();
+        return current.getVersion() == version ? current : retained.get(version);
+    }
+
+    /**
+     * Marks an entity as changed in the database. The published snapshot, and the one being built if
+     * a refresh is running, may hold its previous state.
+     */
+    public void markOutdated(String instanceId) {
+        outdated.put(instanceId, publishedVersion + (refreshLock.isLocked() ? 1 : 0));
+    }
+
+    /**
+     * True if the entity was marked as changed after the snapshot was loaded
+     */
+    public boolean isOutdated(CatalogueSnapshot snapshot, String instanceId) {
+        Long version = outdated.get(instanceId);
+        return version != null && version >= snapshot.getVersion();
+    }
+
+    /**
+     * Rebuild the snapshot from the database and publish it as the next version
+     */
+    public CatalogueSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            return buildAndPublish();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Builds the next version and publishes it, the version number is taken only once the build succeeded
+     */
+    private CatalogueSnapshot buildAndPublish() {
+        long startTime = System.currentTimeMillis();
+        try {
+            CatalogueSnapshot next = builder.apply(publishedVersion + 1);
+            publishedVersion = next.getVersion();
+            snapshot.set(next);
+            retained.put(next.getVersion(), next);
+            retained.keySet().removeIf(version -> version <= next.getVersion() - RETAINED_VERSIONS);
+            outdated.values().removeIf(version -> version < next.getVersion());
+            LOGGER.info("[PERF] Catalogue snapshot version {} published in {} ms ({} dataproducts)",
+                    next.getVersion(), System.currentTimeMillis() - startTime, next.getDataProducts().size());
+            return next;
+        } catch (Exception e) {
+            CatalogueSnapshot current = snapshot.get();
+            if (current != null) {
+                LOGGER.error("Error while building the catalogue snapshot, keeping version {}", current.getVersion(), e);
+                return current;
+            }
+            failedAt = System.currentTimeMillis();
+            LOGGER.error("Error while loading the catalogue, serving an empty catalogue for the next {} ms",
+                    RETRY_DELAY_MS, e);
+            return empty;
+        }
+    }
+
+    private boolean isBackingOff() {
+        return System.currentTimeMillis() - failedAt < RETRY_DELAY_MS;
+    }
+}
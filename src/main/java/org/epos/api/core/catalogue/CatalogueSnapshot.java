@@ -0,0 +1,243 @@
+package org.epos.api.core.catalogue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.epos.api.core.EntityLookup;
+import org.epos.api.core.PreFetchedEntities;
+import org.epos.eposdatamodel.Address;
+import org.epos.eposdatamodel.Category;
+import org.epos.eposdatamodel.ContactPoint;
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Documentation;
+import org.epos.eposdatamodel.Identifier;
+import org.epos.eposdatamodel.LinkedEntity;
+import org.epos.eposdatamodel.Location;
+import org.epos.eposdatamodel.Mapping;
+import org.epos.eposdatamodel.Operation;
+import org.epos.eposdatamodel.Organization;
+import org.epos.eposdatamodel.PeriodOfTime;
+import org.epos.eposdatamodel.Person;
+import org.epos.eposdatamodel.WebService;
+
+/**
+ * Immutable, fully-linked view of the catalogue built by {@link Catalogue#refresh()}.
+ * <p>
+ * Every request works against exactly one snapshot, so the graph it walks is consistent even
+ * while a refresh is publishing the next version. The EDM entities held here are shared between
+ * requests and must be treated as read-only.
+ */
+public final class CatalogueSnapshot implements EntityLookup {
+
+    private final long version;
+    private final long createdAt;
+    private final Map<Class<?>, Map<String, ?>> entities;
+    private final List<DataProduct> dataProducts;
+    private final Map<String, Integer> ordinals;
+    private final OrganisationIndex organisationIndex;
+    private final LinkIndex linkIndex;
+    private final KeywordIndex keywordIndex;
+    private final FullTextIndex fullTextIndex;
+    private final SpatialIndex spatialIndex;
+    private final TemporalIndex temporalIndex;
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> derivationLocks = new ConcurrentHashMap<>();
+
+    CatalogueSnapshot(long version, Map<Class<?>, Map<String, ?>> entities) {
+        this.version = version;
+        this.createdAt = System.currentTimeMillis();
+        Map<Class<?>, Map<String, ?>> frozen = new LinkedHashMap<>();
+        entities.forEach((type, byId) -> frozen.put(type, Collections.unmodifiableMap(byId)));
+        this.entities = Collections.unmodifiableMap(frozen);
+        this.dataProducts = List.copyOf(getAll(DataProduct.class));
+        Map<String, Integer> dataProductOrdinals = new HashMap<>();
+        for (int ordinal = 0; ordinal < dataProducts.size(); ordinal++) {
+            dataProductOrdinals.put(dataProducts.get(ordinal).getInstanceId(), ordinal);
+        }
+        this.ordinals = dataProductOrdinals;
+        this.organisationIndex = OrganisationIndex.build(this);
+        this.linkIndex = LinkIndex.build(this);
+        this.keywordIndex = KeywordIndex.build(dataProducts);
+        this.fullTextIndex = FullTextIndex.build(this);
+        this.spatialIndex = SpatialIndex.build(this);
+        this.temporalIndex = TemporalIndex.build(this);
+    }
+
+    /**
+     * View derived from this snapshot by another module, built once on first use and dropped with
+     * the snapshot. Each view has its own lock, so a view may derive other views while it is being
+     * built, from any thread.
+     */
+    public <T> T derive(Class<T> type, Function<CatalogueSnapshot, T> builder) {
+        Object view = derived.get(type);
+        if (view == null) {
+            synchronized (derivationLocks.computeIfAbsent(type, k -> new Object())) {
+                view = derived.get(type);
+                if (view == null) {
+                    view = builder.apply(this);
+                    derived.put(type, view);
+                }
+            }
+        }
+        return type.cast(view);
+    }
+
+    /**
+     * Empty snapshot handed out when the catalogue could not be loaded at all
+     */
+    static CatalogueSnapshot empty() {
+        return new CatalogueSnapshot(0, Collections.emptyMap());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * All dataproducts, whatever their status, in a stable order for the lifetime of the snapshot.
+     * The position of a dataproduct in this list is its ordinal in every index of the snapshot.
+     */
+    public List<DataProduct> getDataProducts() {
+        return dataProducts;
+    }
+
+    /**
+     * Ordinal of a dataproduct, -1 when it is not part of the snapshot
+     */
+    public int ordinalOf(DataProduct dataProduct) {
+        Integer ordinal = dataProduct.getInstanceId() != null ? ordinals.get(dataProduct.getInstanceId()) : null;
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public BitSet toOrdinals(Collection<DataProduct> dataProducts) {
+        BitSet selected = new BitSet(this.dataProducts.size());
+        for (DataProduct dataProduct : dataProducts) {
+            int ordinal = ordinalOf(dataProduct);
+            if (ordinal >= 0) {
+                selected.set(ordinal);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Materialises a set of ordinals, in ordinal order
+     */
+    public List<DataProduct> toDataProducts(BitSet selected) {
+        List<DataProduct> result = new ArrayList<>(selected.cardinality());
+        for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+            result.add(dataProducts.get(ordinal));
+        }
+        return result;
+    }
+
+    public OrganisationIndex getOrganisationIndex() {
+        return organisationIndex;
+    }
+
+    public LinkIndex getLinkIndex() {
+        return linkIndex;
+    }
+
+    public KeywordIndex getKeywordIndex() {
+        return keywordIndex;
+    }
+
+    public FullTextIndex getFullTextIndex() {
+        return fullTextIndex;
+    }
+
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    public TemporalIndex getTemporalIndex() {
+        return temporalIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getMap(Class<T> type) {
+        Map<String, ?> byId = entities.get(type);
+        return byId != null ? (Map<String, T>) byId : Collections.emptyMap();
+    }
+
+    public <T> Collection<T> getAll(Class<T> type) {
+        return getMap(type).values();
+    }
+
+    @Override
+    public <T> T get(Class<T> type, String instanceId) {
+        return instanceId != null ? getMap(type).get(instanceId) : null;
+    }
+
+    @Override
+    public <T> T get(Class<T> type, LinkedEntity linkedEntity) {
+        return linkedEntity != null ? get(type, linkedEntity.getInstanceId()) : null;
+    }
+
+    /**
+     * Resolves a list of links, skipping the ones that are not part of the snapshot
+     */
+    @Override
+    public <T> List<T> getAll(Class<T> type, List<LinkedEntity> linkedEntities) {
+        if (linkedEntities == null || linkedEntities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> resolved = new ArrayList<>(linkedEntities.size());
+        for (LinkedEntity linkedEntity : linkedEntities) {
+            T entity = get(type, linkedEntity);
+            if (entity != null) {
+                resolved.add(entity);
+            }
+        }
+        return resolved;
+    }
+
+    public boolean contains(Class<?> type, String instanceId) {
+        return instanceId != null && getMap(type).containsKey(instanceId);
+    }
+
+    public int size(Class<?> type) {
+        return getMap(type).size();
+    }
+
+    /**
+     * Exposes the snapshot through the pre-fetch structure used by the generation classes, backed by
+     * read-only views instead of per-request batch fetches
+     */
+    @Override
+    public PreFetchedEntities toPreFetchedEntities() {
+        PreFetchedEntities preFetched = new PreFetchedEntities();
+        preFetched.addresses = view(Address.class);
+        preFetched.identifiers = view(Identifier.class);
+        preFetched.locations = view(Location.class);
+        preFetched.temporals = view(PeriodOfTime.class);
+        preFetched.organizations = view(Organization.class);
+        preFetched.categories = view(Category.class);
+        preFetched.contactPoints = view(ContactPoint.class);
+        preFetched.persons = view(Person.class);
+        preFetched.documentations = view(Documentation.class);
+        preFetched.operations = view(Operation.class);
+        preFetched.mappings = view(Mapping.class);
+        preFetched.distributions = view(Distribution.class);
+        preFetched.webServices = view(WebService.class);
+        return preFetched;
+    }
+
+    private Map<String, Object> view(Class<?> type) {
+        return Collections.unmodifiableMap(getMap(type));
+    }
+}
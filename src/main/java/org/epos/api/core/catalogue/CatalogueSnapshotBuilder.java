@@ -0,0 +1,87 @@
+package org.epos.api.core.catalogue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.epos.api.core.EntityGraph;
+import org.epos.api.core.EntityGraphLoader;
+import org.epos.eposdatamodel.Address;
+import org.epos.eposdatamodel.Category;
+import org.epos.eposdatamodel.CategoryScheme;
+import org.epos.eposdatamodel.ContactPoint;
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Documentation;
+import org.epos.eposdatamodel.Equipment;
+import org.epos.eposdatamodel.Facility;
+import org.epos.eposdatamodel.Identifier;
+import org.epos.eposdatamodel.Location;
+import org.epos.eposdatamodel.Mapping;
+import org.epos.eposdatamodel.Operation;
+import org.epos.eposdatamodel.Organization;
+import org.epos.eposdatamodel.PeriodOfTime;
+import org.epos.eposdatamodel.Person;
+import org.epos.eposdatamodel.SoftwareApplication;
+import org.epos.eposdatamodel.SoftwareSourceCode;
+import org.epos.eposdatamodel.WebService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the catalogue graph level by level: the root entities are read in full, every linked
+ * entity type is then fetched with a single batch call per level, the types of a level concurrently.
+ */
+class CatalogueSnapshotBuilder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogueSnapshotBuilder.class);
+
+    private static final Class<?>[] ROOTS = {
+            DataProduct.class, Distribution.class, Organization.class, Category.class, CategoryScheme.class,
+            Facility.class, Equipment.class, SoftwareApplication.class, SoftwareSourceCode.class
+    };
+
+    private static final Class<?>[] LINKED = {
+            WebService.class, Operation.class, Identifier.class, Location.class, PeriodOfTime.class,
+            ContactPoint.class, Documentation.class, Address.class, Mapping.class, Person.class
+    };
+
+    /**
+     * Links the snapshot resolves from the roots
+     */
+    private static final EntityGraph CATALOGUE_GRAPH = EntityGraph.empty()
+            .follow(Distribution.class, WebService.class, Distribution::getAccessService)
+            .follow(Distribution.class, Operation.class, Distribution::getSupportedOperation)
+            .follow(WebService.class, Operation.class, WebService::getSupportedOperation)
+            .follow(DataProduct.class, Identifier.class, DataProduct::getIdentifier)
+            .follow(WebService.class, Identifier.class, WebService::getIdentifier)
+            .follow(SoftwareApplication.class, Identifier.class, SoftwareApplication::getIdentifier)
+            .follow(SoftwareSourceCode.class, Identifier.class, SoftwareSourceCode::getIdentifier)
+            .follow(DataProduct.class, Location.class, DataProduct::getSpatialExtent)
+            .follow(WebService.class, Location.class, WebService::getSpatialExtent)
+            .follow(Facility.class, Location.class, Facility::getSpatialExtent)
+            .follow(Equipment.class, Location.class, Equipment::getSpatialExtent)
+            .follow(DataProduct.class, PeriodOfTime.class, DataProduct::getTemporalExtent)
+            .follow(WebService.class, PeriodOfTime.class, WebService::getTemporalExtent)
+            .follow(DataProduct.class, ContactPoint.class, DataProduct::getContactPoint)
+            .follow(WebService.class, ContactPoint.class, WebService::getContactPoint)
+            .follow(WebService.class, Documentation.class, WebService::getDocumentation)
+            .followOne(Organization.class, Address.class, Organization::getAddress)
+            .follow(Operation.class, Mapping.class, Operation::getMapping)
+            .followOne(ContactPoint.class, Person.class, ContactPoint::getPerson);
+
+    CatalogueSnapshot build(long version) {
+        EntityGraphLoader loader = new EntityGraphLoader()
+                .loadAll(ROOTS)
+                .expand(CATALOGUE_GRAPH);
+
+        Map<Class<?>, Map<String, ?>> entities = new LinkedHashMap<>();
+        for (Class<?>[] types : new Class<?>[][] { ROOTS, LINKED }) {
+            for (Class<?> type : types) {
+                Map<String, ?> byId = loader.getMap(type);
+                LOGGER.info("Catalogue snapshot: {} {}", byId.size(), type.getSimpleName());
+                entities.put(type, byId);
+            }
+        }
+        return new CatalogueSnapshot(version, entities);
+    }
+}
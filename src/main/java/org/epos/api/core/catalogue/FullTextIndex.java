@@ -0,0 +1,250 @@
+package org.epos.api.core.catalogue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Identifier;
+import org.epos.eposdatamodel.WebService;
+
+/**
+ * Trigram index over the fields searched by the {@code q} parameter, built once per snapshot.
+ * <p>
+ * A term must be a substring of one of the text fields of a dataproduct (its UID and identifiers,
+ * the titles, descriptions and UIDs of its distributions, the UID, name and description of their
+ * webservices) or exactly one of the dataproduct or webservice keywords. The trigrams of the term
+ * give a candidate set, only the candidates are then verified against the stored fields.
+ */
+public final class FullTextIndex {
+
+    private static final int GRAM = 3;
+
+    private final int size;
+    private final String[][] fields;
+    private final Set<String>[] keywords;
+    private final Map<String, int[]> grams;
+    private final Map<String, int[]> keywordPostings;
+
+    private FullTextIndex(int size, String[][] fields, Set<String>[] keywords,
+                          Map<String, int[]> grams, Map<String, int[]> keywordPostings) {
+        this.size = size;
+        this.fields = fields;
+        this.keywords = keywords;
+        this.grams = grams;
+        this.keywordPostings = keywordPostings;
+    }
+
+    @SuppressWarnings("unchecked")
+    static FullTextIndex build(CatalogueSnapshot snapshot) {
+        List<DataProduct> dataProducts = snapshot.getDataProducts();
+        int size = dataProducts.size();
+        String[][] fields = new String[size][];
+        Set<String>[] keywords = new Set[size];
+        Map<String, List<Integer>> grams = new HashMap<>();
+        Map<String, List<Integer>> keywordPostings = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            DataProduct dataProduct = dataProducts.get(ordinal);
+            Set<String> dataProductFields = new LinkedHashSet<>();
+            Set<String> dataProductKeywords = new HashSet<>();
+            collect(dataProduct, snapshot, dataProductFields, dataProductKeywords);
+
+            fields[ordinal] = dataProductFields.toArray(new String[0]);
+            keywords[ordinal] = Set.copyOf(dataProductKeywords);
+
+            Set<String> dataProductGrams = new HashSet<>();
+            for (String field : dataProductFields) {
+                for (int i = 0; i + GRAM <= field.length(); i++) {
+                    dataProductGrams.add(field.substring(i, i + GRAM));
+                }
+            }
+            for (String gram : dataProductGrams) {
+                Postings.add(grams, gram, ordinal);
+            }
+            for (String keyword : dataProductKeywords) {
+                Postings.add(keywordPostings, keyword, ordinal);
+            }
+        }
+
+        return new FullTextIndex(size, fields, keywords, Postings.freeze(grams), Postings.freeze(keywordPostings));
+    }
+
+    private static void collect(DataProduct dataProduct, CatalogueSnapshot snapshot,
+                                Set<String> fields, Set<String> keywords) {
+        addKeywords(dataProduct.getKeywords(), keywords);
+        addField(dataProduct.getUid(), fields);
+
+        for (Identifier identifier : snapshot.getAll(Identifier.class, dataProduct.getIdentifier())) {
+            if (identifier.getIdentifier() != null && identifier.getType() != null) {
+                fields.add(identifier.getIdentifier().toLowerCase());
+                fields.add(identifier.getType().toLowerCase());
+                fields.add(identifier.getType().toLowerCase() + identifier.getIdentifier().toLowerCase());
+            }
+        }
+
+        for (Distribution distribution : snapshot.getAll(Distribution.class, dataProduct.getDistribution())) {
+            if (distribution.getTitle() != null) {
+                distribution.getTitle().forEach(title -> addField(title, fields));
+            }
+            addField(distribution.getUid(), fields);
+            if (distribution.getDescription() != null) {
+                distribution.getDescription().forEach(description -> addField(description, fields));
+            }
+            for (WebService webService : snapshot.getAll(WebService.class, distribution.getAccessService())) {
+                addField(webService.getUid(), fields);
+                addField(webService.getName(), fields);
+                addField(webService.getDescription(), fields);
+                addKeywords(webService.getKeywords(), keywords);
+            }
+        }
+    }
+
+    private static void addField(String value, Set<String> fields) {
+        if (value != null) {
+            fields.add(value.toLowerCase());
+        }
+    }
+
+    private static void addKeywords(String value, Set<String> keywords) {
+        if (value != null) {
+            Arrays.stream(value.split(","))
+                    .map(String::toLowerCase)
+                    .map(String::trim)
+                    .forEach(keywords::add);
+        }
+    }
+
+    /**
+     * Ordinals of the dataproducts matching every term
+     *
+     * @param terms lowercase search terms
+     */
+    public BitSet match(Collection<String> terms) {
+        int[] matching = null;
+        for (String term : terms) {
+            matching = verify(term, candidates(term, matching));
+            if (matching.length == 0) {
+                break;
+            }
+        }
+        if (matching == null) {
+            matching = allOrdinals();
+        }
+
+        BitSet result = new BitSet(size);
+        for (int ordinal : matching) {
+            result.set(ordinal);
+        }
+        return result;
+    }
+
+    /**
+     * Candidate ordinals for a term, restricted to the dataproducts still matching the previous terms
+     */
+    private int[] candidates(String term, int[] restriction) {
+        int[] substringCandidates;
+        if (term.length() < GRAM) {
+            substringCandidates = restriction != null ? restriction : allOrdinals();
+        } else {
+            List<int[]> postings = new ArrayList<>();
+            if (restriction != null) {
+                postings.add(restriction);
+            }
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                int[] posting = grams.get(term.substring(i, i + GRAM));
+                if (posting == null) {
+                    postings.clear();
+                    break;
+                }
+                postings.add(posting);
+            }
+            substringCandidates = postings.isEmpty() ? new int[0] : intersect(postings);
+        }
+
+        int[] keywordCandidates = keywordPostings.get(term);
+        if (keywordCandidates == null || substringCandidates.length == size) {
+            return substringCandidates;
+        }
+        if (restriction != null) {
+            keywordCandidates = intersect(new ArrayList<>(List.of(restriction, keywordCandidates)));
+        }
+        return union(substringCandidates, keywordCandidates);
+    }
+
+    private int[] verify(String term, int[] candidates) {
+        int[] verified = new int[candidates.length];
+        int count = 0;
+        for (int ordinal : candidates) {
+            if (matches(ordinal, term)) {
+                verified[count++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(verified, count);
+    }
+
+    private boolean matches(int ordinal, String term) {
+        if (keywords[ordinal].contains(term)) {
+            return true;
+        }
+        for (String field : fields[ordinal]) {
+            if (field.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] allOrdinals() {
+        int[] all = new int[size];
+        Arrays.setAll(all, i -> i);
+        return all;
+    }
+
+    /**
+     * Intersection of sorted postings, walking the shortest one
+     */
+    private static int[] intersect(List<int[]> postings) {
+        postings.sort(Comparator.comparingInt(posting -> posting.length));
+        int[] shortest = postings.get(0);
+        int[] result = new int[shortest.length];
+        int count = 0;
+        outer:
+        for (int ordinal : shortest) {
+            for (int i = 1; i < postings.size(); i++) {
+                if (Arrays.binarySearch(postings.get(i), ordinal) < 0) {
+                    continue outer;
+                }
+            }
+            result[count++] = ordinal;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                result[count++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,78 @@
+package org.epos.api.core.catalogue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.epos.eposdatamodel.DataProduct;
+
+/**
+ * Inverted index from normalised keyword to the dataproducts declaring it, built once per snapshot.
+ * The same dictionary backs the {@code keywords} filter and the keyword vocabulary of the response.
+ */
+public final class KeywordIndex {
+
+    private final Map<String, int[]> postings;
+    private final Map<String, List<String>> keywordsByDataProduct;
+
+    private KeywordIndex(Map<String, int[]> postings, Map<String, List<String>> keywordsByDataProduct) {
+        this.postings = postings;
+        this.keywordsByDataProduct = keywordsByDataProduct;
+    }
+
+    static KeywordIndex build(List<DataProduct> dataProducts) {
+        Map<String, List<Integer>> postings = new HashMap<>();
+        Map<String, List<String>> keywordsByDataProduct = new HashMap<>();
+        for (int ordinal = 0; ordinal < dataProducts.size(); ordinal++) {
+            DataProduct dataProduct = dataProducts.get(ordinal);
+            List<String> keywords = normalise(dataProduct.getKeywords());
+            if (keywords.isEmpty()) {
+                continue;
+            }
+            keywordsByDataProduct.put(dataProduct.getInstanceId(), keywords);
+            for (String keyword : keywords) {
+                Postings.add(postings, keyword, ordinal);
+            }
+        }
+        return new KeywordIndex(Postings.freeze(postings), Map.copyOf(keywordsByDataProduct));
+    }
+
+    /**
+     * Splits a comma separated keyword list into distinct, trimmed, lowercase keywords
+     */
+    public static List<String> normalise(String keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> normalised = new LinkedHashSet<>();
+        Arrays.stream(keywords.split(","))
+                .map(String::toLowerCase)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .forEach(normalised::add);
+        return List.copyOf(normalised);
+    }
+
+    /**
+     * Ordinals of the dataproducts declaring at least one of the given keywords
+     */
+    public BitSet match(Collection<String> keywords) {
+        return Postings.union(postings, keywords);
+    }
+
+    /**
+     * Normalised keywords of a dataproduct, empty when it declares none
+     */
+    public List<String> keywordsOf(DataProduct dataProduct) {
+        if (dataProduct.getInstanceId() == null) {
+            return Collections.emptyList();
+        }
+        return keywordsByDataProduct.getOrDefault(dataProduct.getInstanceId(), Collections.emptyList());
+    }
+}
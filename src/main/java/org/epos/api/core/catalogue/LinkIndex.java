@@ -0,0 +1,104 @@
+package org.epos.api.core.catalogue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.epos.eposdatamodel.Category;
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Organization;
+import org.epos.eposdatamodel.WebService;
+
+/**
+ * Posting lists from the linked entities of a dataproduct to its ordinal: science domains (category
+ * names of the dataproduct), service types (category names of its webservices), provider ids
+ * (publishers and webservice providers with their member organisations) and metaId.
+ */
+public final class LinkIndex {
+
+    private final Map<String, int[]> scienceDomains;
+    private final Map<String, int[]> serviceTypes;
+    private final Map<String, int[]> providers;
+    private final Map<String, int[]> metaIds;
+
+    private LinkIndex(Map<String, int[]> scienceDomains, Map<String, int[]> serviceTypes,
+                      Map<String, int[]> providers, Map<String, int[]> metaIds) {
+        this.scienceDomains = scienceDomains;
+        this.serviceTypes = serviceTypes;
+        this.providers = providers;
+        this.metaIds = metaIds;
+    }
+
+    static LinkIndex build(CatalogueSnapshot snapshot) {
+        Map<String, List<Integer>> scienceDomains = new HashMap<>();
+        Map<String, List<Integer>> serviceTypes = new HashMap<>();
+        Map<String, List<Integer>> providers = new HashMap<>();
+        Map<String, List<Integer>> metaIds = new HashMap<>();
+
+        OrganisationIndex organisationIndex = snapshot.getOrganisationIndex();
+
+        List<DataProduct> dataProducts = snapshot.getDataProducts();
+        for (int ordinal = 0; ordinal < dataProducts.size(); ordinal++) {
+            DataProduct dataProduct = dataProducts.get(ordinal);
+
+            if (dataProduct.getMetaId() != null) {
+                Postings.add(metaIds, dataProduct.getMetaId(), ordinal);
+            }
+
+            for (Category category : snapshot.getAll(Category.class, dataProduct.getCategory())) {
+                if (category.getName() != null) {
+                    Postings.add(scienceDomains, category.getName(), ordinal);
+                }
+            }
+
+            List<Organization> organizations = new ArrayList<>(
+                    snapshot.getAll(Organization.class, dataProduct.getPublisher()));
+            for (Distribution distribution : snapshot.getAll(Distribution.class, dataProduct.getDistribution())) {
+                for (WebService webService : snapshot.getAll(WebService.class, distribution.getAccessService())) {
+                    for (Category category : snapshot.getAll(Category.class, webService.getCategory())) {
+                        if (category.getName() != null) {
+                            Postings.add(serviceTypes, category.getName(), ordinal);
+                        }
+                    }
+                    Organization provider = snapshot.get(Organization.class, webService.getProvider());
+                    if (provider != null) {
+                        organizations.add(provider);
+                    }
+                }
+            }
+
+            Set<String> providerIds = new LinkedHashSet<>();
+            for (Organization organization : organizations) {
+                providerIds.addAll(organisationIndex.getProviderIds(organization.getInstanceId()));
+            }
+            for (String providerId : providerIds) {
+                Postings.add(providers, providerId, ordinal);
+            }
+        }
+
+        return new LinkIndex(Postings.freeze(scienceDomains), Postings.freeze(serviceTypes),
+                Postings.freeze(providers), Postings.freeze(metaIds));
+    }
+
+    public BitSet withScienceDomain(Collection<String> names) {
+        return Postings.union(scienceDomains, names);
+    }
+
+    public BitSet withServiceType(Collection<String> names) {
+        return Postings.union(serviceTypes, names);
+    }
+
+    public BitSet withProvider(Collection<String> providerIds) {
+        return Postings.union(providers, providerIds);
+    }
+
+    public BitSet withMetaId(Collection<String> ids) {
+        return Postings.union(metaIds, ids);
+    }
+}
@@ -0,0 +1,104 @@
+package org.epos.api.core.catalogue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.epos.eposdatamodel.Address;
+import org.epos.eposdatamodel.LinkedEntity;
+import org.epos.eposdatamodel.Organization;
+
+/**
+ * Organisation hierarchy resolved once per snapshot: the members of each organisation sorted by
+ * legal name, the country of each organisation and the closure of provider ids an organisation
+ * stands for (itself and, for a top level organisation, its members).
+ * Only organisations with a legal name take part in the hierarchy, as in the provider responses.
+ */
+public final class OrganisationIndex {
+
+    private final Map<String, List<Organization>> members;
+    private final Map<String, String> countries;
+    private final Map<String, Set<String>> providerIds;
+
+    private OrganisationIndex(Map<String, List<Organization>> members, Map<String, String> countries,
+                              Map<String, Set<String>> providerIds) {
+        this.members = members;
+        this.countries = countries;
+        this.providerIds = providerIds;
+    }
+
+    static OrganisationIndex build(CatalogueSnapshot snapshot) {
+        Map<String, Set<Organization>> membersByParent = new LinkedHashMap<>();
+        Map<String, String> countries = new HashMap<>();
+
+        for (Organization organization : snapshot.getAll(Organization.class)) {
+            Address address = snapshot.get(Address.class, organization.getAddress());
+            if (address != null && address.getCountry() != null) {
+                countries.put(organization.getInstanceId(), address.getCountry());
+            }
+            if (organization.getMemberOf() == null || !hasLegalName(organization)) {
+                continue;
+            }
+            for (LinkedEntity parent : organization.getMemberOf()) {
+                if (parent != null && parent.getInstanceId() != null) {
+                    membersByParent.computeIfAbsent(parent.getInstanceId(), k -> new LinkedHashSet<>()).add(organization);
+                }
+            }
+        }
+
+        Map<String, List<Organization>> members = new HashMap<>();
+        membersByParent.forEach((parentId, children) -> {
+            List<Organization> sorted = new ArrayList<>(children);
+            sorted.sort(Comparator.comparing(OrganisationIndex::legalName));
+            members.put(parentId, Collections.unmodifiableList(sorted));
+        });
+
+        Map<String, Set<String>> providerIds = new HashMap<>();
+        for (Organization organization : snapshot.getAll(Organization.class)) {
+            if (!hasLegalName(organization)) {
+                continue;
+            }
+            Set<String> ids = new LinkedHashSet<>();
+            ids.add(organization.getInstanceId());
+            if (organization.getMemberOf() == null) {
+                members.getOrDefault(organization.getInstanceId(), List.of())
+                        .forEach(member -> ids.add(member.getInstanceId()));
+            }
+            providerIds.put(organization.getInstanceId(), Collections.unmodifiableSet(ids));
+        }
+
+        return new OrganisationIndex(members, countries, providerIds);
+    }
+
+    public static boolean hasLegalName(Organization organization) {
+        return organization.getLegalName() != null && !organization.getLegalName().isEmpty();
+    }
+
+    public static String legalName(Organization organization) {
+        return String.join(".", organization.getLegalName());
+    }
+
+    /**
+     * Members of an organisation with a legal name, sorted by legal name
+     */
+    public List<Organization> getMembers(String organizationId) {
+        return organizationId != null ? members.getOrDefault(organizationId, List.of()) : List.of();
+    }
+
+    public String getCountry(String organizationId) {
+        return organizationId != null ? countries.get(organizationId) : null;
+    }
+
+    /**
+     * Provider ids an organisation matches in the organisations filter, empty when it has no legal name
+     */
+    public Set<String> getProviderIds(String organizationId) {
+        return organizationId != null ? providerIds.getOrDefault(organizationId, Set.of()) : Set.of();
+    }
+}
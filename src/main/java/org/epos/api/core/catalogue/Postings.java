@@ -0,0 +1,52 @@
+package org.epos.api.core.catalogue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for posting lists of dataproduct ordinals, stored as sorted int arrays and combined as bitsets.
+ */
+final class Postings {
+
+    private Postings() {
+    }
+
+    /**
+     * Freezes postings collected in ascending ordinal order
+     */
+    static Map<String, int[]> freeze(Map<String, List<Integer>> postings) {
+        Map<String, int[]> frozen = new HashMap<>(postings.size());
+        postings.forEach((key, ordinals) -> frozen.put(key, ordinals.stream().mapToInt(Integer::intValue).toArray()));
+        return frozen;
+    }
+
+    /**
+     * Appends an ordinal unless it is already the last one of the posting
+     */
+    static void add(Map<String, List<Integer>> postings, String key, int ordinal) {
+        List<Integer> posting = postings.computeIfAbsent(key, k -> new ArrayList<>());
+        if (posting.isEmpty() || posting.get(posting.size() - 1) != ordinal) {
+            posting.add(ordinal);
+        }
+    }
+
+    /**
+     * Union of the postings of the given keys
+     */
+    static BitSet union(Map<String, int[]> postings, Collection<String> keys) {
+        BitSet result = new BitSet();
+        for (String key : keys) {
+            int[] posting = postings.get(key);
+            if (posting != null) {
+                for (int ordinal : posting) {
+                    result.set(ordinal);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package org.epos.api.core.catalogue;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.LinkedEntity;
+import org.epos.eposdatamodel.Location;
+import org.epos.eposdatamodel.WebService;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * STR-tree of the prepared spatial extents of the dataproducts and of the webservices of their
+ * distributions, each footprint mapped back to its dataproduct. The WKT is parsed once per snapshot.
+ */
+public final class SpatialIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpatialIndex.class);
+
+    private final STRtree tree;
+
+    private SpatialIndex(STRtree tree) {
+        this.tree = tree;
+    }
+
+    static SpatialIndex build(CatalogueSnapshot snapshot) {
+        WKTReader reader = new WKTReader(new GeometryFactory());
+        PreparedGeometryFactory preparedGeometryFactory = new PreparedGeometryFactory();
+        STRtree tree = new STRtree();
+        int invalid = 0;
+
+        List<DataProduct> dataProducts = snapshot.getDataProducts();
+        for (int ordinal = 0; ordinal < dataProducts.size(); ordinal++) {
+            DataProduct dataProduct = dataProducts.get(ordinal);
+            Set<String> locationIds = new HashSet<>();
+            addLocations(dataProduct.getSpatialExtent(), locationIds);
+            for (Distribution distribution : snapshot.getAll(Distribution.class, dataProduct.getDistribution())) {
+                for (WebService webService : snapshot.getAll(WebService.class, distribution.getAccessService())) {
+                    addLocations(webService.getSpatialExtent(), locationIds);
+                }
+            }
+
+            for (String locationId : locationIds) {
+                Location location = snapshot.get(Location.class, locationId);
+                if (location == null || location.getLocation() == null) {
+                    continue;
+                }
+                try {
+                    Geometry geometry = reader.read(location.getLocation());
+                    PreparedGeometry prepared = preparedGeometryFactory.create(geometry);
+                    tree.insert(geometry.getEnvelopeInternal(), new Footprint(ordinal, prepared));
+                } catch (ParseException | IllegalArgumentException e) {
+                    invalid++;
+                }
+            }
+        }
+        tree.build();
+
+        if (invalid > 0) {
+            LOGGER.warn("Catalogue snapshot: {} locations with invalid WKT skipped by the spatial index", invalid);
+        }
+        return new SpatialIndex(tree);
+    }
+
+    private static void addLocations(List<LinkedEntity> spatialExtent, Set<String> locationIds) {
+        if (spatialExtent != null) {
+            spatialExtent.stream()
+                    .filter(le -> le != null && le.getInstanceId() != null)
+                    .forEach(le -> locationIds.add(le.getInstanceId()));
+        }
+    }
+
+    /**
+     * Ordinals of the dataproducts having at least one footprint intersecting the geometry
+     */
+    public BitSet intersecting(Geometry geometry) {
+        BitSet ordinals = new BitSet();
+        for (Object item : tree.query(geometry.getEnvelopeInternal())) {
+            Footprint footprint = (Footprint) item;
+            if (!ordinals.get(footprint.ordinal) && footprint.geometry.intersects(geometry)) {
+                ordinals.set(footprint.ordinal);
+            }
+        }
+        return ordinals;
+    }
+
+    private static final class Footprint {
+        private final int ordinal;
+        private final PreparedGeometry geometry;
+
+        private Footprint(int ordinal, PreparedGeometry geometry) {
+            this.ordinal = ordinal;
+            this.geometry = geometry;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.epos.api.core.catalogue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.PeriodOfTime;
+
+/**
+ * Temporal extents of the dataproducts resolved once per snapshot into two sorted arrays, one by
+ * start date and one by end date. A missing start is open towards the past, a missing end towards
+ * the future; extents ending before they start never match.
+ */
+public final class TemporalIndex {
+
+    private static final Comparator<LocalDateTime> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<LocalDateTime> NULLS_LAST = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final int[] dataProductOrdinals;
+    private final LocalDateTime[] starts;
+    private final int[] startExtents;
+    private final LocalDateTime[] ends;
+    private final int[] endExtents;
+
+    private TemporalIndex(int[] dataProductOrdinals, LocalDateTime[] starts, int[] startExtents,
+                          LocalDateTime[] ends, int[] endExtents) {
+        this.dataProductOrdinals = dataProductOrdinals;
+        this.starts = starts;
+        this.startExtents = startExtents;
+        this.ends = ends;
+        this.endExtents = endExtents;
+    }
+
+    static TemporalIndex build(CatalogueSnapshot snapshot) {
+        List<Extent> extents = new ArrayList<>();
+        List<DataProduct> dataProducts = snapshot.getDataProducts();
+        for (int ordinal = 0; ordinal < dataProducts.size(); ordinal++) {
+            for (PeriodOfTime period : snapshot.getAll(PeriodOfTime.class, dataProducts.get(ordinal).getTemporalExtent())) {
+                LocalDateTime start = period.getStartDate();
+                LocalDateTime end = period.getEndDate();
+                if (start == null || end == null || start.isBefore(end)) {
+                    extents.add(new Extent(extents.size(), ordinal, start, end));
+                }
+            }
+        }
+
+        Extent[] byStart = extents.toArray(new Extent[0]);
+        Arrays.sort(byStart, Comparator.comparing(extent -> extent.start, NULLS_FIRST));
+        Extent[] byEnd = extents.toArray(new Extent[0]);
+        Arrays.sort(byEnd, Comparator.comparing(extent -> extent.end, NULLS_LAST));
+
+        int[] dataProductOrdinals = new int[extents.size()];
+        LocalDateTime[] starts = new LocalDateTime[byStart.length];
+        int[] startExtents = new int[byStart.length];
+        LocalDateTime[] ends = new LocalDateTime[byEnd.length];
+        int[] endExtents = new int[byEnd.length];
+        for (int i = 0; i < extents.size(); i++) {
+            dataProductOrdinals[i] = extents.get(i).dataProductOrdinal;
+            starts[i] = byStart[i].start;
+            startExtents[i] = byStart[i].ordinal;
+            ends[i] = byEnd[i].end;
+            endExtents[i] = byEnd[i].ordinal;
+        }
+        return new TemporalIndex(dataProductOrdinals, starts, startExtents, ends, endExtents);
+    }
+
+    /**
+     * Ordinals of the dataproducts with at least one extent overlapping the range, either bound may be null
+     */
+    public BitSet overlapping(LocalDateTime startDate, LocalDateTime endDate) {
+        BitSet overlapping = new BitSet();
+        if (startDate != null && endDate != null && !startDate.isBefore(endDate)) {
+            return overlapping;
+        }
+
+        // extents starting before the end of the range: a prefix of the start array
+        int startedBefore = endDate == null ? starts.length : firstNotBefore(endDate);
+        // extents ending after the start of the range: a suffix of the end array
+        int endedAfter = startDate == null ? 0 : firstAfter(startDate);
+
+        if (endDate == null) {
+            for (int i = endedAfter; i < ends.length; i++) {
+                overlapping.set(dataProductOrdinals[endExtents[i]]);
+            }
+            return overlapping;
+        }
+        if (startDate == null) {
+            for (int i = 0; i < startedBefore; i++) {
+                overlapping.set(dataProductOrdinals[startExtents[i]]);
+            }
+            return overlapping;
+        }
+
+        // both bounds: the same extent has to be on both sides
+        BitSet started = new BitSet(dataProductOrdinals.length);
+        for (int i = 0; i < startedBefore; i++) {
+            started.set(startExtents[i]);
+        }
+        for (int i = endedAfter; i < ends.length; i++) {
+            if (started.get(endExtents[i])) {
+                overlapping.set(dataProductOrdinals[endExtents[i]]);
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Index of the first non-null start that is not before the date
+     */
+    private int firstNotBefore(LocalDateTime date) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] == null || starts[mid].isBefore(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first end that is after the date, open ends are sorted last
+     */
+    private int firstAfter(LocalDateTime date) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] != null && !ends[mid].isAfter(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Extent {
+        private final int ordinal;
+        private final int dataProductOrdinal;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Extent(int ordinal, int dataProductOrdinal, LocalDateTime start, LocalDateTime end) {
+            this.ordinal = ordinal;
+            this.dataProductOrdinal = dataProductOrdinal;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
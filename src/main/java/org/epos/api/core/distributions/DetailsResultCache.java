@@ -0,0 +1,308 @@
+package org.epos.api.core.distributions;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of built /resources/details documents, plain and extended, together with their
+ * serialised payloads per encoding.
+ * <p>
+ * Entries are keyed by instance id and hold the documents of one catalogue version: a new catalogue
+ * version drops the whole cache, a single distribution can be dropped by id after an ingestion. The
+ * catalogue snapshot still holds the previous state of that distribution, so the caller also marks it
+ * as outdated in the {@link Catalogue} for its next document to be read from the database.
+ * Entries are weighed by their payload sizes plus a flat estimate per built document, and are
+ * weighed again whenever a payload is added. Facets and monitoring are refreshed outside the
+ * catalogue, the time to live bounds how long a cached document can lag behind them.
+ */
+public class DetailsResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DetailsResultCache.class);
+
+    private static final long DEFAULT_MAX_MB = 32;
+    private static final long DEFAULT_TTL_SECONDS = 600;
+
+    /**
+     * Estimated heap size of a built document, which is not serialised until a payload is asked for
+     */
+    private static final int DOCUMENT_WEIGHT = 8 * 1024;
+
+    private static DetailsResultCache instance;
+
+    private final Cache<String, Documents> cache;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private volatile long cachedVersion = -1;
+
+    private DetailsResultCache() {
+        this.maxBytes = parse(EnvironmentVariables.DETAILS_CACHE_MAX_MB, DEFAULT_MAX_MB) * 1024 * 1024;
+        this.ttlNanos = Duration.ofSeconds(parse(EnvironmentVariables.DETAILS_CACHE_TTL_SECONDS, DEFAULT_TTL_SECONDS))
+                .toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, Documents documents) -> 2 * id.length() + documents.weight())
+                .expireAfter(new DocumentsExpiry())
+                .build();
+    }
+
+    public static synchronized DetailsResultCache getInstance() {
+        if (instance == null) {
+            instance = new DetailsResultCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Cached document, built by the builder on a miss. Concurrent misses may each build the document,
+     * the first one published is kept. A builder returning null is not cached.
+     */
+    public Object getDetails(String id, boolean extended, Supplier<Object> builder) {
+        Entry entry = getEntry(id, extended, builder);
+        return entry != null ? entry.details : null;
+    }
+
+    /**
+     * Cached documents of the ids in request order, those not cached yet built together by one call
+     * of the builder. Ids without a document are left out.
+     */
+    public Map<String, Object> getAllDetails(Collection<String> ids, boolean extended,
+                                             Function<Collection<String>, Map<String, ?>> builder) {
+        long version = currentVersion();
+        Map<String, Object> documents = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            Entry entry = lookup(version, id, extended);
+            documents.put(id, entry != null ? entry.details : null);
+            if (entry == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            builder.apply(missing).forEach((id, details) -> {
+                if (details != null) {
+                    documents.put(id, publish(version, id, extended, details).details);
+                }
+            });
+        }
+        LOGGER.info("[PERF] Details cache: {} of {} documents cached (catalogue version {})",
+                ids.size() - missing.size(), ids.size(), version);
+        documents.values().removeIf(Objects::isNull);
+        return documents;
+    }
+
+    /**
+     * Cached payload of the document in the given encoding, the document being built on a miss and
+     * encoded once per encoding. Null if there is no document or the encoder returns null.
+     */
+    public byte[] getPayload(String id, boolean extended, String encoding, Supplier<Object> builder,
+                             Function<Object, byte[]> encoder) {
+        Entry entry = getEntry(id, extended, builder);
+        if (entry == null) {
+            return null;
+        }
+        byte[] payload = entry.payloads.get(encoding);
+        if (payload == null) {
+            payload = encoder.apply(entry.details);
+            if (payload != null) {
+                putPayload(id, extended, encoding, entry.details, payload);
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * Cached payload of the document in the given encoding, null if it has not been encoded yet
+     */
+    public byte[] getPayload(String id, boolean extended, String encoding) {
+        Entry entry = lookup(currentVersion(), id, extended);
+        return entry != null ? entry.payloads.get(encoding) : null;
+    }
+
+    /**
+     * Caches the payload of a document obtained from this cache. Ignored if the document has been
+     * dropped or rebuilt since, so that a payload never outlives the document it encodes.
+     */
+    public void putPayload(String id, boolean extended, String encoding, Object details, byte[] payload) {
+        cache.asMap().computeIfPresent(id, (key, current) -> {
+            Entry entry = current.get(extended);
+            if (entry == null || entry.details != details || entry.payloads.containsKey(encoding)) {
+                return current;
+            }
+            return current.with(extended, entry.withPayload(encoding, payload), current.deadline);
+        });
+    }
+
+    /**
+     * Size above which a payload would not fit in the cache, so it is not worth keeping a copy of it
+     */
+    public long getMaxPayloadBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Drops the documents of one distribution, plain and extended
+     */
+    public void invalidate(String id) {
+        cache.invalidate(id);
+        LOGGER.info("Details cache invalidated for {}", id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Entry getEntry(String id, boolean extended, Supplier<Object> builder) {
+        long version = currentVersion();
+        long startTime = System.currentTimeMillis();
+        Entry entry = lookup(version, id, extended);
+        if (entry != null) {
+            LOGGER.info("[PERF] Details cache hit in {} ms (catalogue version {})",
+                    System.currentTimeMillis() - startTime, version);
+            return entry;
+        }
+        Object details = builder.get();
+        return details != null ? publish(version, id, extended, details) : null;
+    }
+
+    /**
+     * Adds a built document to the documents of its id, unless one was published meanwhile. Only the
+     * publication runs under the map lock, the document is always built beforehand.
+     */
+    private Entry publish(long version, String id, boolean extended, Object details) {
+        Documents documents = cache.asMap().compute(id, (key, current) -> {
+            Documents base = current != null && current.version == version ? current : new Documents(version);
+            return base.get(extended) != null ? base : base.with(extended, new Entry(details), deadline());
+        });
+        return documents.get(extended);
+    }
+
+    private Entry lookup(long version, String id, boolean extended) {
+        Documents documents = cache.getIfPresent(id);
+        return documents != null && documents.version == version ? documents.get(extended) : null;
+    }
+
+    private long currentVersion() {
+        long version = Catalogue.getInstance().getSnapshot().getVersion();
+        if (version != cachedVersion) {
+            cache.invalidateAll();
+            cachedVersion = version;
+        }
+        return version;
+    }
+
+    private long deadline() {
+        return System.nanoTime() + ttlNanos;
+    }
+
+    private static long parse(String value, long defaultValue) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid details cache setting '{}', using {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Expires the documents of an id a time to live after the last document was built, adding a
+     * payload does not extend their life
+     */
+    private static final class DocumentsExpiry implements Expiry<String, Documents> {
+
+        @Override
+        public long expireAfterCreate(String id, Documents documents, long currentTime) {
+            return Math.max(0, documents.deadline - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Documents documents, long currentTime, long currentDuration) {
+            return Math.max(0, documents.deadline - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, Documents documents, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Plain and extended documents of one id on one catalogue version, replaced as a whole on change
+     */
+    private static final class Documents {
+        private final long version;
+        private final Entry plain;
+        private final Entry extended;
+        private final long deadline;
+
+        private Documents(long version) {
+            this(version, null, null, 0);
+        }
+
+        private Documents(long version, Entry plain, Entry extended, long deadline) {
+            this.version = version;
+            this.plain = plain;
+            this.extended = extended;
+            this.deadline = deadline;
+        }
+
+        private Entry get(boolean extended) {
+            return extended ? this.extended : plain;
+        }
+
+        private Documents with(boolean extended, Entry entry, long deadline) {
+            return extended
+                    ? new Documents(version, plain, entry, deadline)
+                    : new Documents(version, entry, this.extended, deadline);
+        }
+
+        private int weight() {
+            return (plain != null ? plain.weight() : 0) + (extended != null ? extended.weight() : 0);
+        }
+    }
+
+    private static final class Entry {
+        private final Object details;
+        private final Map<String, byte[]> payloads;
+
+        private Entry(Object details) {
+            this(details, Collections.emptyMap());
+        }
+
+        private Entry(Object details, Map<String, byte[]> payloads) {
+            this.details = details;
+            this.payloads = payloads;
+        }
+
+        private Entry withPayload(String encoding, byte[] payload) {
+            Map<String, byte[]> extended = new HashMap<>(payloads);
+            extended.put(encoding, payload);
+            return new Entry(details, Collections.unmodifiableMap(extended));
+        }
+
+        private int weight() {
+            int weight = DOCUMENT_WEIGHT;
+            for (byte[] payload : payloads.values()) {
+                weight += payload.length;
+            }
+            return weight;
+        }
+    }
+}
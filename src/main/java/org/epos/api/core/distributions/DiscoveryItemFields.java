@@ -0,0 +1,105 @@
+package org.epos.api.core.distributions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.epos.api.beans.DiscoveryItem;
+
+/**
+ * Sparse fieldset of the {@link DiscoveryItem}s of a response, parsed from the {@code fields}
+ * parameter. Field names are the JSON property names; {@code id} is always returned since results
+ * and facets are keyed on it. Fields that are not requested are not serialised, nor computed where
+ * items are built per request.
+ */
+public class DiscoveryItemFields {
+
+    public static final String PARAMETER = "fields";
+
+    public static final String AVAILABLE_FORMATS = "availableFormats";
+    public static final String DATA_SERVICE_PROVIDER = "dataServiceProvider";
+
+    private static final Map<String, Consumer<DiscoveryItem>> CLEARERS = new LinkedHashMap<>();
+
+    static {
+        CLEARERS.put("href", item -> item.setHref(null));
+        CLEARERS.put("hrefExtended", item -> item.setHrefExtended(null));
+        CLEARERS.put("uid", item -> item.setUid(null));
+        CLEARERS.put("metaId", item -> item.setMetaId(null));
+        CLEARERS.put("title", item -> item.setTitle(null));
+        CLEARERS.put("description", item -> item.setDescription(null));
+        CLEARERS.put("status", item -> item.setStatus(null));
+        CLEARERS.put("statusTimestamp", item -> item.setStatusTimestamp(null));
+        CLEARERS.put("statusURL", item -> item.setStatusURL(null));
+        CLEARERS.put(DATA_SERVICE_PROVIDER, item -> item.setDataServiceProvider(null));
+        CLEARERS.put(AVAILABLE_FORMATS, item -> item.setAvailableFormats(null));
+        CLEARERS.put("versioningStatus", item -> item.setVersioningStatus(null));
+        CLEARERS.put("editorId", item -> item.setEditorId(null));
+        CLEARERS.put("editorFullName", item -> item.setEditorFullName(null));
+        CLEARERS.put("changeDate", item -> item.setChangeDate(null));
+    }
+
+    public static final DiscoveryItemFields ALL = new DiscoveryItemFields(null);
+
+    private final Set<String> fields;
+
+    private DiscoveryItemFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Fieldset of a comma separated list, {@link #ALL} if the list is null or blank
+     */
+    public static DiscoveryItemFields parse(String list) {
+        if (list == null || list.isBlank()) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        Arrays.stream(list.split(",")).map(String::trim).filter(field -> !field.isEmpty()).forEach(fields::add);
+        fields.remove("id");
+        return new DiscoveryItemFields(Collections.unmodifiableSet(fields));
+    }
+
+    public static DiscoveryItemFields of(Map<String, Object> parameters) {
+        return parameters.containsKey(PARAMETER) ? parse(parameters.get(PARAMETER).toString()) : ALL;
+    }
+
+    /**
+     * First requested field that is not a DiscoveryItem property, null if all are known
+     */
+    public String unknownField() {
+        if (fields == null) {
+            return null;
+        }
+        return fields.stream().filter(field -> !CLEARERS.containsKey(field)).findFirst().orElse(null);
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * True if any of the monitoring status fields is requested
+     */
+    public boolean includesStatus() {
+        return includes("status") || includes("statusTimestamp") || includes("statusURL");
+    }
+
+    /**
+     * Clears the properties that are not requested so that they are not serialised
+     */
+    public DiscoveryItem project(DiscoveryItem item) {
+        if (fields != null) {
+            CLEARERS.forEach((field, clearer) -> {
+                if (!fields.contains(field)) {
+                    clearer.accept(item);
+                }
+            });
+        }
+        return item;
+    }
+}
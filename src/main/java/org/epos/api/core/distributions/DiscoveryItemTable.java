@@ -0,0 +1,214 @@
+package org.epos.api.core.distributions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.epos.api.beans.AvailableFormat;
+import org.epos.api.beans.DataServiceProvider;
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.beans.DiscoveryItem.DiscoveryItemBuilder;
+import org.epos.api.core.AvailableFormatsGeneration;
+import org.epos.api.core.DataServiceProviderGeneration;
+import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
+import org.epos.eposdatamodel.Category;
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Organization;
+import org.epos.eposdatamodel.WebService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Discovery items of the search response prebuilt once per catalogue snapshot, one entry per
+ * dataproduct ordinal holding the items of its distributions and what the dataproduct adds to the
+ * response filters. Nothing in here depends on the query: a search selects the entries of the
+ * matching dataproducts and overlays monitoring and backoffice fields on copies of the items.
+ */
+public final class DiscoveryItemTable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiscoveryItemTable.class);
+    private static final String API_PATH_DETAILS = EnvironmentVariables.API_CONTEXT + "/resources/details/";
+
+    private final Entry[] entries;
+
+    private DiscoveryItemTable(Entry[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Table of the snapshot, built on first use and dropped with the snapshot
+     */
+    public static DiscoveryItemTable of(CatalogueSnapshot snapshot) {
+        return snapshot.derive(DiscoveryItemTable.class, DiscoveryItemTable::build);
+    }
+
+    private static DiscoveryItemTable build(CatalogueSnapshot snapshot) {
+        long startTime = System.currentTimeMillis();
+        List<DataProduct> dataProducts = snapshot.getDataProducts();
+        Map<String, List<AvailableFormat>> formats = AvailableFormatsGeneration.formatsOf(snapshot);
+        Entry[] entries = new Entry[dataProducts.size()];
+        IntStream.range(0, entries.length).parallel()
+                .forEach(ordinal -> entries[ordinal] = buildEntry(dataProducts.get(ordinal), snapshot, formats));
+        LOGGER.info("[PERF] Discovery items of catalogue version {} built in {} ms ({} dataproducts)",
+                snapshot.getVersion(), System.currentTimeMillis() - startTime, entries.length);
+        return new DiscoveryItemTable(entries);
+    }
+
+    Entry get(int ordinal) {
+        return entries[ordinal];
+    }
+
+    private static Entry buildEntry(DataProduct dataproduct, CatalogueSnapshot snapshot,
+                                    Map<String, List<AvailableFormat>> formats) {
+        Set<String> facetsDataProviders = new HashSet<>();
+        List<String> categoryList = new ArrayList<>();
+        List<Category> scienceDomains = new ArrayList<>();
+        List<Category> serviceTypes = new ArrayList<>();
+        List<Organization> organizations = new ArrayList<>();
+
+        for (Category category : snapshot.getAll(Category.class, dataproduct.getCategory())) {
+            if (category.getUid() != null && category.getUid().contains("category:")) {
+                categoryList.add(category.getUid());
+            } else {
+                scienceDomains.add(category);
+            }
+        }
+
+        for (Organization org : snapshot.getAll(Organization.class, dataproduct.getPublisher())) {
+            if (org.getLegalName() != null) {
+                facetsDataProviders.add(String.join(",", org.getLegalName()));
+                organizations.add(org);
+            }
+        }
+
+        List<Template> items = new ArrayList<>();
+        for (Distribution distribution : snapshot.getAll(Distribution.class, dataproduct.getDistribution())) {
+            items.add(buildTemplate(distribution, dataproduct, snapshot, formats, facetsDataProviders, categoryList,
+                    serviceTypes, organizations));
+        }
+
+        return new Entry(Collections.unmodifiableList(items),
+                snapshot.getKeywordIndex().keywordsOf(dataproduct),
+                Collections.unmodifiableList(scienceDomains), Collections.unmodifiableList(serviceTypes),
+                Collections.unmodifiableList(organizations));
+    }
+
+    private static Template buildTemplate(Distribution distribution, DataProduct dataproduct, CatalogueSnapshot snapshot,
+                                          Map<String, List<AvailableFormat>> formats, Set<String> facetsDataProviders, List<String> categoryList,
+                                          List<Category> serviceTypes, List<Organization> organizations) {
+        Set<String> facetsServiceProviders = new HashSet<>();
+        List<DataServiceProvider> dataServiceProviderList = new ArrayList<>();
+
+        for (WebService webService : snapshot.getAll(WebService.class, distribution.getAccessService())) {
+            Organization org = snapshot.get(Organization.class, webService.getProvider());
+            if (org != null) {
+                if (org.getLegalName() != null) {
+                    facetsServiceProviders.add(String.join(",", org.getLegalName()));
+                }
+                organizations.add(org);
+
+                List<DataServiceProvider> providers = DataServiceProviderGeneration.getProviders(List.of(org), snapshot);
+                if (!providers.isEmpty()) {
+                    dataServiceProviderList.add(providers.get(0));
+                }
+            }
+            serviceTypes.addAll(snapshot.getAll(Category.class, webService.getCategory()));
+        }
+
+        List<AvailableFormat> availableFormats = distribution.getInstanceId() != null
+                ? formats.getOrDefault(distribution.getInstanceId(), List.of())
+                : List.of();
+
+        DiscoveryItem item = new DiscoveryItemBuilder(
+                distribution.getInstanceId(),
+                EnvironmentVariables.API_HOST + API_PATH_DETAILS + distribution.getInstanceId(),
+                EnvironmentVariables.API_HOST + API_PATH_DETAILS + distribution.getInstanceId() + "?extended=true")
+                .uid(distribution.getUid())
+                .metaId(distribution.getMetaId())
+                .title(distribution.getTitle() != null ? String.join(";", distribution.getTitle()) : null)
+                .description(distribution.getDescription() != null ? String.join(";", distribution.getDescription()) : null)
+                .dataServiceProvider(dataServiceProviderList.isEmpty() ? null : dataServiceProviderList.get(0))
+                .availableFormats(availableFormats)
+                .sha256id(distribution.getUid() != null ? DigestUtils.sha256Hex(distribution.getUid()) : "")
+                .dataProvider(facetsDataProviders)
+                .serviceProvider(facetsServiceProviders)
+                .categories(categoryList.isEmpty() ? null : categoryList)
+                .build();
+
+        return new Template(item, distribution, dataproduct);
+    }
+
+    /**
+     * Query independent part of the response for one dataproduct
+     */
+    static final class Entry {
+        private final List<Template> items;
+        private final List<String> keywords;
+        private final List<Category> scienceDomains;
+        private final List<Category> serviceTypes;
+        private final List<Organization> organizations;
+
+        private Entry(List<Template> items, List<String> keywords, List<Category> scienceDomains,
+                      List<Category> serviceTypes, List<Organization> organizations) {
+            this.items = items;
+            this.keywords = keywords;
+            this.scienceDomains = scienceDomains;
+            this.serviceTypes = serviceTypes;
+            this.organizations = organizations;
+        }
+
+        List<Template> getItems() {
+            return items;
+        }
+
+        List<String> getKeywords() {
+            return keywords;
+        }
+
+        List<Category> getScienceDomains() {
+            return scienceDomains;
+        }
+
+        List<Category> getServiceTypes() {
+            return serviceTypes;
+        }
+
+        List<Organization> getOrganizations() {
+            return organizations;
+        }
+    }
+
+    /**
+     * Prebuilt item of a distribution, never handed out: responses get a copy to overlay
+     */
+    static final class Template {
+        private final DiscoveryItem item;
+        private final Distribution distribution;
+        private final DataProduct dataproduct;
+
+        private Template(DiscoveryItem item, Distribution distribution, DataProduct dataproduct) {
+            this.item = item;
+            this.distribution = distribution;
+            this.dataproduct = dataproduct;
+        }
+
+        DiscoveryItem newItem() {
+            return new DiscoveryItem(item);
+        }
+
+        Distribution getDistribution() {
+            return distribution;
+        }
+
+        DataProduct getDataproduct() {
+            return dataproduct;
+        }
+    }
+}
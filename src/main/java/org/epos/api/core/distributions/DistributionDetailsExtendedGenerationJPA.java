@@ -17,8 +17,13 @@ import org.epos.api.beans.TemporalCoverage;
 import org.epos.api.beans.Webservice;
 import org.epos.api.core.AvailableFormatsGeneration;
 import org.epos.api.core.DataServiceProviderGeneration;
+import org.epos.api.core.EntityGraph;
+import org.epos.api.core.EntityGraphLoader;
+import org.epos.api.core.EntityLookup;
 import org.epos.api.core.EnvironmentVariables;
 import org.epos.api.core.PreFetchedEntities;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.enums.ProviderType;
 import org.epos.api.facets.Facets;
 import org.epos.api.facets.FacetsGeneration;
@@ -38,9 +43,6 @@ import org.epos.eposdatamodel.WebService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
 
 public class DistributionDetailsExtendedGenerationJPA {
 
@@ -49,55 +51,41 @@ public class DistributionDetailsExtendedGenerationJPA {
     private static final String API_PATH_DETAILS = EnvironmentVariables.API_CONTEXT + "/resources/details/";
     private static final String EMAIL_SENDER = EnvironmentVariables.API_CONTEXT + "/sender/send-email?id=";
 
+    /**
+     * Entities read when building the extended details of a distribution
+     */
+    private static final EntityGraph DETAILS_GRAPH = EntityGraph.empty()
+            .followFirst(Distribution.class, org.epos.eposdatamodel.DataProduct.class, Distribution::getDataProduct)
+            .followFirst(Distribution.class, WebService.class, Distribution::getAccessService)
+            .follow(Distribution.class, org.epos.eposdatamodel.Operation.class, Distribution::getSupportedOperation)
+            .follow(org.epos.eposdatamodel.DataProduct.class, Identifier.class,
+                    org.epos.eposdatamodel.DataProduct::getIdentifier)
+            .follow(org.epos.eposdatamodel.DataProduct.class, Location.class,
+                    org.epos.eposdatamodel.DataProduct::getSpatialExtent)
+            .follow(org.epos.eposdatamodel.DataProduct.class, PeriodOfTime.class,
+                    org.epos.eposdatamodel.DataProduct::getTemporalExtent)
+            .follow(org.epos.eposdatamodel.DataProduct.class, Organization.class,
+                    org.epos.eposdatamodel.DataProduct::getPublisher)
+            .follow(org.epos.eposdatamodel.DataProduct.class, Category.class,
+                    org.epos.eposdatamodel.DataProduct::getCategory)
+            .follow(org.epos.eposdatamodel.DataProduct.class, ContactPoint.class,
+                    org.epos.eposdatamodel.DataProduct::getContactPoint)
+            .follow(WebService.class, Location.class, WebService::getSpatialExtent)
+            .follow(WebService.class, PeriodOfTime.class, WebService::getTemporalExtent)
+            .followOne(WebService.class, Organization.class, WebService::getProvider)
+            .follow(WebService.class, Category.class, WebService::getCategory)
+            .follow(WebService.class, ContactPoint.class, WebService::getContactPoint)
+            .follow(WebService.class, Documentation.class, WebService::getDocumentation)
+            .follow(WebService.class, org.epos.eposdatamodel.Operation.class, WebService::getSupportedOperation)
+            .followOne(ContactPoint.class, Person.class, ContactPoint::getPerson)
+            .follow(org.epos.eposdatamodel.Operation.class, Mapping.class, org.epos.eposdatamodel.Operation::getMapping);
+
     public static DistributionExtended generate(Map<String, Object> parameters) {
         long startTime = System.currentTimeMillis();
         LOGGER.info("Generating extended distribution details (OPTIMIZED) for parameters: {}", parameters);
 
-        //  Retrieve main distribution
-        long retrievalStart = System.currentTimeMillis();
-        Distribution distributionSelected = (Distribution) AbstractAPI
-                .retrieveAPI(EntityNames.DISTRIBUTION.name())
-                .retrieve(parameters.get("id").toString());
-
-        if (distributionSelected == null) {
-            LOGGER.warn("Distribution not found for id: {}", parameters.get("id"));
-            return null;
-        }
-        LOGGER.info("[PERF] Distribution retrieval: {} ms", System.currentTimeMillis() - retrievalStart);
-
-        // Get operations related to distribution
-        List<String> operationsIdRelatedToDistribution = null;
-        if (distributionSelected.getSupportedOperation() != null) {
-            operationsIdRelatedToDistribution = distributionSelected.getSupportedOperation().stream()
-                    .map(LinkedEntity::getInstanceId)
-                    .collect(Collectors.toList());
-        }
-
-        // Retrieve DataProduct
-        org.epos.eposdatamodel.DataProduct dp = getDataProduct(distributionSelected);
-        if (dp == null) {
-            LOGGER.warn("DataProduct not found for distribution: {}", distributionSelected.getInstanceId());
-            return null;
-        }
-
-        // Retrieve WebService
-        WebService ws = getWebService(distributionSelected);
-        if (ws == null && distributionSelected.getAccessService() != null) {
-            LOGGER.warn("WebService not found for distribution: {}", distributionSelected.getInstanceId());
-            return null;
-        }
-
-        // Pre-fetch ALL linked entities
-        long prefetchStart = System.currentTimeMillis();
-        PreFetchedEntities preFetched = preFetchLinkedEntities(dp, ws, operationsIdRelatedToDistribution);
-        LOGGER.info("[PERF] Pre-fetching entities: {} ms", System.currentTimeMillis() - prefetchStart);
-
-        // Build extended distribution object
-        long buildStart = System.currentTimeMillis();
-        DistributionExtended distribution = buildDistributionExtended(
-                distributionSelected, dp, ws, preFetched, operationsIdRelatedToDistribution
-        );
-        LOGGER.info("[PERF] Building extended distribution: {} ms", System.currentTimeMillis() - buildStart);
+        String id = parameters.get("id").toString();
+        DistributionExtended distribution = generate(List.of(id)).get(id);
 
         long endTime = System.currentTimeMillis();
         LOGGER.info("[PERF] TOTAL: {} ms", endTime - startTime);
@@ -106,154 +94,88 @@ public class DistributionDetailsExtendedGenerationJPA {
     }
 
     /**
-     * Get DataProduct from distribution
+     * Extended details of many distributions in request order, unknown ids left out. Distributions
+     * are read from the catalogue snapshot, those newer than the snapshot or marked as outdated
+     * since are loaded together along the details graph.
      */
-    private static org.epos.eposdatamodel.DataProduct getDataProduct(Distribution distributionSelected) {
-        if (distributionSelected.getDataProduct() != null && !distributionSelected.getDataProduct().isEmpty()) {
-            return (org.epos.eposdatamodel.DataProduct) LinkedEntityAPI
-                    .retrieveFromLinkedEntity(distributionSelected.getDataProduct().get(0));
+    public static Map<String, DistributionExtended> generate(Collection<String> ids) {
+        long startTime = System.currentTimeMillis();
+        Catalogue catalogue = Catalogue.getInstance();
+        CatalogueSnapshot snapshot = catalogue.getSnapshot();
+        Map<String, DistributionExtended> details = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        PreFetchedEntities snapshotEntities = null;
+
+        for (String id : ids) {
+            details.put(id, null);
+            Distribution distributionSelected = snapshot.get(Distribution.class, id);
+            if (distributionSelected == null || catalogue.isOutdated(snapshot, id)) {
+                missing.add(id);
+                continue;
+            }
+            if (snapshotEntities == null) {
+                snapshotEntities = snapshot.toPreFetchedEntities();
+            }
+            details.put(id, build(distributionSelected, snapshot, snapshotEntities));
         }
-        return null;
-    }
 
-    /**
-     * Get WebService from distribution
-     */
-    private static WebService getWebService(Distribution distributionSelected) {
-        if (distributionSelected.getAccessService() != null && !distributionSelected.getAccessService().isEmpty()) {
-            return (WebService) LinkedEntityAPI
-                    .retrieveFromLinkedEntity(distributionSelected.getAccessService().get(0));
+        if (!missing.isEmpty()) {
+            EntityGraphLoader loader = new EntityGraphLoader().load(DETAILS_GRAPH, Distribution.class, missing);
+            PreFetchedEntities preFetched = loader.toPreFetchedEntities();
+            for (String id : missing) {
+                Distribution distributionSelected = loader.get(Distribution.class, id);
+                if (distributionSelected == null) {
+                    LOGGER.warn("Distribution not found for id: {}", id);
+                    continue;
+                }
+                details.put(id, build(distributionSelected, loader, preFetched));
+            }
         }
-        return null;
+
+        details.values().removeIf(Objects::isNull);
+        LOGGER.info("[PERF] Extended details of {} distributions ({} from the database): {} ms", details.size(),
+                missing.size(), System.currentTimeMillis() - startTime);
+        return details;
     }
 
     /**
-     * Pre-fetch ALL linked entities to eliminate N+1 query problem
+     * Resolves the DataProduct and WebService of the distribution and builds its extended details,
+     * null when one of them cannot be resolved
      */
-    private static PreFetchedEntities preFetchLinkedEntities(org.epos.eposdatamodel.DataProduct dp,
-                                                             WebService ws,
-                                                             List<String> operationsIdRelatedToDistribution) {
-        PreFetchedEntities entities = new PreFetchedEntities();
-
-        // Collect all IDs
-        Set<String> identifierIds = new HashSet<>();
-        Set<String> locationIds = new HashSet<>();
-        Set<String> temporalIds = new HashSet<>();
-        Set<String> organizationIds = new HashSet<>();
-        Set<String> categoryIds = new HashSet<>();
-        Set<String> contactPointIds = new HashSet<>();
-        Set<String> personIds = new HashSet<>();
-        Set<String> documentationIds = new HashSet<>();
-        Set<String> operationIds = new HashSet<>();
-        Set<String> mappingIds = new HashSet<>();
-
-        // From DataProduct
-        if (dp.getIdentifier() != null) {
-            dp.getIdentifier().forEach(le -> identifierIds.add(le.getInstanceId()));
-        }
-        if (dp.getSpatialExtent() != null) {
-            dp.getSpatialExtent().forEach(le -> locationIds.add(le.getInstanceId()));
-        }
-        if (dp.getTemporalExtent() != null) {
-            dp.getTemporalExtent().forEach(le -> temporalIds.add(le.getInstanceId()));
-        }
-        if (dp.getPublisher() != null) {
-            dp.getPublisher().forEach(le -> organizationIds.add(le.getInstanceId()));
-        }
-        if (dp.getCategory() != null) {
-            dp.getCategory().forEach(le -> categoryIds.add(le.getInstanceId()));
-        }
-        if (dp.getContactPoint() != null) {
-            dp.getContactPoint().forEach(le -> contactPointIds.add(le.getInstanceId()));
+    private static DistributionExtended build(Distribution distributionSelected, EntityLookup lookup,
+                                              PreFetchedEntities preFetched) {
+        org.epos.eposdatamodel.DataProduct dp = distributionSelected.getDataProduct() != null
+                && !distributionSelected.getDataProduct().isEmpty()
+                ? lookup.get(org.epos.eposdatamodel.DataProduct.class, distributionSelected.getDataProduct().get(0))
+                : null;
+        if (dp == null) {
+            LOGGER.warn("DataProduct not found for distribution: {}", distributionSelected.getInstanceId());
+            return null;
         }
 
-        // From WebService
-        if (ws != null) {
-            if (ws.getSpatialExtent() != null) {
-                ws.getSpatialExtent().forEach(le -> locationIds.add(le.getInstanceId()));
-            }
-            if (ws.getTemporalExtent() != null) {
-                ws.getTemporalExtent().forEach(le -> temporalIds.add(le.getInstanceId()));
-            }
-            if (ws.getProvider() != null) {
-                organizationIds.add(ws.getProvider().getInstanceId());
-            }
-            if (ws.getCategory() != null) {
-                ws.getCategory().forEach(le -> categoryIds.add(le.getInstanceId()));
-            }
-            if (ws.getContactPoint() != null) {
-                ws.getContactPoint().forEach(le -> contactPointIds.add(le.getInstanceId()));
-            }
-            if (ws.getDocumentation() != null) {
-                ws.getDocumentation().forEach(le -> documentationIds.add(le.getInstanceId()));
-            }
-            if (ws.getSupportedOperation() != null) {
-                ws.getSupportedOperation().forEach(le -> operationIds.add(le.getInstanceId()));
-            }
+        WebService ws = distributionSelected.getAccessService() != null && !distributionSelected.getAccessService().isEmpty()
+                ? lookup.get(WebService.class, distributionSelected.getAccessService().get(0))
+                : null;
+        if (ws == null && distributionSelected.getAccessService() != null) {
+            LOGGER.warn("WebService not found for distribution: {}", distributionSelected.getInstanceId());
+            return null;
         }
 
-        LOGGER.info("Pre-fetching Phase 1: {} identifiers, {} locations, {} temporal, {} organizations, {} categories, {} contacts, {} documentations, {} operations",
-                identifierIds.size(), locationIds.size(), temporalIds.size(),
-                organizationIds.size(), categoryIds.size(), contactPointIds.size(),
-                documentationIds.size(), operationIds.size());
-
-        // Batch fetch Phase 1 entities
-        entities.identifiers = fetchEntityBatch(EntityNames.IDENTIFIER, identifierIds);
-        entities.locations = fetchEntityBatch(EntityNames.LOCATION, locationIds);
-        entities.temporals = fetchEntityBatch(EntityNames.PERIODOFTIME, temporalIds);
-        entities.organizations = fetchEntityBatch(EntityNames.ORGANIZATION, organizationIds);
-        entities.categories = fetchEntityBatch(EntityNames.CATEGORY, categoryIds);
-        entities.contactPoints = fetchEntityBatch(EntityNames.CONTACTPOINT, contactPointIds);
-        entities.documentations = fetchEntityBatch(EntityNames.DOCUMENTATION, documentationIds);
-        entities.operations = fetchEntityBatch(EntityNames.OPERATION, operationIds);
-
-        // Phase 2: Collect person IDs from contact points
-        entities.contactPoints.values().stream()
-                .filter(obj -> obj instanceof ContactPoint)
-                .map(obj -> (ContactPoint) obj)
-                .filter(cp -> cp.getPerson() != null)
-                .forEach(cp -> personIds.add(cp.getPerson().getInstanceId()));
-
-        // Phase 2: Collect mapping IDs from operations
-        entities.operations.values().stream()
-                .filter(obj -> obj instanceof org.epos.eposdatamodel.Operation)
-                .map(obj -> (org.epos.eposdatamodel.Operation) obj)
-                .filter(op -> op.getMapping() != null)
-                .forEach(op -> op.getMapping().forEach(le -> mappingIds.add(le.getInstanceId())));
-
-        LOGGER.info("Pre-fetching Phase 2: {} persons, {} mappings", personIds.size(), mappingIds.size());
-
-        // Batch fetch Phase 2 entities
-        entities.persons = fetchEntityBatch(EntityNames.PERSON, personIds);
-        entities.mappings = fetchEntityBatch(EntityNames.MAPPING, mappingIds);
-
-        return entities;
+        long buildStart = System.currentTimeMillis();
+        DistributionExtended distribution = buildDistributionExtended(
+                distributionSelected, dp, ws, lookup, preFetched, operationIdsOf(distributionSelected)
+        );
+        LOGGER.info("[PERF] Building extended distribution: {} ms", System.currentTimeMillis() - buildStart);
+        return distribution;
     }
 
-    /**
-     * Batch fetch helper
-     */
-    private static Map<String, Object> fetchEntityBatch(EntityNames entityName, Set<String> ids) {
-        if (ids.isEmpty()) {
-            return new HashMap<>();
-        }
-
-        List<String> idList = new ArrayList<>(ids);
-        List<?> results = (List<?>) AbstractAPI.retrieveAPI(entityName.name()).retrieveBunch(idList);
-
-        Map<String, Object> map = new HashMap<>();
-        if (results != null) {
-            results.stream()
-                    .filter(Objects::nonNull)
-                    .forEach(obj -> {
-                        if (obj instanceof org.epos.eposdatamodel.EPOSDataModelEntity) {
-                            org.epos.eposdatamodel.EPOSDataModelEntity entity =
-                                    (org.epos.eposdatamodel.EPOSDataModelEntity) obj;
-                            map.put(entity.getInstanceId(), entity);
-                        }
-                    });
+    private static List<String> operationIdsOf(Distribution distribution) {
+        if (distribution.getSupportedOperation() == null) {
+            return null;
         }
-        return map;
+        return distribution.getSupportedOperation().stream()
+                .map(LinkedEntity::getInstanceId)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -262,6 +184,7 @@ public class DistributionDetailsExtendedGenerationJPA {
     private static DistributionExtended buildDistributionExtended(Distribution distributionSelected,
                                                                   org.epos.eposdatamodel.DataProduct dp,
                                                                   WebService ws,
+                                                                  EntityLookup lookup,
                                                                   PreFetchedEntities preFetched,
                                                                   List<String> operationsIdRelatedToDistribution) {
         DistributionExtended distribution = new DistributionExtended();
@@ -283,7 +206,7 @@ public class DistributionDetailsExtendedGenerationJPA {
         populateContactPoints(distribution, dp, ws);
 
         // Available formats
-        distribution.setAvailableFormats(AvailableFormatsGeneration.generate(distributionSelected));
+        distribution.setAvailableFormats(AvailableFormatsGeneration.generate(distributionSelected, lookup));
 
         // Categories (facets)
         populateCategories(distribution, distributionSelected, dp, ws, preFetched);
@@ -688,7 +611,7 @@ public class DistributionDetailsExtendedGenerationJPA {
                 .metaId(distribution.getMetaId())
                 .title(distribution.getTitle() != null ? String.join(";", distribution.getTitle()) : null)
                 .description(distribution.getDescription() != null ? String.join(";", distribution.getDescription()) : null)
-                .availableFormats(AvailableFormatsGeneration.generate(distributionSelected))
+                .availableFormats(distribution.getAvailableFormats())
                 .sha256id(DigestUtils.sha256Hex(distribution.getUid()))
                 .dataProvider(facetsDataProviders)
                 .versioningStatus(distribution.getVersioningStatus())
@@ -715,4 +638,4 @@ public class DistributionDetailsExtendedGenerationJPA {
         }
         return formatted;
     }
-}
\ No newline at end of file
+}
@@ -15,8 +15,13 @@ import org.epos.api.beans.SpatialInformation;
 import org.epos.api.beans.TemporalCoverage;
 import org.epos.api.core.AvailableFormatsGeneration;
 import org.epos.api.core.DataServiceProviderGeneration;
+import org.epos.api.core.EntityGraph;
+import org.epos.api.core.EntityGraphLoader;
+import org.epos.api.core.EntityLookup;
 import org.epos.api.core.EnvironmentVariables;
 import org.epos.api.core.PreFetchedEntities;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.enums.ProviderType;
 import org.epos.api.facets.Facets;
 import org.epos.api.facets.FacetsGeneration;
@@ -25,7 +30,6 @@ import org.epos.eposdatamodel.Category;
 import org.epos.eposdatamodel.DataProduct;
 import org.epos.eposdatamodel.Documentation;
 import org.epos.eposdatamodel.Identifier;
-import org.epos.eposdatamodel.LinkedEntity;
 import org.epos.eposdatamodel.Location;
 import org.epos.eposdatamodel.Mapping;
 import org.epos.eposdatamodel.Operation;
@@ -35,10 +39,6 @@ import org.epos.eposdatamodel.WebService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
-
 public class DistributionDetailsGenerationJPA {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DistributionDetailsGenerationJPA.class);
@@ -46,6 +46,28 @@ public class DistributionDetailsGenerationJPA {
     private static final String API_PATH_DETAILS = EnvironmentVariables.API_CONTEXT + "/resources/details/";
     private static final String EMAIL_SENDER = EnvironmentVariables.API_CONTEXT + "/sender/send-email?id=";
 
+    /**
+     * Entities read when building the details of a distribution
+     */
+    private static final EntityGraph DETAILS_GRAPH = EntityGraph.empty()
+            .followFirst(org.epos.eposdatamodel.Distribution.class, DataProduct.class,
+                    org.epos.eposdatamodel.Distribution::getDataProduct)
+            .followFirst(org.epos.eposdatamodel.Distribution.class, WebService.class,
+                    org.epos.eposdatamodel.Distribution::getAccessService)
+            .follow(org.epos.eposdatamodel.Distribution.class, Operation.class,
+                    org.epos.eposdatamodel.Distribution::getSupportedOperation)
+            .follow(DataProduct.class, Identifier.class, DataProduct::getIdentifier)
+            .follow(DataProduct.class, Location.class, DataProduct::getSpatialExtent)
+            .follow(DataProduct.class, PeriodOfTime.class, DataProduct::getTemporalExtent)
+            .follow(DataProduct.class, Organization.class, DataProduct::getPublisher)
+            .follow(DataProduct.class, Category.class, DataProduct::getCategory)
+            .follow(WebService.class, Location.class, WebService::getSpatialExtent)
+            .follow(WebService.class, PeriodOfTime.class, WebService::getTemporalExtent)
+            .followOne(WebService.class, Organization.class, WebService::getProvider)
+            .follow(WebService.class, Category.class, WebService::getCategory)
+            .follow(WebService.class, Documentation.class, WebService::getDocumentation)
+            .follow(Operation.class, Mapping.class, Operation::getMapping);
+
     public static Distribution generate(Map<String, Object> parameters) {
         return generate(parameters, Facets.Type.DATA);
     }
@@ -54,43 +76,8 @@ public class DistributionDetailsGenerationJPA {
         long startTime = System.currentTimeMillis();
         LOGGER.info("Generating distribution details (OPTIMIZED) for parameters: {}", parameters);
 
-        // Retrieve main distribution
-        long retrievalStart = System.currentTimeMillis();
-        org.epos.eposdatamodel.Distribution distributionSelected = (org.epos.eposdatamodel.Distribution)
-                AbstractAPI.retrieveAPI(EntityNames.DISTRIBUTION.name()).retrieve(parameters.get("id").toString());
-
-        if (distributionSelected == null) {
-            LOGGER.warn("Distribution not found for id: {}", parameters.get("id"));
-            return null;
-        }
-        LOGGER.info("[PERF] Distribution retrieval: {} ms", System.currentTimeMillis() - retrievalStart);
-
-        // Retrieve DataProduct
-        DataProduct dp = getDataProduct(distributionSelected);
-        if (dp == null) {
-            LOGGER.warn("DataProduct not found for distribution: {}", distributionSelected.getInstanceId());
-            return null;
-        }
-
-        //  Retrieve WebService
-        WebService ws = getWebService(distributionSelected);
-        if (ws == null && distributionSelected.getAccessService() != null) {
-            LOGGER.warn("WebService not found for distribution: {}", distributionSelected.getInstanceId());
-            return null;
-        }
-
-        // Retrieve Operation
-        Operation op = getOperation(ws, distributionSelected);
-
-        // Pre-fetch ALL linked entities
-        long prefetchStart = System.currentTimeMillis();
-        PreFetchedEntities preFetched = preFetchLinkedEntities(dp, ws, op);
-        LOGGER.info("[PERF] Pre-fetching entities: {} ms", System.currentTimeMillis() - prefetchStart);
-
-        // Build distribution object
-        long buildStart = System.currentTimeMillis();
-        Distribution distribution = buildDistribution(distributionSelected, dp, ws, op, preFetched, facetsType);
-        LOGGER.info("[PERF] Building distribution: {} ms", System.currentTimeMillis() - buildStart);
+        String id = parameters.get("id").toString();
+        Distribution distribution = generate(List.of(id), facetsType).get(id);
 
         long endTime = System.currentTimeMillis();
         LOGGER.info("[PERF] TOTAL: {} ms", endTime - startTime);
@@ -99,142 +86,91 @@ public class DistributionDetailsGenerationJPA {
     }
 
     /**
-     * Get DataProduct from distribution
-     */
-    private static DataProduct getDataProduct(org.epos.eposdatamodel.Distribution distributionSelected) {
-        if (distributionSelected.getDataProduct() != null && !distributionSelected.getDataProduct().isEmpty()) {
-            return (DataProduct) LinkedEntityAPI.retrieveFromLinkedEntity(distributionSelected.getDataProduct().get(0));
-        }
-        return null;
-    }
-
-    /**
-     * Get WebService from distribution
-     */
-    private static WebService getWebService(org.epos.eposdatamodel.Distribution distributionSelected) {
-        if (distributionSelected.getAccessService() != null && !distributionSelected.getAccessService().isEmpty()) {
-            return (WebService) LinkedEntityAPI.retrieveFromLinkedEntity(distributionSelected.getAccessService().get(0));
-        }
-        return null;
-    }
-
-    /**
-     * Get Operation from WebService
-     */
-    private static Operation getOperation(WebService ws, org.epos.eposdatamodel.Distribution distributionSelected) {
-        if (ws != null && distributionSelected.getSupportedOperation() != null) {
-            List<Operation> opList = distributionSelected.getSupportedOperation().parallelStream()
-                    .map(linkedEntity -> (Operation) LinkedEntityAPI.retrieveFromLinkedEntity(linkedEntity))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-            return !opList.isEmpty() ? opList.get(0) : null;
-        }
-        return null;
-    }
-
-    /**
-     * Pre-fetch ALL linked entities to eliminate N+1 query problem
+     * Details of many distributions in request order, unknown ids left out. Distributions are read
+     * from the catalogue snapshot, those newer than the snapshot or marked as outdated since
+     * are loaded together along the details graph.
      */
-    private static PreFetchedEntities preFetchLinkedEntities(DataProduct dp, WebService ws, Operation op) {
-        PreFetchedEntities entities = new PreFetchedEntities();
-
-        // Collect all IDs
-        Set<String> identifierIds = new HashSet<>();
-        Set<String> locationIds = new HashSet<>();
-        Set<String> temporalIds = new HashSet<>();
-        Set<String> organizationIds = new HashSet<>();
-        Set<String> categoryIds = new HashSet<>();
-        Set<String> documentationIds = new HashSet<>();
-        Set<String> mappingIds = new HashSet<>();
-
-        // From DataProduct
-        if (dp.getIdentifier() != null) {
-            dp.getIdentifier().forEach(le -> identifierIds.add(le.getInstanceId()));
-        }
-        if (dp.getSpatialExtent() != null) {
-            dp.getSpatialExtent().forEach(le -> locationIds.add(le.getInstanceId()));
-        }
-        if (dp.getTemporalExtent() != null) {
-            dp.getTemporalExtent().forEach(le -> temporalIds.add(le.getInstanceId()));
-        }
-        if (dp.getPublisher() != null) {
-            dp.getPublisher().forEach(le -> organizationIds.add(le.getInstanceId()));
-        }
-        if (dp.getCategory() != null) {
-            dp.getCategory().forEach(le -> categoryIds.add(le.getInstanceId()));
-        }
-
-        // From WebService
-        if (ws != null) {
-            if (ws.getSpatialExtent() != null) {
-                ws.getSpatialExtent().forEach(le -> locationIds.add(le.getInstanceId()));
-            }
-            if (ws.getTemporalExtent() != null) {
-                ws.getTemporalExtent().forEach(le -> temporalIds.add(le.getInstanceId()));
-            }
-            if (ws.getProvider() != null) {
-                organizationIds.add(ws.getProvider().getInstanceId());
+    public static Map<String, Distribution> generate(Collection<String> ids, Facets.Type facetsType) {
+        long startTime = System.currentTimeMillis();
+        Catalogue catalogue = Catalogue.getInstance();
+        CatalogueSnapshot snapshot = catalogue.getSnapshot();
+        Map<String, Distribution> details = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        PreFetchedEntities snapshotEntities = null;
+
+        for (String id : ids) {
+            details.put(id, null);
+            org.epos.eposdatamodel.Distribution distributionSelected = snapshot.get(
+                    org.epos.eposdatamodel.Distribution.class, id);
+            if (distributionSelected == null || catalogue.isOutdated(snapshot, id)) {
+                missing.add(id);
+                continue;
             }
-            if (ws.getCategory() != null) {
-                ws.getCategory().forEach(le -> categoryIds.add(le.getInstanceId()));
+            if (snapshotEntities == null) {
+                snapshotEntities = snapshot.toPreFetchedEntities();
             }
-            if (ws.getDocumentation() != null) {
-                ws.getDocumentation().forEach(le -> documentationIds.add(le.getInstanceId()));
+            details.put(id, build(distributionSelected, snapshot, snapshotEntities, facetsType));
+        }
+
+        if (!missing.isEmpty()) {
+            EntityGraphLoader loader = new EntityGraphLoader()
+                    .load(DETAILS_GRAPH, org.epos.eposdatamodel.Distribution.class, missing);
+            PreFetchedEntities preFetched = loader.toPreFetchedEntities();
+            for (String id : missing) {
+                org.epos.eposdatamodel.Distribution distributionSelected = loader.get(
+                        org.epos.eposdatamodel.Distribution.class, id);
+                if (distributionSelected == null) {
+                    LOGGER.warn("Distribution not found for id: {}", id);
+                    continue;
+                }
+                details.put(id, build(distributionSelected, loader, preFetched, facetsType));
             }
         }
 
-        // From Operation
-        if (op != null && op.getMapping() != null) {
-            op.getMapping().forEach(le -> mappingIds.add(le.getInstanceId()));
-        }
-
-        LOGGER.info("Pre-fetching: {} identifiers, {} locations, {} temporal, {} organizations, {} categories, {} documentations, {} mappings",
-                identifierIds.size(), locationIds.size(), temporalIds.size(),
-                organizationIds.size(), categoryIds.size(), documentationIds.size(), mappingIds.size());
-
-        // Batch fetch all entities
-        entities.identifiers = fetchEntityBatch(EntityNames.IDENTIFIER, identifierIds);
-        entities.locations = fetchEntityBatch(EntityNames.LOCATION, locationIds);
-        entities.temporals = fetchEntityBatch(EntityNames.PERIODOFTIME, temporalIds);
-        entities.organizations = fetchEntityBatch(EntityNames.ORGANIZATION, organizationIds);
-        entities.categories = fetchEntityBatch(EntityNames.CATEGORY, categoryIds);
-        entities.documentations = fetchEntityBatch(EntityNames.DOCUMENTATION, documentationIds);
-        entities.mappings = fetchEntityBatch(EntityNames.MAPPING, mappingIds);
-
-        return entities;
+        details.values().removeIf(Objects::isNull);
+        LOGGER.info("[PERF] Details of {} distributions ({} from the database): {} ms", details.size(),
+                missing.size(), System.currentTimeMillis() - startTime);
+        return details;
     }
 
     /**
-     * Batch fetch helper
+     * Resolves the DataProduct, WebService and Operation of the distribution and builds its details,
+     * null when the DataProduct or the WebService cannot be resolved
      */
-    private static Map<String, Object> fetchEntityBatch(EntityNames entityName, Set<String> ids) {
-        if (ids.isEmpty()) {
-            return new HashMap<>();
+    private static Distribution build(org.epos.eposdatamodel.Distribution distributionSelected, EntityLookup lookup,
+                                      PreFetchedEntities preFetched, Facets.Type facetsType) {
+        DataProduct dp = distributionSelected.getDataProduct() != null && !distributionSelected.getDataProduct().isEmpty()
+                ? lookup.get(DataProduct.class, distributionSelected.getDataProduct().get(0))
+                : null;
+        if (dp == null) {
+            LOGGER.warn("DataProduct not found for distribution: {}", distributionSelected.getInstanceId());
+            return null;
         }
 
-        List<String> idList = new ArrayList<>(ids);
-        List<?> results = (List<?>) AbstractAPI.retrieveAPI(entityName.name()).retrieveBunch(idList);
-
-        Map<String, Object> map = new HashMap<>();
-        if (results != null) {
-            results.stream()
-                    .filter(Objects::nonNull)
-                    .forEach(obj -> {
-                        if (obj instanceof org.epos.eposdatamodel.EPOSDataModelEntity) {
-                            org.epos.eposdatamodel.EPOSDataModelEntity entity =
-                                    (org.epos.eposdatamodel.EPOSDataModelEntity) obj;
-                            map.put(entity.getInstanceId(), entity);
-                        }
-                    });
+        WebService ws = distributionSelected.getAccessService() != null && !distributionSelected.getAccessService().isEmpty()
+                ? lookup.get(WebService.class, distributionSelected.getAccessService().get(0))
+                : null;
+        if (ws == null && distributionSelected.getAccessService() != null) {
+            LOGGER.warn("WebService not found for distribution: {}", distributionSelected.getInstanceId());
+            return null;
         }
-        return map;
+
+        List<Operation> operations = ws != null
+                ? lookup.getAll(Operation.class, distributionSelected.getSupportedOperation())
+                : Collections.emptyList();
+        Operation op = !operations.isEmpty() ? operations.get(0) : null;
+
+        long buildStart = System.currentTimeMillis();
+        Distribution distribution = buildDistribution(distributionSelected, dp, ws, op, lookup, preFetched, facetsType);
+        LOGGER.info("[PERF] Building distribution: {} ms", System.currentTimeMillis() - buildStart);
+        return distribution;
     }
 
     /**
      * Build the complete Distribution object using pre-fetched entities
      */
     private static Distribution buildDistribution(org.epos.eposdatamodel.Distribution distributionSelected,
-                                                  DataProduct dp, WebService ws, Operation op,
+                                                  DataProduct dp, WebService ws, Operation op, EntityLookup lookup,
                                                   PreFetchedEntities preFetched, Facets.Type facetsType) {
         Distribution distribution = new Distribution();
 
@@ -274,7 +210,7 @@ public class DistributionDetailsGenerationJPA {
         setParameters(distribution, op, preFetched);
 
         // Available formats
-        distribution.setAvailableFormats(AvailableFormatsGeneration.generate(distributionSelected));
+        distribution.setAvailableFormats(AvailableFormatsGeneration.generate(distributionSelected, lookup));
 
         // Categories (facets)
         setCategories(distribution, distributionSelected, dp, ws, preFetched, facetsType);
@@ -642,7 +578,7 @@ public class DistributionDetailsGenerationJPA {
                 .metaId(distribution.getMetaId())
                 .title(distribution.getTitle() != null ? String.join(";", distribution.getTitle()) : null)
                 .description(distribution.getDescription() != null ? String.join(";", distribution.getDescription()) : null)
-                .availableFormats(AvailableFormatsGeneration.generate(distributionSelected))
+                .availableFormats(distribution.getAvailableFormats())
                 .sha256id(DigestUtils.sha256Hex(distribution.getUid()))
                 .dataProvider(facetsDataProviders)
                 .serviceProvider(facetsServiceProviders)
@@ -677,4 +613,4 @@ public class DistributionDetailsGenerationJPA {
         sp.setMultipleValue(Boolean.parseBoolean(mp.getMultipleValues()) ? mp.getMultipleValues() : null);
         return sp;
     }
-}
\ No newline at end of file
+}
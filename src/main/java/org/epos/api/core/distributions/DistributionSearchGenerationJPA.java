@@ -4,22 +4,18 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
-import org.apache.commons.codec.digest.DigestUtils;
-import org.epos.api.beans.AvailableFormat;
 import org.epos.api.beans.DataServiceProvider;
 import org.epos.api.beans.DiscoveryItem;
-import org.epos.api.beans.DiscoveryItem.DiscoveryItemBuilder;
 import org.epos.api.beans.NodeFilters;
 import org.epos.api.beans.SearchResponse;
 import org.epos.api.core.*;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.core.filtersearch.DistributionFilterSearch;
 import org.epos.api.facets.Facets;
 import org.epos.api.facets.FacetsGeneration;
 import org.epos.api.facets.Node;
-import org.epos.api.routines.DatabaseConnections;
+import org.epos.api.routines.UserDirectory;
 import org.epos.eposdatamodel.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,45 +26,140 @@ import model.StatusType;
 public class DistributionSearchGenerationJPA {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DistributionSearchGenerationJPA.class);
-    private static final String API_PATH_DETAILS = EnvironmentVariables.API_CONTEXT + "/resources/details/";
     private static final String PARAMETER__SCIENCE_DOMAIN = "sciencedomains";
     private static final String PARAMETER__SERVICE_TYPE = "servicetypes";
 
+    private static final String PARAMETER__LIMIT = "limit";
+    private static final String PARAMETER__CURSOR = "cursor";
+    private static final String PARAMETER__FACETS_MODE = "facetsmode";
+    private static final String FACETS_MODE_ITEMS = "items";
+    private static final String FACETS_MODE_IDS = "ids";
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * Stable order of paged results: title, then instance id
+     */
+    private static final Comparator<DiscoveryItem> RESULT_ORDER = Comparator
+            .comparing(DiscoveryItem::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(DiscoveryItem::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
     public static SearchResponse generate(Map<String, Object> parameters, User user) {
         LOGGER.info("Requests start - JPA method (OPTIMIZED)");
         long startTime = System.currentTimeMillis();
 
+        SearchResponse response;
+        if (parameters.containsKey(PARAMETER__LIMIT) || parameters.containsKey(PARAMETER__CURSOR)) {
+            response = generatePage(parameters, user);
+        } else {
+            SearchMatches matches = match(parameters, user, Catalogue.getInstance().getSnapshot());
+            response = buildResponse(matches.getItems(), matches.getFilters(), parameters);
+        }
+
+        long endTime = System.currentTimeMillis();
+        long duration = (endTime - startTime);
+        LOGGER.info("[PERF] TOTAL: {} ms", duration);
+
+        return response;
+    }
+
+    /**
+     * Checks the paging parameters of a search request, returns an error message or null if they are valid
+     */
+    public static String validatePaging(Map<String, Object> parameters) {
+        if (parameters.containsKey(PARAMETER__LIMIT)) {
+            int limit;
+            try {
+                limit = Integer.parseInt(parameters.get(PARAMETER__LIMIT).toString());
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 1 || limit > MAX_LIMIT) {
+                return "The limit must be an integer between 1 and " + MAX_LIMIT;
+            }
+        }
+        if (parameters.containsKey(PARAMETER__CURSOR)) {
+            SearchCursor cursor = SearchCursor.decode(parameters.get(PARAMETER__CURSOR).toString());
+            if (cursor == null || !cursor.getQueryHash().equals(SearchResultCache.queryHash(parameters))) {
+                return "The cursor is not valid for this query";
+            }
+            if (Catalogue.getInstance().getSnapshot(cursor.getVersion()) == null) {
+                return "The cursor has expired, restart the search from the first page";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One page of the matches, computed on the catalogue version of the cursor and sliced from the
+     * cached match set of that version
+     */
+    private static SearchResponse generatePage(Map<String, Object> parameters, User user) {
+        String error = validatePaging(parameters);
+        if (error != null) {
+            return new SearchResponse(error);
+        }
+
+        SearchCursor cursor = parameters.containsKey(PARAMETER__CURSOR)
+                ? SearchCursor.decode(parameters.get(PARAMETER__CURSOR).toString())
+                : null;
+        CatalogueSnapshot snapshot = cursor != null
+                ? Catalogue.getInstance().getSnapshot(cursor.getVersion())
+                : Catalogue.getInstance().getSnapshot();
+        if (snapshot == null) {
+            return new SearchResponse("The cursor has expired, restart the search from the first page");
+        }
+        int limit = parameters.containsKey(PARAMETER__LIMIT)
+                ? Integer.parseInt(parameters.get(PARAMETER__LIMIT).toString())
+                : DEFAULT_LIMIT;
+
+        SearchMatches matches = SearchResultCache.getInstance()
+                .getMatches(snapshot.getVersion(), parameters, user, () -> match(parameters, user, snapshot));
+        List<DiscoveryItem> items = matches.getItems();
+        int offset = cursor != null ? Math.min(cursor.getOffset(), items.size()) : 0;
+        int end = Math.min(offset + limit, items.size());
+
+        SearchResponse response = buildResponse(items.subList(offset, end), matches.getFilters(), parameters);
+        response.setTotal(items.size());
+        if (end < items.size()) {
+            response.setNextCursor(new SearchCursor(snapshot.getVersion(), end,
+                    SearchResultCache.queryHash(parameters)).encode());
+        }
+        LOGGER.info("[PERF] Page {}-{} of {} (catalogue version {})", offset, end, items.size(), snapshot.getVersion());
+        return response;
+    }
+
+    /**
+     * Filters the dataproducts of the snapshot and builds the sorted discovery items and the filters of the whole match set
+     */
+    private static SearchMatches match(Map<String, Object> parameters, User user, CatalogueSnapshot snapshot) {
         // Determine access level and versions
         boolean isBackofficeUser = user != null;
         List<StatusType> versions = getVersions(parameters, isBackofficeUser);
 
-        // Retrieve and filter dataproducts
+        // Retrieve and filter dataproducts from the catalogue snapshot
         long retrievalStart = System.currentTimeMillis();
-        Map<String, User> userMap = DatabaseConnections.retrieveUserMap();
 
-        List<DataProduct> dataproducts = ((List<DataProduct>) AbstractAPI
-                .retrieveAPI(EntityNames.DATAPRODUCT.name())
-                .retrieveAll())
+        List<DataProduct> dataproducts = snapshot.getDataProducts()
                 .parallelStream()
                 .filter(dp -> dp != null && shouldIncludeDataProduct(dp, versions, isBackofficeUser, user))
                 .collect(Collectors.toList());
 
-        LOGGER.info("[PERF] Data retrieval: {} ms ({} dataproducts)",
-                System.currentTimeMillis() - retrievalStart, dataproducts.size());
+        LOGGER.info("[PERF] Data retrieval: {} ms ({} dataproducts, catalogue version {})",
+                System.currentTimeMillis() - retrievalStart, dataproducts.size(), snapshot.getVersion());
 
         // Apply filters
         long filterStart = System.currentTimeMillis();
         LOGGER.info("Apply filter using input parameters: {}", parameters.toString());
-        dataproducts = DistributionFilterSearch.doFilters(dataproducts, parameters);
+        dataproducts = DistributionFilterSearch.doFilters(dataproducts, parameters, snapshot);
         LOGGER.info("[PERF] Filtering: {} ms ({} dataproducts remaining)",
                 System.currentTimeMillis() - filterStart, dataproducts.size());
 
-        // Pre-fetch all linked entities (CRITICAL OPTIMIZATION)
-        long prefetchStart = System.currentTimeMillis();
-        PreFetchedEntities preFetched = preFetchLinkedEntities(dataproducts);
-        LOGGER.info("[PERF] Pre-fetching entities: {} ms", System.currentTimeMillis() - prefetchStart);
+        // Select the prebuilt items of the matching dataproducts
+        DiscoveryItemTable table = DiscoveryItemTable.of(snapshot);
+        DiscoveryItemFields fields = DiscoveryItemFields.of(parameters);
+        boolean withEditorInfo = isBackofficeUser && parameters.containsKey("versioningStatus");
 
-        // Process dataproducts in parallel with thread-safe collections
         long processingStart = System.currentTimeMillis();
         Set<DiscoveryItem> discoveryMap = ConcurrentHashMap.newKeySet();
         Set<String> keywords = ConcurrentHashMap.newKeySet();
@@ -76,28 +167,29 @@ public class DistributionSearchGenerationJPA {
         Set<Category> serviceTypes = ConcurrentHashMap.newKeySet();
         Set<Organization> organizationsEntityIds = ConcurrentHashMap.newKeySet();
 
-        LOGGER.info("Start parallel processing of {} dataproducts", dataproducts.size());
-
         dataproducts.parallelStream().forEach(dataproduct -> {
-            processDataProduct(dataproduct, preFetched, discoveryMap, keywords,
-                    scienceDomains, serviceTypes, organizationsEntityIds,
-                    parameters, isBackofficeUser, userMap);
+            DiscoveryItemTable.Entry entry = table.get(snapshot.ordinalOf(dataproduct));
+            keywords.addAll(entry.getKeywords());
+            scienceDomains.addAll(entry.getScienceDomains());
+            serviceTypes.addAll(entry.getServiceTypes());
+            organizationsEntityIds.addAll(entry.getOrganizations());
+            for (DiscoveryItemTable.Template template : entry.getItems()) {
+                discoveryMap.add(newDiscoveryItem(template, fields, withEditorInfo));
+            }
         });
 
         LOGGER.info("[PERF] Processing: {} ms", System.currentTimeMillis() - processingStart);
         LOGGER.info("Final number of results: {}", discoveryMap.size());
 
-        // Build response
-        long responseStart = System.currentTimeMillis();
-        SearchResponse response = buildResponse(discoveryMap, keywords, organizationsEntityIds,
-                scienceDomains, serviceTypes, parameters);
-        LOGGER.info("[PERF] Response building: {} ms", System.currentTimeMillis() - responseStart);
-
-        long endTime = System.currentTimeMillis();
-        long duration = (endTime - startTime);
-        LOGGER.info("[PERF] TOTAL: {} ms", duration);
+        long filtersStart = System.currentTimeMillis();
+        List<DiscoveryItem> items = new ArrayList<>(discoveryMap);
+        items.sort(RESULT_ORDER);
+        items.forEach(fields::project);
+        ArrayList<NodeFilters> filters = buildFilters(keywords, organizationsEntityIds,
+                scienceDomains, serviceTypes, snapshot);
+        LOGGER.info("[PERF] Filters building: {} ms", System.currentTimeMillis() - filtersStart);
 
-        return response;
+        return new SearchMatches(Collections.unmodifiableList(items), filters);
     }
 
     /**
@@ -129,253 +221,32 @@ public class DistributionSearchGenerationJPA {
     }
 
     /**
-     * Pre-fetches ALL linked entities to eliminate N+1 query problem
-     * This is the most critical optimization - replaces thousands of individual queries with batch fetches
-     */
-    public static PreFetchedEntities preFetchLinkedEntities(List<DataProduct> dataproducts) {
-        PreFetchedEntities entities = new PreFetchedEntities();
-
-        // Collect all IDs that need to be fetched
-        Set<String> categoryIds = ConcurrentHashMap.newKeySet();
-        Set<String> organizationIds = ConcurrentHashMap.newKeySet();
-        Set<String> distributionIds = ConcurrentHashMap.newKeySet();
-
-        // Parallel collection of IDs
-        dataproducts.parallelStream().forEach(dp -> {
-            if (dp.getCategory() != null) {
-                dp.getCategory().forEach(le -> categoryIds.add(le.getInstanceId()));
-            }
-            if (dp.getPublisher() != null) {
-                dp.getPublisher().forEach(le -> organizationIds.add(le.getInstanceId()));
-            }
-            if (dp.getDistribution() != null) {
-                dp.getDistribution().forEach(le -> distributionIds.add(le.getInstanceId()));
-            }
-        });
-
-        LOGGER.info("Pre-fetching: {} categories, {} organizations, {} distributions",
-                categoryIds.size(), organizationIds.size(), distributionIds.size());
-
-        // Batch fetch all entities
-        entities.categories = fetchBatch(EntityNames.CATEGORY, categoryIds);
-        entities.organizations = fetchBatch(EntityNames.ORGANIZATION, organizationIds);
-        entities.distributions = fetchBatch(EntityNames.DISTRIBUTION, distributionIds);
-
-        // Collect web service IDs from distributions
-        Set<String> webServiceIds = ConcurrentHashMap.newKeySet();
-        entities.distributions.values().parallelStream()
-                .filter(obj -> obj instanceof Distribution)
-                .map(obj -> (Distribution) obj)
-                .filter(dist -> dist.getAccessService() != null)
-                .forEach(dist -> dist.getAccessService().forEach(le -> webServiceIds.add(le.getInstanceId())));
-
-        LOGGER.info("Pre-fetching: {} web services", webServiceIds.size());
-        entities.webServices = fetchBatch(EntityNames.WEBSERVICE, webServiceIds);
-
-        // Collect organization IDs from web services
-        Set<String> additionalOrgIds = ConcurrentHashMap.newKeySet();
-        entities.webServices.values().parallelStream()
-                .filter(obj -> obj instanceof WebService)
-                .map(obj -> (WebService) obj)
-                .filter(ws -> ws.getProvider() != null)
-                .forEach(ws -> additionalOrgIds.add(ws.getProvider().getInstanceId()));
-
-        // Fetch additional organizations
-        if (!additionalOrgIds.isEmpty()) {
-            LOGGER.info("Pre-fetching: {} additional organizations from web services", additionalOrgIds.size());
-            Map<String, Object> additionalOrgs = fetchBatch(EntityNames.ORGANIZATION, additionalOrgIds);
-            entities.organizations.putAll(additionalOrgs);
-        }
-
-        // Collect category IDs from web services
-        Set<String> additionalCategoryIds = ConcurrentHashMap.newKeySet();
-        entities.webServices.values().parallelStream()
-                .filter(obj -> obj instanceof WebService)
-                .map(obj -> (WebService) obj)
-                .filter(ws -> ws.getCategory() != null)
-                .forEach(ws -> ws.getCategory().forEach(le -> additionalCategoryIds.add(le.getInstanceId())));
-
-        // Fetch additional categories
-        if (!additionalCategoryIds.isEmpty()) {
-            LOGGER.info("Pre-fetching: {} additional categories from web services", additionalCategoryIds.size());
-            Map<String, Object> additionalCategories = fetchBatch(EntityNames.CATEGORY, additionalCategoryIds);
-            entities.categories.putAll(additionalCategories);
-        }
-
-        return entities;
-    }
-
-    /**
-     * Batch fetch helper that retrieves multiple entities in one call
-     */
-    private static Map<String, Object> fetchBatch(EntityNames entityName, Set<String> ids) {
-        if (ids.isEmpty()) {
-            return new ConcurrentHashMap<>();
-        }
-
-        List<String> idList = new ArrayList<>(ids);
-        List<?> results = (List<?>) AbstractAPI.retrieveAPI(entityName.name()).retrieveBunch(idList);
-
-        Map<String, Object> map = new ConcurrentHashMap<>();
-        if (results != null) {
-            results.parallelStream()
-                    .filter(Objects::nonNull)
-                    .filter(obj -> obj instanceof EPOSDataModelEntity)
-                    .forEach(obj -> {
-                        EPOSDataModelEntity entity = (EPOSDataModelEntity) obj;
-                        map.put(entity.getInstanceId(), entity);
-                    });
-        }
-        return map;
-    }
-
-    /**
-     * Process a single dataproduct using pre-fetched entities
-     */
-    private static void processDataProduct(DataProduct dataproduct, PreFetchedEntities preFetched,
-                                           Set<DiscoveryItem> discoveryMap, Set<String> keywords,
-                                           Set<Category> scienceDomains, Set<Category> serviceTypes,
-                                           Set<Organization> organizationsEntityIds,
-                                           Map<String, Object> parameters, boolean isBackofficeUser,
-                                           Map<String, User> userMap) {
-
-        Set<String> facetsDataProviders = new HashSet<>();
-        List<String> categoryList = new ArrayList<>();
-
-        // Process categories - using pre-fetched data
-        if (dataproduct.getCategory() != null) {
-            dataproduct.getCategory().forEach(le -> {
-                Category category = (Category) preFetched.categories.get(le.getInstanceId());
-                if (category != null) {
-                    if (category.getUid().contains("category:")) {
-                        categoryList.add(category.getUid());
-                    } else {
-                        scienceDomains.add(category);
-                    }
-                }
-            });
-        }
-
-        // Process publishers - using pre-fetched data
-        if (dataproduct.getPublisher() != null) {
-            dataproduct.getPublisher().forEach(le -> {
-                Organization org = (Organization) preFetched.organizations.get(le.getInstanceId());
-                if (org != null && org.getLegalName() != null) {
-                    facetsDataProviders.add(String.join(",", org.getLegalName()));
-                    organizationsEntityIds.add(org);
-                }
-            });
-        }
-
-        // Process keywords
-        if (dataproduct.getKeywords() != null && !dataproduct.getKeywords().isEmpty()) {
-            Arrays.stream(dataproduct.getKeywords().split(",\t"))
-                    .map(String::toLowerCase)
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .forEach(keywords::add);
-        }
-
-        // Process distributions - using pre-fetched data
-        if (dataproduct.getDistribution() != null) {
-            dataproduct.getDistribution().forEach(le -> {
-                Distribution distribution = (Distribution) preFetched.distributions.get(le.getInstanceId());
-                if (distribution != null) {
-                    processDistribution(distribution, preFetched, discoveryMap, serviceTypes,
-                            organizationsEntityIds, facetsDataProviders, categoryList,
-                            parameters, isBackofficeUser, userMap, dataproduct);
-                }
-            });
-        }
-    }
-
-    /**
-     * Process a single distribution using pre-fetched entities
+     * Copy of a prebuilt item with the per request fields: editor information and monitoring status
      */
-    private static void processDistribution(Distribution distribution, PreFetchedEntities preFetched,
-                                            Set<DiscoveryItem> discoveryMap, Set<Category> serviceTypes,
-                                            Set<Organization> organizationsEntityIds,
-                                            Set<String> facetsDataProviders, List<String> categoryList,
-                                            Map<String, Object> parameters, boolean isBackofficeUser,
-                                            Map<String, User> userMap, DataProduct dataproduct) {
-
-        Set<String> facetsServiceProviders = new HashSet<>();
-
-        // Generate available formats
-        List<AvailableFormat> availableFormats = AvailableFormatsGeneration.generate(distribution);
-        List<DataServiceProvider> dataServiceProviderList = new ArrayList<>();
-
-        // Process access services - using pre-fetched data
-        if (distribution.getAccessService() != null) {
-            distribution.getAccessService().forEach(le -> {
-                WebService webService = (WebService) preFetched.webServices.get(le.getInstanceId());
-                if (webService != null) {
-                    // Process provider
-                    if (webService.getProvider() != null) {
-                        Organization org = (Organization) preFetched.organizations.get(
-                                webService.getProvider().getInstanceId());
-                        if (org != null) {
-                            if (org.getLegalName() != null) {
-                                facetsServiceProviders.add(String.join(",", org.getLegalName()));
-                            }
-                            organizationsEntityIds.add(org);
-
-                            List<DataServiceProvider> providers = DataServiceProviderGeneration.getProviders(List.of(org));
-                            if (!providers.isEmpty()) {
-                                dataServiceProviderList.add(providers.get(0));
-                            }
-                        }
-                    }
-
-                    // Process service categories
-                    if (webService.getCategory() != null) {
-                        webService.getCategory().forEach(catLe -> {
-                            Category category = (Category) preFetched.categories.get(catLe.getInstanceId());
-                            if (category != null) {
-                                serviceTypes.add(category);
-                            }
-                        });
-                    }
-                }
-            });
-        }
-
-        // Build discovery item
-        DiscoveryItemBuilder discoveryItemBuilder = new DiscoveryItemBuilder(
-                distribution.getInstanceId(),
-                EnvironmentVariables.API_HOST + API_PATH_DETAILS + distribution.getInstanceId(),
-                EnvironmentVariables.API_HOST + API_PATH_DETAILS + distribution.getInstanceId() + "?extended=true")
-                .uid(distribution.getUid())
-                .metaId(distribution.getMetaId())
-                .title(distribution.getTitle() != null ? String.join(";", distribution.getTitle()) : null)
-                .description(distribution.getDescription() != null ? String.join(";", distribution.getDescription()) : null)
-                .dataServiceProvider(dataServiceProviderList.isEmpty() ? null : dataServiceProviderList.get(0))
-                .availableFormats(availableFormats)
-                .sha256id(distribution.getUid() != null ? DigestUtils.sha256Hex(distribution.getUid()) : "")
-                .dataProvider(facetsDataProviders)
-                .serviceProvider(facetsServiceProviders)
-                .categories(categoryList.isEmpty() ? null : categoryList);
+    private static DiscoveryItem newDiscoveryItem(DiscoveryItemTable.Template template, DiscoveryItemFields fields,
+                                                  boolean withEditorInfo) {
+        DiscoveryItem discoveryItem = template.newItem();
 
         // Add backoffice info if needed
-        if (isBackofficeUser && parameters.containsKey("versioningStatus")) {
+        if (withEditorInfo) {
+            Distribution distribution = template.getDistribution();
             String editorId = distribution.getEditorId();
             if ("ingestor".equals(editorId)) {
-                discoveryItemBuilder.editorFullName("Ingestor");
-            } else {
-                User editor = userMap.get(editorId);
+                discoveryItem.setEditorFullName("Ingestor");
+            } else if (fields.includes("editorFullName")) {
+                User editor = UserDirectory.getInstance().get(editorId);
                 if (editor != null) {
-                    discoveryItemBuilder.editorFullName(editor.getFirstName() + " " + editor.getLastName());
+                    discoveryItem.setEditorFullName(editor.getFirstName() + " " + editor.getLastName());
                 }
             }
-            discoveryItemBuilder.editorId(editorId)
-                    .changeDate(distribution.getChangeTimestamp())
-                    .versioningStatus(dataproduct.getStatus().name());
+            discoveryItem.setEditorId(editorId);
+            discoveryItem.setChangeDate(distribution.getChangeTimestamp());
+            discoveryItem.setVersioningStatus(template.getDataproduct().getStatus().name());
         }
 
-        DiscoveryItem discoveryItem = discoveryItemBuilder.build();
-
         // Add monitoring info if enabled
-        if (EnvironmentVariables.MONITORING != null && EnvironmentVariables.MONITORING.equals("true")) {
+        if (EnvironmentVariables.MONITORING != null && EnvironmentVariables.MONITORING.equals("true")
+                && fields.includesStatus()) {
             discoveryItem.setStatus(ZabbixExecutor.getInstance().getStatusInfoFromSha(discoveryItem.getSha256id()));
             discoveryItem.setStatusTimestamp(
                     ZabbixExecutor.getInstance().getStatusTimestampInfoFromSha(discoveryItem.getSha256id()));
@@ -383,44 +254,63 @@ public class DistributionSearchGenerationJPA {
                     ZabbixExecutor.getInstance().getStatusURLFromSha(discoveryItem.getSha256id()));
         }
 
-        discoveryMap.add(discoveryItem);
+        return discoveryItem;
     }
 
     /**
-     * Build the final search response with results and filters
+     * Build the final search response with the given results and the filters of the match set
      */
-    private static SearchResponse buildResponse(Set<DiscoveryItem> discoveryMap, Set<String> keywords,
-                                                Set<Organization> organizationsEntityIds,
-                                                Set<Category> scienceDomains, Set<Category> serviceTypes,
+    private static SearchResponse buildResponse(Collection<DiscoveryItem> discoveryMap, ArrayList<NodeFilters> filters,
                                                 Map<String, Object> parameters) {
+        long responseStart = System.currentTimeMillis();
 
         Node results = new Node("results");
 
         // Build facets or regular results
         if (parameters.containsKey("facets") && parameters.get("facets").toString().equals("true")) {
             String facetsType = parameters.get("facetstype").toString();
+            Node facetsNode;
             switch (facetsType) {
                 case "categories":
-                    results.addChild(FacetsGeneration.generateResponseUsingCategories(discoveryMap, Facets.Type.DATA).getFacets());
+                    facetsNode = FacetsGeneration.generateResponseUsingCategories(discoveryMap, Facets.Type.DATA).getFacets();
                     break;
                 case "dataproviders":
-                    results.addChild(FacetsGeneration.generateResponseUsingDataproviders(discoveryMap).getFacets());
+                    facetsNode = FacetsGeneration.generateResponseUsingDataproviders(discoveryMap).getFacets();
                     break;
                 case "serviceproviders":
-                    results.addChild(FacetsGeneration.generateResponseUsingServiceproviders(discoveryMap).getFacets());
+                    facetsNode = FacetsGeneration.generateResponseUsingServiceproviders(discoveryMap).getFacets();
                     break;
                 default:
-                    Node child = new Node();
-                    child.setDistributions(discoveryMap);
-                    results.addChild(child);
+                    facetsNode = new Node();
+                    facetsNode.setDistributions(discoveryMap);
                     break;
             }
+            // Counts mode: items listed once on the root, counts (and ids) on the facet nodes
+            String facetsMode = parameters.containsKey(PARAMETER__FACETS_MODE)
+                    ? parameters.get(PARAMETER__FACETS_MODE).toString()
+                    : FACETS_MODE_ITEMS;
+            if (facetsNode != null && !FACETS_MODE_ITEMS.equals(facetsMode)) {
+                FacetsGeneration.toCounts(facetsNode, discoveryMap, FACETS_MODE_IDS.equals(facetsMode));
+            }
+            results.addChild(facetsNode);
         } else {
             Node child = new Node();
             child.setDistributions(discoveryMap);
             results.addChild(child);
         }
 
+        SearchResponse response = new SearchResponse(results, filters);
+        LOGGER.info("[PERF] Response building: {} ms", System.currentTimeMillis() - responseStart);
+        return response;
+    }
+
+    /**
+     * Build the keywords, organisations, science domains and service types filters
+     */
+    private static ArrayList<NodeFilters> buildFilters(Set<String> keywords, Set<Organization> organizationsEntityIds,
+                                                       Set<Category> scienceDomains, Set<Category> serviceTypes,
+                                                       CatalogueSnapshot snapshot) {
+
         LOGGER.info("Number of organizations retrieved: {}", organizationsEntityIds.size());
 
         // Build keywords filter
@@ -438,7 +328,7 @@ public class DistributionSearchGenerationJPA {
 
         // Build organizations filter
         List<DataServiceProvider> collection = DataServiceProviderGeneration
-                .getProviders(new ArrayList<>(organizationsEntityIds));
+                .getProviders(new ArrayList<>(organizationsEntityIds), snapshot);
 
         NodeFilters organisationsNodes = new NodeFilters("organisations");
         collection.forEach(resource -> {
@@ -475,6 +365,6 @@ public class DistributionSearchGenerationJPA {
         filters.add(scienceDomainsNodes);
         filters.add(serviceTypesNodes);
 
-        return new SearchResponse(results, filters);
+        return filters;
     }
 }
\ No newline at end of file
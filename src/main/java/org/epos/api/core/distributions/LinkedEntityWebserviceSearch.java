@@ -26,11 +26,11 @@ public class LinkedEntityWebserviceSearch {
     private static final Logger LOGGER = LoggerFactory.getLogger(LinkedEntityWebserviceSearch.class);
     private static final String API_PATH_DETAILS = EnvironmentVariables.API_CONTEXT + "/resources/details/";
 
-    public static LinkedResponse generate(String id, Map<String, String> params) {
+    public static LinkedResponse generate(String id, Map<String, String> params, DiscoveryItemFields fields) {
         long startTime = System.currentTimeMillis();
         LOGGER.info("Generating discovery items (OPTIMIZED) with exclusion id {} and params {}", id, params);
 
-        Set<DiscoveryItem> results = generateDiscoveryItems(params);
+        Set<DiscoveryItem> results = generateDiscoveryItems(params, fields);
         results.removeIf(d -> d.getId().equals(id));
 
         LOGGER.info("[PERF] TOTAL with exclusion: {} ms - {} items",
@@ -38,11 +38,11 @@ public class LinkedEntityWebserviceSearch {
         return new LinkedResponse(results);
     }
 
-    public static LinkedResponse generate(Map<String, String> params) {
+    public static LinkedResponse generate(Map<String, String> params, DiscoveryItemFields fields) {
         long startTime = System.currentTimeMillis();
         LOGGER.info("Generating discovery items (OPTIMIZED) with params {}", params);
 
-        Set<DiscoveryItem> results = generateDiscoveryItems(params);
+        Set<DiscoveryItem> results = generateDiscoveryItems(params, fields);
 
         LOGGER.info("[PERF] TOTAL: {} ms - {} items",
                 System.currentTimeMillis() - startTime, results.size());
@@ -52,7 +52,7 @@ public class LinkedEntityWebserviceSearch {
     /**
      * Generate discovery items by filtering distributions based on parameter mappings
      */
-    private static Set<DiscoveryItem> generateDiscoveryItems(Map<String, String> params) {
+    private static Set<DiscoveryItem> generateDiscoveryItems(Map<String, String> params, DiscoveryItemFields fields) {
         long dataLoadStart = System.currentTimeMillis();
 
         // Load all required data (unavoidable for this use case)
@@ -77,7 +77,7 @@ public class LinkedEntityWebserviceSearch {
                 distributions.parallelStream() : distributions.stream())
                 .filter(Objects::nonNull)
                 .filter(distribution -> isDistributionValid(distribution, operations, mappings, params))
-                .map(LinkedEntityWebserviceSearch::createDiscoveryItem)
+                .map(distribution -> createDiscoveryItem(distribution, fields))
                 .collect(Collectors.toCollection(
                         useParallel ? ConcurrentHashMap::newKeySet : HashSet::new
                 ));
@@ -208,11 +208,13 @@ public class LinkedEntityWebserviceSearch {
     /**
      * Create a discovery item from a distribution
      */
-    private static DiscoveryItem createDiscoveryItem(Distribution distribution) {
+    private static DiscoveryItem createDiscoveryItem(Distribution distribution, DiscoveryItemFields fields) {
         LOGGER.debug("Creating discovery item for distribution {}", distribution.getInstanceId());
 
-        // Generate available formats
-        List<AvailableFormat> availableFormats = AvailableFormatsGeneration.generate(distribution);
+        // Generate available formats, only if they are returned
+        List<AvailableFormat> availableFormats = fields.includes(DiscoveryItemFields.AVAILABLE_FORMATS)
+                ? AvailableFormatsGeneration.generate(distribution)
+                : null;
 
         // Build discovery item
         DiscoveryItemBuilder builder = new DiscoveryItemBuilder(
@@ -231,12 +233,13 @@ public class LinkedEntityWebserviceSearch {
         DiscoveryItem item = builder.build();
 
         // Add monitoring info if enabled
-        if (EnvironmentVariables.MONITORING != null && EnvironmentVariables.MONITORING.equals("true")) {
+        if (EnvironmentVariables.MONITORING != null && EnvironmentVariables.MONITORING.equals("true")
+                && fields.includesStatus()) {
             ZabbixExecutor zabbix = ZabbixExecutor.getInstance();
             item.setStatus(zabbix.getStatusInfoFromSha(item.getSha256id()));
             item.setStatusTimestamp(zabbix.getStatusTimestampInfoFromSha(item.getSha256id()));
         }
 
-        return item;
+        return fields.project(item);
     }
 }
\ No newline at end of file
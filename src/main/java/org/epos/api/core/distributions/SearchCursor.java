@@ -0,0 +1,56 @@
+package org.epos.api.core.distributions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a paged /resources/search: the catalogue version the first page was
+ * computed on, the offset of the next page and a hash of the query it belongs to.
+ */
+public class SearchCursor {
+
+    private final long version;
+    private final int offset;
+    private final String queryHash;
+
+    public SearchCursor(long version, int offset, String queryHash) {
+        this.version = version;
+        this.offset = offset;
+        this.queryHash = queryHash;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public String getQueryHash() {
+        return queryHash;
+    }
+
+    public String encode() {
+        String plain = version + ":" + offset + ":" + queryHash;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decoded cursor, null if the token is malformed
+     */
+    public static SearchCursor decode(String token) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = plain.split(":", 3);
+            if (parts.length != 3) {
+                return null;
+            }
+            long version = Long.parseLong(parts[0]);
+            int offset = Integer.parseInt(parts[1]);
+            return offset >= 0 ? new SearchCursor(version, offset, parts[2]) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
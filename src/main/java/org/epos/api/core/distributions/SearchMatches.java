@@ -0,0 +1,30 @@
+package org.epos.api.core.distributions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.beans.NodeFilters;
+
+/**
+ * Everything a search computes before paging: the matching items in their stable order and the
+ * filters of the whole match set. Shared between responses, never modified once built.
+ */
+final class SearchMatches {
+
+    private final List<DiscoveryItem> items;
+    private final ArrayList<NodeFilters> filters;
+
+    SearchMatches(List<DiscoveryItem> items, ArrayList<NodeFilters> filters) {
+        this.items = items;
+        this.filters = filters;
+    }
+
+    List<DiscoveryItem> getItems() {
+        return items;
+    }
+
+    ArrayList<NodeFilters> getFilters() {
+        return filters;
+    }
+}
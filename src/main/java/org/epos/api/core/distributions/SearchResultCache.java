@@ -0,0 +1,191 @@
+package org.epos.api.core.distributions;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.eposdatamodel.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded cache of serialised /resources/search responses, kept as bytes ready to be written out,
+ * UTF-8 JSON or one of the binary encodings.
+ * <p>
+ * The key is the canonical parameter map plus the catalogue version and, for backoffice requests
+ * on non published versions, the user scope. Entries are weighed by payload size, a new catalogue
+ * version drops the whole cache. Monitoring status and facets are refreshed outside the catalogue,
+ * the time to live bounds how long a cached response can lag behind them.
+ * <p>
+ * A second, smaller cache keeps the sorted matches of paged searches per catalogue version, so
+ * that the following pages of a cursor are sliced without running the filters again.
+ */
+public class SearchResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private static final long DEFAULT_MAX_MB = 64;
+    private static final long DEFAULT_TTL_SECONDS = 90;
+    private static final long MAX_MATCH_SETS = 32;
+
+    /**
+     * Comma separated parameters whose values are sets, their order does not change the result
+     */
+    private static final Set<String> SET_PARAMETERS = Set.of("q", "keywords", "organisations",
+            "sciencedomains", "servicetypes", "versioningStatus", "fields");
+
+    /**
+     * Parameters selecting a page of the matches rather than the matches themselves
+     */
+    private static final Set<String> PAGING_PARAMETERS = Set.of("limit", "cursor");
+
+    private static SearchResultCache instance;
+
+    private final LongSupplier catalogueVersion;
+    private final Cache<String, byte[]> cache;
+    private final Cache<String, SearchMatches> matches;
+    private final long maxBytes;
+    private volatile long cachedVersion = -1;
+
+    private SearchResultCache() {
+        this(() -> Catalogue.getInstance().getSnapshot().getVersion());
+    }
+
+    SearchResultCache(LongSupplier catalogueVersion) {
+        this.catalogueVersion = catalogueVersion;
+        this.maxBytes = parse(EnvironmentVariables.SEARCH_CACHE_MAX_MB, DEFAULT_MAX_MB) * 1024 * 1024;
+        long ttl = parse(EnvironmentVariables.SEARCH_CACHE_TTL_SECONDS, DEFAULT_TTL_SECONDS);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, byte[] value) -> 2 * key.length() + value.length)
+                .expireAfterWrite(Duration.ofSeconds(ttl))
+                .build();
+        this.matches = Caffeine.newBuilder()
+                .maximumSize(MAX_MATCH_SETS)
+                .expireAfterWrite(Duration.ofSeconds(ttl))
+                .build();
+    }
+
+    public static synchronized SearchResultCache getInstance() {
+        if (instance == null) {
+            instance = new SearchResultCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Cache key of the request in the given encoding on the current catalogue version
+     */
+    public String key(Map<String, Object> parameters, User user, String encoding) {
+        long version = catalogueVersion.getAsLong();
+        if (version != cachedVersion) {
+            cache.invalidateAll();
+            cachedVersion = version;
+        }
+        return version + "|" + encoding + "|" + scope(parameters, user) + "|" + canonical(parameters);
+    }
+
+    /**
+     * Cached payload under the key, null on a miss
+     */
+    public byte[] getIfPresent(String key) {
+        long startTime = System.currentTimeMillis();
+        byte[] response = cache.getIfPresent(key);
+        if (response != null) {
+            LOGGER.info("[PERF] Search cache hit in {} ms", System.currentTimeMillis() - startTime);
+        }
+        return response;
+    }
+
+    /**
+     * Caches a payload written out for the key
+     */
+    public void put(String key, byte[] payload) {
+        cache.put(key, payload);
+    }
+
+    /**
+     * Size above which a payload would not fit in the cache, so it is not worth keeping a copy of it
+     */
+    public long getMaxPayloadBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Matches of the query on the given catalogue version, whatever page is requested
+     */
+    SearchMatches getMatches(long version, Map<String, Object> parameters, User user, Supplier<SearchMatches> loader) {
+        String key = version + "|" + scope(parameters, user) + "|" + canonical(query(parameters));
+        return matches.get(key, k -> loader.get());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        matches.invalidateAll();
+    }
+
+    /**
+     * Short hash of the query without its paging parameters, binds a cursor to the query it was issued for
+     */
+    public static String queryHash(Map<String, Object> parameters) {
+        return DigestUtils.sha256Hex(canonical(query(parameters))).substring(0, 16);
+    }
+
+    private static Map<String, Object> query(Map<String, Object> parameters) {
+        Map<String, Object> query = new TreeMap<>(parameters);
+        query.keySet().removeAll(PAGING_PARAMETERS);
+        return query;
+    }
+
+    /**
+     * Only backoffice requests on explicit versions see user dependent results
+     */
+    private static String scope(Map<String, Object> parameters, User user) {
+        if (user == null || !parameters.containsKey("versioningStatus")) {
+            return "public";
+        }
+        return user.getAuthIdentifier() + (Boolean.TRUE.equals(user.getIsAdmin()) ? ":admin" : "");
+    }
+
+    /**
+     * Sorted parameters, each name and value length-prefixed so that no value can collide with another key
+     */
+    private static String canonical(Map<String, Object> parameters) {
+        TreeMap<String, String> sorted = new TreeMap<>();
+        parameters.forEach((name, value) -> {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (SET_PARAMETERS.contains(name)) {
+                String[] values = text.split(",");
+                Arrays.sort(values);
+                text = String.join(",", values);
+            }
+            sorted.put(name, text);
+        });
+        StringBuilder canonical = new StringBuilder();
+        sorted.forEach((name, text) -> canonical.append(name.length()).append(':').append(name)
+                .append(text.length()).append(':').append(text));
+        return canonical.toString();
+    }
+
+    private static long parse(String value, long defaultValue) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid search cache setting '{}', using {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package org.epos.api.core.facilities;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
-import model.StatusType;
-import org.epos.api.routines.DatabaseConnections;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.utility.Utils;
 import org.epos.eposdatamodel.*;
 import org.epos.library.feature.Feature;
@@ -31,21 +28,23 @@ public class EquipmentsDetailsItemGenerationJPA {
 
 		LOGGER.info("Parameters {}", parameters);
 
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+
 		List<Facility> facilitySelectedList = null;
 		if(parameters.containsKey("facilityid")) {
-			facilitySelectedList = List.of((Facility)AbstractAPI.retrieveAPI(EntityNames.FACILITY.name()).retrieve(parameters.get("facilityid").toString()));
+			facilitySelectedList = List.of(snapshot.get(Facility.class, parameters.get("facilityid").toString()));
 		}else {
-			facilitySelectedList = (List<Facility>) AbstractAPI.retrieveAPI(EntityNames.FACILITY.name()).retrieveAll();
+			facilitySelectedList = new ArrayList<>(snapshot.getAll(Facility.class));
 		}
 
-		List<Category> categoriesFromDB = (List<Category>) AbstractAPI.retrieveAPI(EntityNames.CATEGORY.name()).retrieveAll();
+		List<Category> categoriesFromDB = new ArrayList<>(snapshot.getAll(Category.class));
 
 		List<Equipment> equipmentList = null;
 
 		if(parameters.containsKey("id") && !parameters.get("id").equals("all")) {
-			equipmentList = List.of( (org.epos.eposdatamodel.Equipment) AbstractAPI.retrieveAPI(EntityNames.EQUIPMENT.name()).retrieve(parameters.get("id").toString()));
+			equipmentList = List.of(snapshot.get(Equipment.class, parameters.get("id").toString()));
 		}else {
-			equipmentList = (List<Equipment>) AbstractAPI.retrieveAPI(EntityNames.EQUIPMENT.name()).retrieveAll();
+			equipmentList = new ArrayList<>(snapshot.getAll(Equipment.class));
 		}
 
 		if(parameters.containsKey("params")) {
@@ -88,12 +87,13 @@ public class EquipmentsDetailsItemGenerationJPA {
 		}
 
 		if(parameters.containsKey("format") && parameters.get("format").toString().equals("application/epos.geo+json"))
-			return generateAsGeoJson(facilitySelectedList.get(0),categoriesFromDB, returnList);
+			return generateAsGeoJson(facilitySelectedList.get(0),categoriesFromDB, returnList, snapshot);
 
 		return returnList;
 	}
 
-	public static FeaturesCollection generateAsGeoJson(Facility facilitySelected, List<Category> categoriesFromDB, List<Equipment> equipmentList) {
+	public static FeaturesCollection generateAsGeoJson(Facility facilitySelected, List<Category> categoriesFromDB, List<Equipment> equipmentList,
+			CatalogueSnapshot snapshot) {
 
 		FeaturesCollection geojson = new FeaturesCollection();
 
@@ -117,8 +117,7 @@ public class EquipmentsDetailsItemGenerationJPA {
 			feature.addSimpleProperty("Sample period", equipment.getSamplePeriod());
 			feature.addSimpleProperty("Serial number", equipment.getSerialNumber());
 			
-			for(LinkedEntity locLe : equipment.getSpatialExtent()) {
-				Location loc = (Location) LinkedEntityAPI.retrieveFromLinkedEntity(locLe);
+			for(Location loc : snapshot.getAll(Location.class, equipment.getSpatialExtent())) {
 				String location = loc.getLocation();
 				boolean isPoint = location.contains("POINT");
 				location = location.replaceAll("POLYGON", "").replaceAll("POINT", "").replaceAll("\\(", "").replaceAll("\\)", "");
@@ -2,6 +2,7 @@ package org.epos.api.core.facilities;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -18,6 +19,8 @@ import org.epos.api.beans.ServiceParameter;
 import org.epos.api.beans.SpatialInformation;
 import org.epos.api.core.DataServiceProviderGeneration;
 import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.core.distributions.DistributionDetailsGenerationJPA;
 import org.epos.api.enums.AvailableFormatType;
 import org.epos.api.facets.Facets;
@@ -38,8 +41,6 @@ import org.epos.library.objects.LinkObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
 import metadataapis.EntityNames;
 
 public class FacilityDetailsItemGenerationJPA {
@@ -54,17 +55,19 @@ public class FacilityDetailsItemGenerationJPA {
 
 		LOGGER.info("Parameters {}", parameters);
 
-		org.epos.eposdatamodel.Facility facilitySelected = (org.epos.eposdatamodel.Facility) AbstractAPI.retrieveAPI(EntityNames.FACILITY.name()).retrieve(parameters.get("id").toString());
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+
+		org.epos.eposdatamodel.Facility facilitySelected = snapshot.get(org.epos.eposdatamodel.Facility.class, parameters.get("id").toString());
 		// maybe the details is for a service from the data panel
 		if (facilitySelected == null) {
 			LOGGER.info("Given id is not of a facility, checking if it's a distribution");
 			return DistributionDetailsGenerationJPA.generate(parameters, Facets.Type.FACILITY);
 		}
-		List<Organization> organizationForOwners  = (List<Organization>) AbstractAPI.retrieveAPI(EntityNames.ORGANIZATION.name()).retrieveAll();
-		List<Category> categoriesFromDB = (List<Category>) AbstractAPI.retrieveAPI(EntityNames.CATEGORY.name()).retrieveAll();
+		Collection<Organization> organizationForOwners = snapshot.getAll(Organization.class);
+		Collection<Category> categoriesFromDB = snapshot.getAll(Category.class);
 
 		if(parameters.containsKey("format") && parameters.get("format").toString().equals("application/epos.geo+json"))
-			return generateAsGeoJson(facilitySelected, parameters.containsKey("equipmenttypes")? parameters.get("equipmenttypes").toString() : null);
+			return generateAsGeoJson(facilitySelected, parameters.containsKey("equipmenttypes")? parameters.get("equipmenttypes").toString() : null, snapshot);
 		else {
 			Facility facility = new Facility();
 
@@ -99,8 +102,7 @@ public class FacilityDetailsItemGenerationJPA {
 
 
 			if (facilitySelected.getSpatialExtent() != null) {
-				for (LinkedEntity s : facilitySelected.getSpatialExtent()) {
-					Location location = (Location) LinkedEntityAPI.retrieveFromLinkedEntity(s);
+				for (Location location : snapshot.getAll(Location.class, facilitySelected.getSpatialExtent())) {
 					facility.getSpatial().addPaths(SpatialInformation.doSpatial(location.getLocation()), SpatialInformation.checkPoint(location.getLocation()));
 				}
 			}
@@ -116,7 +118,7 @@ public class FacilityDetailsItemGenerationJPA {
 					}
 			});
 
-			facility.setDataProvider(DataServiceProviderGeneration.getProviders(new ArrayList<Organization>(organizationsEntityIds)));
+			facility.setDataProvider(DataServiceProviderGeneration.getProviders(new ArrayList<Organization>(organizationsEntityIds), snapshot));
 			if(facilitySelected.getPageURL()!=null) {
 				facilitySelected.getPageURL().forEach(page -> {
 					facility.getPage().add(page);
@@ -126,7 +128,7 @@ public class FacilityDetailsItemGenerationJPA {
 			Set<Category> equipmentTypes = new HashSet<>();
 
 			//Equipment types
-			((List<Equipment>) AbstractAPI.retrieveAPI(EntityNames.EQUIPMENT.name()).retrieveAll()).forEach(equipment -> {
+			snapshot.getAll(Equipment.class).forEach(equipment -> {
 				if(equipment.getIsPartOf()!=null)
 					for(LinkedEntity linkedEntity : equipment.getIsPartOf()){
 						if(linkedEntity.getEntityType().equals(EntityNames.FACILITY.name()) && linkedEntity.getInstanceId().equals(facilitySelected.getInstanceId())){
@@ -175,8 +177,7 @@ public class FacilityDetailsItemGenerationJPA {
 					}
 			});
 
-			List<String> categoryList = facilitySelected.getCategory().stream()
-					.map(linkedEntity -> (Category) LinkedEntityAPI.retrieveFromLinkedEntity(linkedEntity))
+			List<String> categoryList = snapshot.getAll(Category.class, facilitySelected.getCategory()).stream()
 					.map(Category::getUid)
 					.filter(uid -> uid.contains("category:"))
 					.collect(Collectors.toList());
@@ -206,9 +207,10 @@ public class FacilityDetailsItemGenerationJPA {
 		}
 	}
 
-	public static FeaturesCollection generateAsGeoJson(org.epos.eposdatamodel.Facility facilitySelected, String equipmenttypes) {
+	public static FeaturesCollection generateAsGeoJson(org.epos.eposdatamodel.Facility facilitySelected, String equipmenttypes,
+			CatalogueSnapshot snapshot) {
 
-		List<Category> categoriesFromDB = (List<Category>) AbstractAPI.retrieveAPI(EntityNames.CATEGORY.name()).retrieveAll();
+		Collection<Category> categoriesFromDB = snapshot.getAll(Category.class);
 
 		FeaturesCollection geojson = new FeaturesCollection();
 
@@ -222,8 +224,7 @@ public class FacilityDetailsItemGenerationJPA {
                         .filter(cat -> cat.getUid()!=null)
 				.filter(cat -> cat.getUid().equals(facilitySelected.getType())).map(Category::getName).collect(Collectors.toList())).get().toString());
 
-		for(LinkedEntity locLe : facilitySelected.getSpatialExtent()) {
-			Location loc = (Location) LinkedEntityAPI.retrieveFromLinkedEntity(locLe);
+		for(Location loc : snapshot.getAll(Location.class, facilitySelected.getSpatialExtent())) {
 			String location = loc.getLocation();
 			boolean isPoint = location.contains("POINT");
 			location = location.replaceAll("POLYGON", "").replaceAll("POINT", "").replaceAll("\\(", "").replaceAll("\\)", "");
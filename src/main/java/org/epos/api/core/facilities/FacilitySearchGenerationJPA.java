@@ -3,6 +3,7 @@ package org.epos.api.core.facilities;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +22,8 @@ import org.epos.api.beans.SearchResponse;
 import org.epos.api.core.AvailableFormatsGeneration;
 import org.epos.api.core.DataServiceProviderGeneration;
 import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.core.filtersearch.FacilityFilterSearch;
 import org.epos.api.enums.AvailableFormatType;
 import org.epos.api.facets.Facets;
@@ -36,8 +39,6 @@ import org.epos.eposdatamodel.Organization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
 import metadataapis.EntityNames;
 import model.StatusType;
 
@@ -58,14 +59,16 @@ public class FacilitySearchGenerationJPA {
 
 		long startTime = System.currentTimeMillis();
 
-		List<Facility> facilities = (List<Facility>) AbstractAPI.retrieveAPI(EntityNames.FACILITY.name()).retrieveAll();
-		List<Equipment> equipments = (List<Equipment>) AbstractAPI.retrieveAPI(EntityNames.EQUIPMENT.name()).retrieveAll();
-		List<Organization> organizationForOwners = (List<Organization>) AbstractAPI.retrieveAPI(EntityNames.ORGANIZATION.name()).retrieveAll();
-		List<Category> categoriesFromDB = (List<Category>) AbstractAPI.retrieveAPI(EntityNames.CATEGORY.name()).retrieveAll();
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+
+		List<Facility> facilities = new ArrayList<>(snapshot.getAll(Facility.class));
+		Collection<Equipment> equipments = snapshot.getAll(Equipment.class);
+		List<Organization> organizationForOwners = new ArrayList<>(snapshot.getAll(Organization.class));
+		List<Category> categoriesFromDB = new ArrayList<>(snapshot.getAll(Category.class));
 
 		LOGGER.info("Apply filter using input parameters: " + parameters.toString());
 		// TODO for facility
-		facilities = FacilityFilterSearch.doFilters(facilities, parameters, categoriesFromDB, organizationForOwners);
+		facilities = FacilityFilterSearch.doFilters(facilities, parameters, categoriesFromDB, organizationForOwners, snapshot);
 
 		Set<DiscoveryItem> discoveryMap = new HashSet<DiscoveryItem>();
 
@@ -75,7 +78,7 @@ public class FacilitySearchGenerationJPA {
 		Set<Category> facilityTypes = new HashSet<>();
 		Set<Category> equipmentTypes = new HashSet<>();
 
-		List<DataProduct> dataProducts = ((List<DataProduct>) AbstractAPI.retrieveAPI(EntityNames.DATAPRODUCT.name()).retrieveAll()).stream()
+		List<DataProduct> dataProducts = snapshot.getDataProducts().stream()
 				.filter(d -> d.getStatus().equals(StatusType.PUBLISHED))
 				.collect(Collectors.toList());
 
@@ -86,18 +89,15 @@ public class FacilitySearchGenerationJPA {
 			}
 			// for each category of this data product
 			for (var linkedEntity : dataProduct.getCategory()) {
-				Optional<Category> category = categoriesFromDB.stream()
-						.filter(categoryFromList -> categoryFromList.getInstanceId()
-								.equals(linkedEntity.getInstanceId()))
-						.findFirst();
-				if (category.isEmpty() || !Facets.getCategoryType(category.get()).equals(Facets.Type.FACILITY)) {
+				Optional<Category> category = Optional.ofNullable(snapshot.get(Category.class, linkedEntity));
+				if (category.isEmpty() || !Facets.getCategoryType(category.get(), snapshot).equals(Facets.Type.FACILITY)) {
 					continue;
 				}
 
 				// if it is a facility category
 				// get the distributions and add them to the discovery list
 				for (var le : dataProduct.getDistribution()) {
-					Distribution distribution = (Distribution) AbstractAPI.retrieveAPI(EntityNames.DISTRIBUTION.name()).retrieve(le.getInstanceId());
+					Distribution distribution = snapshot.get(Distribution.class, le);
 
 					if (Objects.isNull(distribution)) {
 						continue;
@@ -118,7 +118,7 @@ public class FacilitySearchGenerationJPA {
 							.description(distribution.getDescription() != null
 									? String.join(";", distribution.getDescription())
 									: null)
-							.availableFormats(AvailableFormatsGeneration.generate(distribution))
+							.availableFormats(AvailableFormatsGeneration.generate(distribution, snapshot))
 							// .dataProvider(facetsDataProviders)
 							// .serviceProvider(facetsServiceProviders)
 							.categories(Arrays.asList(category.get().getUid()))
@@ -131,8 +131,7 @@ public class FacilitySearchGenerationJPA {
 		for (Facility facility : facilities) {
 			Set<String> facetsFacilityProviders = new HashSet<>();
 
-			List<String> categoryList = facility.getCategory().stream()
-					.map(linkedEntity -> (Category) LinkedEntityAPI.retrieveFromLinkedEntity(linkedEntity))
+			List<String> categoryList = snapshot.getAll(Category.class, facility.getCategory()).stream()
 					.map(Category::getUid)
 					.filter(uid -> uid.contains("category:"))
 					.collect(Collectors.toList());
@@ -234,7 +233,7 @@ public class FacilitySearchGenerationJPA {
 
 		// TODO: right now the organizations are never added. See if this is needed
 		List<DataServiceProvider> collection = DataServiceProviderGeneration
-				.getProviders(new ArrayList<>());
+				.getProviders(new ArrayList<>(), snapshot);
 		NodeFilters organisationsNodes = new NodeFilters("organisations");
 		collection.forEach(resource -> {
 			NodeFilters node = new NodeFilters(resource.getDataProviderLegalName());
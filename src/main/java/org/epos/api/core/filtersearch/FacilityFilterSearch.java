@@ -4,12 +4,9 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
-import org.epos.api.beans.DataServiceProvider;
-import org.epos.api.core.DataServiceProviderGeneration;
 import org.epos.api.core.PreFetchedEntities;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
+import org.epos.api.core.catalogue.OrganisationIndex;
 import org.epos.api.utility.BBoxToPolygon;
 import org.epos.eposdatamodel.*;
 import org.locationtech.jts.geom.Geometry;
@@ -21,7 +18,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Optimized version of FacilityFilterSearch with:
- * - Pre-fetching of all linked entities (eliminates N+1 queries)
+ * - Linked entities served by the catalogue snapshot (no queries while filtering)
  * - Parallel processing for large datasets
  * - Reduced memory allocations
  * - Better code organization
@@ -39,14 +36,15 @@ public class FacilityFilterSearch {
     private static final String PARAMETER_EQUIPMENT_TYPES = "equipmenttypes";
 
     public static List<Facility> doFilters(List<Facility> facilityList, Map<String, Object> parameters,
-                                           List<Category> categories, List<Organization> organizationForOwners) {
+                                           List<Category> categories, List<Organization> organizationForOwners,
+                                           CatalogueSnapshot snapshot) {
 
-        // Pre-fetch all linked entities at once
-        PreFetchedEntities preFetched = preFetchLinkedEntities(facilityList);
+        // Linked entities are served by the catalogue snapshot
+        PreFetchedEntities preFetched = snapshot.toPreFetchedEntities();
 
         facilityList = filterFacilityByFullText(facilityList, parameters);
         facilityList = filterFacilityByKeywords(facilityList, parameters);
-        facilityList = filterFacilityByOrganizations(facilityList, parameters, organizationForOwners);
+        facilityList = filterFacilityByOrganizations(facilityList, parameters, organizationForOwners, snapshot);
         facilityList = filterFacilityByBoundingBox(facilityList, parameters, preFetched);
         facilityList = filterByFacilityType(facilityList, parameters, categories);
         facilityList = filterByEquipmentType(facilityList, parameters, categories);
@@ -54,34 +52,6 @@ public class FacilityFilterSearch {
         return facilityList;
     }
 
-    /**
-     * Pre-fetch all linked entities to eliminate N+1 query problem
-     */
-    private static PreFetchedEntities preFetchLinkedEntities(List<Facility> facilityList) {
-        PreFetchedEntities entities = new PreFetchedEntities();
-
-        Set<String> locationIds = ConcurrentHashMap.newKeySet();
-
-        facilityList.parallelStream()
-                .filter(f -> f.getSpatialExtent() != null)
-                .forEach(f -> f.getSpatialExtent().forEach(le -> locationIds.add(le.getInstanceId())));
-
-        if (!locationIds.isEmpty()) {
-            LOGGER.info("Pre-fetching: {} locations", locationIds.size());
-            List<Location> locations = (List<Location>) AbstractAPI
-                    .retrieveAPI(EntityNames.LOCATION.name())
-                    .retrieveBunch(new ArrayList<>(locationIds));
-
-            if (locations != null) {
-                entities.locations = locations.parallelStream()
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toConcurrentMap(Location::getInstanceId, l -> l, (a, b) -> a));
-            }
-        }
-
-        return entities;
-    }
-
     /**
      * Filter by facility type
      */
@@ -182,7 +152,8 @@ public class FacilityFilterSearch {
      */
     private static List<Facility> filterFacilityByOrganizations(List<Facility> facilityList,
                                                                 Map<String, Object> parameters,
-                                                                List<Organization> organizationForOwners) {
+                                                                List<Organization> organizationForOwners,
+                                                                CatalogueSnapshot snapshot) {
         if (!parameters.containsKey("organisations")) {
             return facilityList;
         }
@@ -191,20 +162,9 @@ public class FacilityFilterSearch {
                 Arrays.asList(parameters.get("organisations").toString().split(",")));
 
         // Build provider IDs for requested organizations
+        OrganisationIndex organisationIndex = snapshot.getOrganisationIndex();
         Set<String> validProviderIds = organizationForOwners.stream()
-                .map(org -> {
-                    List<DataServiceProvider> providers = DataServiceProviderGeneration.getProviders(List.of(org));
-                    return providers.stream().flatMap(p ->
-                            java.util.stream.Stream.concat(
-                                    java.util.stream.Stream.of(p.getInstanceid()),
-                                    java.util.stream.Stream.concat(
-                                            p.getRelatedDataProvider().stream().map(DataServiceProvider::getInstanceid),
-                                            p.getRelatedDataServiceProvider().stream().map(DataServiceProvider::getInstanceid)
-                                    )
-                            )
-                    );
-                })
-                .flatMap(s -> s)
+                .flatMap(org -> organisationIndex.getProviderIds(org.getInstanceId()).stream())
                 .filter(organisations::contains)
                 .collect(Collectors.toSet());
 
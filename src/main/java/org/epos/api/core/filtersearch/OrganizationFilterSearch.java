@@ -4,9 +4,9 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import abstractapis.AbstractAPI;
 import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
+import org.epos.api.core.EntityGraph;
+import org.epos.api.core.EntityGraphLoader;
 import org.epos.api.core.PreFetchedEntities;
 import org.epos.api.routines.DatabaseConnections;
 import org.epos.eposdatamodel.Address;
@@ -27,9 +27,18 @@ public class OrganizationFilterSearch {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OrganizationFilterSearch.class);
 
+    /**
+     * Links read by the filters
+     */
+    private static final EntityGraph ORGANISATION_GRAPH = EntityGraph.empty()
+            .follow(Organization.class, Identifier.class, Organization::getIdentifier)
+            .followOne(Organization.class, Address.class, Organization::getAddress);
+
     public static List<Organization> doFilters(List<Organization> organisationsList, Map<String, Object> parameters) {
         // Pre-fetch all linked entities at once
-        PreFetchedEntities preFetched = preFetchLinkedEntities(organisationsList);
+        PreFetchedEntities preFetched = new EntityGraphLoader()
+                .expand(ORGANISATION_GRAPH, Organization.class, organisationsList)
+                .toPreFetchedEntities();
 
         organisationsList = filterOrganisationsByFullText(organisationsList, parameters, preFetched);
         organisationsList = filterOrganisationsByCountry(organisationsList, parameters, preFetched);
@@ -37,55 +46,6 @@ public class OrganizationFilterSearch {
         return organisationsList;
     }
 
-    /**
-     * Pre-fetch all linked entities to eliminate N+1 query problem
-     */
-    private static PreFetchedEntities preFetchLinkedEntities(List<Organization> organisationsList) {
-        PreFetchedEntities entities = new PreFetchedEntities();
-
-        Set<String> identifierIds = ConcurrentHashMap.newKeySet();
-        Set<String> addressIds = ConcurrentHashMap.newKeySet();
-
-        organisationsList.parallelStream().forEach(org -> {
-            if (org.getIdentifier() != null) {
-                org.getIdentifier().forEach(le -> identifierIds.add(le.getInstanceId()));
-            }
-            if (org.getAddress() != null) {
-                addressIds.add(org.getAddress().getInstanceId());
-            }
-        });
-
-        // Batch fetch identifiers
-        if (!identifierIds.isEmpty()) {
-            LOGGER.info("Pre-fetching: {} identifiers", identifierIds.size());
-            List<Identifier> identifiers = (List<Identifier>) AbstractAPI
-                    .retrieveAPI(EntityNames.IDENTIFIER.name())
-                    .retrieveBunch(new ArrayList<>(identifierIds));
-
-            if (identifiers != null) {
-                entities.identifiers = identifiers.parallelStream()
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toConcurrentMap(Identifier::getInstanceId, i -> i, (a, b) -> a));
-            }
-        }
-
-        // Batch fetch addresses
-        if (!addressIds.isEmpty()) {
-            LOGGER.info("Pre-fetching: {} addresses", addressIds.size());
-            List<Address> addresses = (List<Address>) AbstractAPI
-                    .retrieveAPI(EntityNames.ADDRESS.name())
-                    .retrieveBunch(new ArrayList<>(addressIds));
-
-            if (addresses != null) {
-                entities.addresses = addresses.parallelStream()
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toConcurrentMap(Address::getInstanceId, a -> a, (a, b) -> a));
-            }
-        }
-
-        return entities;
-    }
-
     /**
      * Filter organizations by full text search - OPTIMIZED with pre-fetched data
      */
@@ -14,6 +14,8 @@ import org.epos.api.beans.AvailableFormat;
 import org.epos.api.beans.DiscoveryItem;
 import org.epos.api.beans.software.SoftwareApplicationResponse;
 import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.enums.AvailableFormatType;
 import org.epos.api.enums.ProviderType;
 import org.epos.api.facets.Facets;
@@ -22,7 +24,6 @@ import org.epos.eposdatamodel.Category;
 import org.epos.eposdatamodel.Identifier;
 import org.epos.eposdatamodel.SoftwareApplication;
 
-import commonapis.LinkedEntityAPI;
 import org.epos.eposdatamodel.SoftwareSourceCode;
 
 public class SoftwareApplicationGenerationJPA {
@@ -65,6 +66,8 @@ public class SoftwareApplicationGenerationJPA {
 		}
 		response.setId(softwareApplication.getInstanceId());
 
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+
 		// Identifiers
 		logger.info("SoftwareApplicationGenerationJPA.generate: softwareApplication.getIdentifier()={}",
 				softwareApplication.getIdentifier());
@@ -72,7 +75,7 @@ public class SoftwareApplicationGenerationJPA {
 		List<String> identifiers = new ArrayList<>();
 		if (softwareApplication.getIdentifier() != null) {
 			softwareApplication.getIdentifier().forEach(identifierLe -> {
-				Identifier identifier = (Identifier) LinkedEntityAPI.retrieveFromLinkedEntity(identifierLe);
+				Identifier identifier = snapshot.get(Identifier.class, identifierLe);
 				if (identifier != null) {
 					if (identifier.getType().equals("DOI")) {
 						doi.add(identifier.getIdentifier());
@@ -108,7 +111,7 @@ public class SoftwareApplicationGenerationJPA {
 				softwareApplication.getCategory());
 		if (softwareApplication.getCategory() != null) {
 			List<String> categoryList = softwareApplication.getCategory().stream()
-					.map(linkedEntity -> (Category) LinkedEntityAPI.retrieveFromLinkedEntity(linkedEntity))
+					.map(linkedEntity -> snapshot.get(Category.class, linkedEntity))
 					.filter(Objects::nonNull)
 					.map(Category::getUid)
 					.filter(uid -> uid.contains("category:"))
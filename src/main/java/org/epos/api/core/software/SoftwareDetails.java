@@ -4,35 +4,32 @@ import org.epos.api.beans.software.DistributionDetails;
 import org.epos.api.beans.software.SoftwareApplicationDetails;
 import org.epos.api.beans.software.SoftwareDetailsResponse;
 import org.epos.api.beans.software.SoftwareSourceCodeDetails;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.eposdatamodel.SoftwareApplication;
 import org.epos.eposdatamodel.SoftwareSourceCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import abstractapis.AbstractAPI;
-import metadataapis.EntityNames;
-
 public class SoftwareDetails {
 	private static final Logger LOGGER = LoggerFactory.getLogger(SoftwareDetails.class);
 
 	public static SoftwareDetailsResponse generate(String instanceID) {
 		LOGGER.info("Generating details for software with instanceID: {}", instanceID);
 
-		var distribution = (org.epos.eposdatamodel.Distribution) AbstractAPI
-				.retrieveAPI(EntityNames.DISTRIBUTION.name())
-				.retrieve(instanceID);
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+
+		var distribution = snapshot.get(org.epos.eposdatamodel.Distribution.class, instanceID);
 		if (distribution != null) {
 			return new DistributionDetails(distribution);
 		}
 
-		SoftwareSourceCode softwareSourceCode = (SoftwareSourceCode) AbstractAPI
-				.retrieveAPI(EntityNames.SOFTWARESOURCECODE.name()).retrieve(instanceID);
+		SoftwareSourceCode softwareSourceCode = snapshot.get(SoftwareSourceCode.class, instanceID);
 		if (softwareSourceCode != null) {
 			return new SoftwareSourceCodeDetails(softwareSourceCode);
 		}
 
-		SoftwareApplication softwareApplication = (SoftwareApplication) AbstractAPI
-				.retrieveAPI(EntityNames.SOFTWAREAPPLICATION.name()).retrieve(instanceID);
+		SoftwareApplication softwareApplication = snapshot.get(SoftwareApplication.class, instanceID);
 		if (softwareApplication != null) {
 			return new SoftwareApplicationDetails(softwareApplication);
 		}
@@ -3,6 +3,7 @@ package org.epos.api.core.software;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -20,6 +21,8 @@ import org.epos.api.beans.NodeFilters;
 import org.epos.api.beans.SearchResponse;
 import org.epos.api.core.AvailableFormatsGeneration;
 import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.enums.AvailableFormatType;
 import org.epos.api.facets.Facets;
 import org.epos.api.facets.FacetsGeneration;
@@ -33,9 +36,6 @@ import org.epos.eposdatamodel.SoftwareSourceCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
-import metadataapis.EntityNames;
 import model.StatusType;
 
 public class SoftwareSearch {
@@ -47,15 +47,16 @@ public class SoftwareSearch {
 		LOGGER.info("Generating discovery items with query {}", query);
 		long startTime = System.currentTimeMillis();
 
-		DataCollector dataCollector = new DataCollector();
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+		DataCollector dataCollector = new DataCollector(snapshot);
 		Set<DiscoveryItem> discoveryItems = new HashSet<>();
 		Set<String> keywords = new HashSet<>();
 
-		processDataProducts(query, dataCollector, discoveryItems);
+		processDataProducts(query, dataCollector, discoveryItems, snapshot);
 
-		processSoftwareSourceCodes(query, dataCollector.softwareSourceCodes, discoveryItems, keywords);
+		processSoftwareSourceCodes(query, dataCollector.softwareSourceCodes, discoveryItems, keywords, snapshot);
 
-		processSoftwareApplications(query, dataCollector.softwareApplications, discoveryItems, keywords);
+		processSoftwareApplications(query, dataCollector.softwareApplications, discoveryItems, keywords, snapshot);
 
 		SearchResponse response = buildSearchResponse(discoveryItems, keywords);
 
@@ -67,7 +68,8 @@ public class SoftwareSearch {
 	private static void processDataProducts(
 			String query,
 			DataCollector dataCollector,
-			Set<DiscoveryItem> discoveryItems) {
+			Set<DiscoveryItem> discoveryItems,
+			CatalogueSnapshot snapshot) {
 		for (DataProduct dataProduct : dataCollector.dataProducts) {
 			if (dataProduct == null
 					|| dataProduct.getTitle().isEmpty()
@@ -83,23 +85,22 @@ public class SoftwareSearch {
 			}
 
 			for (var linkedEntity : dataProduct.getCategory()) {
-				Optional<Category> category = findSoftwareCategory(
-						linkedEntity.getInstanceId(),
-						dataCollector.categories);
+				Optional<Category> category = findSoftwareCategory(linkedEntity, snapshot);
 				if (category.isEmpty()) {
 					continue;
 				}
 
-				addDistributionsToDiscovery(dataProduct, category.get(), discoveryItems);
+				addDistributionsToDiscovery(dataProduct, category.get(), discoveryItems, snapshot);
 			}
 		}
 	}
 
 	private static void processSoftwareSourceCodes(
 			String query,
-			List<SoftwareSourceCode> softwareSourceCodes,
+			Collection<SoftwareSourceCode> softwareSourceCodes,
 			Set<DiscoveryItem> discoveryItems,
-			Set<String> keywords) {
+			Set<String> keywords,
+			CatalogueSnapshot snapshot) {
 		for (SoftwareSourceCode software : softwareSourceCodes) {
 			if (!matchesQuery(query, software.getName(), software.getDescription())) {
 				continue;
@@ -109,7 +110,7 @@ public class SoftwareSearch {
 				LOGGER.warn("software source code {} doesn't have a category set", software.getUid());
 				continue;
 			}
-			List<String> categoryList = extractCategoryUids(software.getCategory());
+			List<String> categoryList = extractCategoryUids(software.getCategory(), snapshot);
 			List<AvailableFormat> formats = createFormatsForSourceCode(software);
 
 			DiscoveryItem discoveryItem = createSoftwareDiscoveryItem(
@@ -127,9 +128,10 @@ public class SoftwareSearch {
 
 	private static void processSoftwareApplications(
 			String query,
-			List<SoftwareApplication> softwareApplications,
+			Collection<SoftwareApplication> softwareApplications,
 			Set<DiscoveryItem> discoveryItems,
-			Set<String> keywords) {
+			Set<String> keywords,
+			CatalogueSnapshot snapshot) {
 		for (SoftwareApplication software : softwareApplications) {
 			if (!matchesQuery(query, software.getName(), software.getDescription())) {
 				continue;
@@ -139,7 +141,7 @@ public class SoftwareSearch {
 				LOGGER.warn("software application {} doesn't have a category set", software.getUid());
 				continue;
 			}
-			List<String> categoryList = extractCategoryUids(software.getCategory());
+			List<String> categoryList = extractCategoryUids(software.getCategory(), snapshot);
 			List<AvailableFormat> formats = createFormatsForApplication(software);
 
 			DiscoveryItem discoveryItem = createSoftwareDiscoveryItem(
@@ -159,18 +161,15 @@ public class SoftwareSearch {
 		return dataProduct.getCategory() != null && !dataProduct.getCategory().isEmpty();
 	}
 
-	private static Optional<Category> findSoftwareCategory(String instanceId, List<Category> categories) {
-		return categories.stream()
-				.filter(category -> category.getInstanceId().equals(instanceId))
-				.filter(category -> Facets.getCategoryType(category).equals(Facets.Type.SOFTWARE))
-				.findFirst();
+	private static Optional<Category> findSoftwareCategory(LinkedEntity linkedEntity, CatalogueSnapshot snapshot) {
+		return Optional.ofNullable(snapshot.get(Category.class, linkedEntity))
+				.filter(category -> Facets.getCategoryType(category, snapshot).equals(Facets.Type.SOFTWARE));
 	}
 
 	private static void addDistributionsToDiscovery(DataProduct dataProduct, Category category,
-			Set<DiscoveryItem> discoveryItems) {
+			Set<DiscoveryItem> discoveryItems, CatalogueSnapshot snapshot) {
 		for (var distributionEntity : dataProduct.getDistribution()) {
-			Distribution distribution = (Distribution) AbstractAPI.retrieveAPI(EntityNames.DISTRIBUTION.name())
-					.retrieve(distributionEntity.getInstanceId());
+			Distribution distribution = snapshot.get(Distribution.class, distributionEntity);
 
 			if (Objects.isNull(distribution)) {
 				continue;
@@ -186,7 +185,7 @@ public class SoftwareSearch {
 					.description(distribution.getDescription() != null
 							? String.join(";", distribution.getDescription())
 							: null)
-					.availableFormats(AvailableFormatsGeneration.generate(distribution))
+					.availableFormats(AvailableFormatsGeneration.generate(distribution, snapshot))
 					.categories(Arrays.asList(category.getUid()))
 					.build();
 
@@ -194,9 +193,8 @@ public class SoftwareSearch {
 		}
 	}
 
-	private static List<String> extractCategoryUids(List<LinkedEntity> categoryEntities) {
-		return categoryEntities.stream()
-				.map(linkedEntity -> (Category) LinkedEntityAPI.retrieveFromLinkedEntity(linkedEntity))
+	private static List<String> extractCategoryUids(List<LinkedEntity> categoryEntities, CatalogueSnapshot snapshot) {
+		return snapshot.getAll(Category.class, categoryEntities).stream()
 				.map(Category::getUid)
 				.filter(uid -> uid.contains("category:"))
 				.collect(Collectors.toList());
@@ -306,25 +304,17 @@ public class SoftwareSearch {
 
 	private static class DataCollector {
 		final List<DataProduct> dataProducts;
-		final List<Category> categories;
-		final List<SoftwareApplication> softwareApplications;
-		final List<SoftwareSourceCode> softwareSourceCodes;
-
-		@SuppressWarnings("unchecked")
-		DataCollector() {
-			this.dataProducts = ((List<DataProduct>) AbstractAPI.retrieveAPI(EntityNames.DATAPRODUCT.name())
-					.retrieveAll()).stream()
+		final Collection<SoftwareApplication> softwareApplications;
+		final Collection<SoftwareSourceCode> softwareSourceCodes;
+
+		DataCollector(CatalogueSnapshot snapshot) {
+			this.dataProducts = snapshot.getDataProducts().stream()
 					.filter(d -> d.getStatus().equals(StatusType.PUBLISHED))
 					.collect(Collectors.toList());
 
-			this.categories = (List<Category>) AbstractAPI.retrieveAPI(EntityNames.CATEGORY.name())
-					.retrieveAll();
-
-			this.softwareApplications = (List<SoftwareApplication>) AbstractAPI
-					.retrieveAPI(EntityNames.SOFTWAREAPPLICATION.name()).retrieveAll();
+			this.softwareApplications = snapshot.getAll(SoftwareApplication.class);
 
-			this.softwareSourceCodes = (List<SoftwareSourceCode>) AbstractAPI
-					.retrieveAPI(EntityNames.SOFTWARESOURCECODE.name()).retrieveAll();
+			this.softwareSourceCodes = snapshot.getAll(SoftwareSourceCode.class);
 		}
 	}
 }
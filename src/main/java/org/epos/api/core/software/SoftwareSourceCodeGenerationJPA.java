@@ -14,6 +14,8 @@ import org.epos.api.beans.AvailableFormat;
 import org.epos.api.beans.DiscoveryItem;
 import org.epos.api.beans.software.SoftwareSourceCodeResponse;
 import org.epos.api.core.EnvironmentVariables;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
 import org.epos.api.enums.AvailableFormatType;
 import org.epos.api.enums.ProviderType;
 import org.epos.api.facets.Facets;
@@ -23,7 +25,6 @@ import org.epos.eposdatamodel.Identifier;
 import org.epos.eposdatamodel.SoftwareApplication;
 import org.epos.eposdatamodel.SoftwareSourceCode;
 
-import commonapis.LinkedEntityAPI;
 
 public class SoftwareSourceCodeGenerationJPA {
 
@@ -62,6 +63,8 @@ public class SoftwareSourceCodeGenerationJPA {
 		response.setTimeRequired(softwareSourceCode.getTimeRequired());
 		response.setId(softwareSourceCode.getInstanceId());
 
+		CatalogueSnapshot snapshot = Catalogue.getInstance().getSnapshot();
+
 		// Identifiers
 		logger.info("SoftwareSourceCodeGenerationJPA.generate: softwareSourceCode.getIdentifier()={}",
 				softwareSourceCode.getIdentifier());
@@ -69,7 +72,7 @@ public class SoftwareSourceCodeGenerationJPA {
 		List<String> identifiers = new ArrayList<>();
 		if (softwareSourceCode.getIdentifier() != null) {
 			softwareSourceCode.getIdentifier().forEach(identifierLe -> {
-				Identifier identifier = (Identifier) LinkedEntityAPI.retrieveFromLinkedEntity(identifierLe);
+				Identifier identifier = snapshot.get(Identifier.class, identifierLe);
 				if (identifier != null) {
 					if (identifier.getType().equals("DOI")) {
 						doi.add(identifier.getIdentifier());
@@ -105,7 +108,7 @@ public class SoftwareSourceCodeGenerationJPA {
 				softwareSourceCode.getCategory());
 		if (softwareSourceCode.getCategory() != null) {
 			List<String> categoryList = softwareSourceCode.getCategory().stream()
-					.map(linkedEntity -> (Category) LinkedEntityAPI.retrieveFromLinkedEntity(linkedEntity))
+					.map(linkedEntity -> snapshot.get(Category.class, linkedEntity))
 					.filter(Objects::nonNull)
 					.map(Category::getUid)
 					.filter(uid -> uid.contains("category:"))
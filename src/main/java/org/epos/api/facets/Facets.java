@@ -1,10 +1,19 @@
 package org.epos.api.facets;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.catalogue.CatalogueSnapshot;
+import org.epos.api.utility.Utils;
 import org.epos.eposdatamodel.Category;
 import org.epos.eposdatamodel.CategoryScheme;
 import org.epos.eposdatamodel.LinkedEntity;
@@ -15,7 +24,6 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import abstractapis.AbstractAPI;
-import commonapis.LinkedEntityAPI;
 import metadataapis.EntityNames;
 
 public class Facets {
@@ -26,6 +34,8 @@ public class Facets {
 	private JsonObject facetsFromDatabaseData;
 	private JsonObject facetsFromDatabaseSoftware;
 	private JsonObject facetsFromDatabaseFacilities;
+	private final Map<Type, FacetsTemplate> templates = new ConcurrentHashMap<>();
+	private String facetsHash;
 
 	private Facets() {
 	}
@@ -39,22 +49,52 @@ public class Facets {
 	}
 
 	public JsonObject generateFacetsFromDatabase(Type type) throws IOException {
-		JsonArray domainsFacets = new JsonArray();
-		JsonObject facetsObject = new JsonObject();
+		return generateFacetsFromDatabase().get(type);
+	}
 
+	/**
+	 * Trees of all the facet types, built from one read of the schemes and categories
+	 */
+	public Map<Type, JsonObject> generateFacetsFromDatabase() throws IOException {
 		List<CategoryScheme> schemes = (List<CategoryScheme>) AbstractAPI.retrieveAPI(EntityNames.CATEGORYSCHEME.name())
 				.retrieveAll();
 		List<Category> categories = (List<Category>) AbstractAPI.retrieveAPI(EntityNames.CATEGORY.name()).retrieveAll();
 
-		List<CategoryScheme> categorySchemesList = schemes.stream()
-				.filter(e -> e.getUid().contains("category:"))
-				.filter(e -> getCategorySchemeType(e).equals(type))
-				.collect(Collectors.toList());
-		List<Category> categoriesList = categories.stream()
-				.filter(e -> Objects.nonNull(e.getUid()) && e.getUid().contains("category:"))
-				.collect(Collectors.toList());
+		Map<String, Category> categoriesById = new HashMap<>();
+		Map<String, List<Category>> topCategoriesByScheme = new HashMap<>();
+		Map<String, Map<String, List<Category>>> narrowerByScheme = new HashMap<>();
+		for (Category category : categories) {
+			if (category.getInstanceId() != null) {
+				categoriesById.putIfAbsent(category.getInstanceId(), category);
+			}
+			if (category.getUid() == null || !category.getUid().contains("category:") || category.getInScheme() == null) {
+				continue;
+			}
+			String scheme = category.getInScheme().getInstanceId();
+			if (category.getBroader() == null) {
+				continue;
+			}
+			if (category.getBroader().isEmpty()) {
+				topCategoriesByScheme.computeIfAbsent(scheme, k -> new ArrayList<>()).add(category);
+			} else {
+				Map<String, List<Category>> narrower = narrowerByScheme.computeIfAbsent(scheme, k -> new HashMap<>());
+				for (LinkedEntity broader : category.getBroader()) {
+					narrower.computeIfAbsent(broader.getInstanceId(), k -> new ArrayList<>()).add(category);
+				}
+			}
+		}
+
+		Map<Type, JsonArray> domainsFacets = new EnumMap<>(Type.class);
+		for (Type type : Type.values()) {
+			domainsFacets.put(type, new JsonArray());
+		}
+		for (CategoryScheme scheme : schemes) {
+			if (scheme.getUid() == null || !scheme.getUid().contains("category:")) {
+				continue;
+			}
+			Type type = getCategorySchemeType(scheme, topConceptEntity -> categoriesById.get(topConceptEntity.getInstanceId()));
+			Map<String, List<Category>> narrower = narrowerByScheme.getOrDefault(scheme.getInstanceId(), Map.of());
 
-		for (CategoryScheme scheme : categorySchemesList) {
 			JsonObject facetDomain = new JsonObject();
 			facetDomain.addProperty("name", scheme.getTitle());
 			facetDomain.addProperty("code", scheme.getCode());
@@ -62,67 +102,53 @@ public class Facets {
 			facetDomain.addProperty("id", scheme.getOrderitemnumber());
 			facetDomain.addProperty("imgUrl", scheme.getLogo());
 			facetDomain.addProperty("color", scheme.getColor());
-			facetDomain.add("children", recursiveChildren(categoriesList, scheme.getInstanceId(), null));
-			domainsFacets.add(facetDomain);
+			facetDomain.add("children", children(topCategoriesByScheme.getOrDefault(scheme.getInstanceId(), List.of()), narrower));
+			domainsFacets.get(type).add(facetDomain);
 		}
 
-		facetsObject.addProperty("name", "domains");
-		facetsObject.add("children", domainsFacets);
-
-		return facetsObject;
-
+		Map<Type, JsonObject> facetsObjects = new EnumMap<>(Type.class);
+		domainsFacets.forEach((type, domains) -> {
+			JsonObject facetsObject = new JsonObject();
+			facetsObject.addProperty("name", "domains");
+			facetsObject.add("children", domains);
+			facetsObjects.put(type, facetsObject);
+		});
+		return facetsObjects;
 	}
 
-	private JsonArray recursiveChildren(List<Category> categoriesList, String domain, String father) {
-		List<Category> tempCategoryList = categoriesList.stream()
-				.filter(category -> category.getInScheme() != null)
-				.filter(category -> category.getInScheme().getInstanceId().equals(domain))
-				.collect(Collectors.toList());
+	private JsonArray children(List<Category> categoriesList, Map<String, List<Category>> narrower) {
 		JsonArray children = new JsonArray();
-
-		// If father is null, then is a top-level category
-		if (father == null) {
-			// Loop over the categories in the domain (inScheme) and take the categories
-			// with empty broaders
-			for (Category cat : tempCategoryList.stream()
-					.filter(category -> category.getBroader() != null && category.getBroader().isEmpty())
-					.collect(Collectors.toList())) {
-				JsonObject facetsObject = new JsonObject();
-				facetsObject.addProperty("name", cat.getName());
-				facetsObject.addProperty("ddss", cat.getUid());
-				// check if there are sons, in that case go ahead
-				if (!cat.getNarrower().isEmpty()) {
-					JsonArray childrenList = recursiveChildren(tempCategoryList, domain, cat.getInstanceId());
-					if (!(childrenList.isEmpty()))
-						facetsObject.add("children", childrenList);
-				}
-				children.add(facetsObject);
-			}
-		} else {
-			// Loop over the categories in the domain (inScheme) and take the categories
-			// with a populated broaders
-			for (Category cat : tempCategoryList.stream().filter(category -> !category.getBroader().isEmpty())
-					.collect(Collectors.toList())) {
-				// check if the broader is equal to the father
-				for (LinkedEntity linkedEntity : cat.getBroader()) {
-					if (linkedEntity.getInstanceId().equals(father)) {
-						JsonObject facetsObject = new JsonObject();
-						facetsObject.addProperty("name", cat.getName());
-						facetsObject.addProperty("ddss", cat.getUid());
-						// check if there are sons, in that case go ahead
-						if (!cat.getNarrower().isEmpty()) {
-							JsonArray childrenList = recursiveChildren(tempCategoryList, domain, cat.getInstanceId());
-							if (!(childrenList.isEmpty()))
-								facetsObject.add("children", childrenList);
-						}
-						children.add(facetsObject);
-					}
-				}
+		for (Category cat : categoriesList) {
+			JsonObject facetsObject = new JsonObject();
+			facetsObject.addProperty("name", cat.getName());
+			facetsObject.addProperty("ddss", cat.getUid());
+			// check if there are sons, in that case go ahead
+			if (cat.getNarrower() != null && !cat.getNarrower().isEmpty()) {
+				JsonArray childrenList = children(narrower.getOrDefault(cat.getInstanceId(), List.of()), narrower);
+				if (!(childrenList.isEmpty()))
+					facetsObject.add("children", childrenList);
 			}
+			children.add(facetsObject);
 		}
 		return children;
 	}
 
+	/**
+	 * Rebuilds the trees of all the facet types and publishes them unless their content is unchanged
+	 *
+	 * @return true if the trees were published
+	 */
+	public synchronized boolean updateFacetsFromDatabase() throws IOException {
+		Map<Type, JsonObject> facetsObjects = generateFacetsFromDatabase();
+		String hash = DigestUtils.sha256Hex(Utils.gson.toJson(facetsObjects));
+		if (hash.equals(facetsHash)) {
+			return false;
+		}
+		facetsObjects.forEach((type, facetsObject) -> setFacetsFromDatabase(facetsObject, type));
+		facetsHash = hash;
+		return true;
+	}
+
 	public JsonObject getFacetsStatic() {
 		return facetsStatic;
 	}
@@ -159,9 +185,22 @@ public class Facets {
 				this.facetsFromDatabaseData = facetsFromDatabase;
 				break;
 		}
+		FacetsTemplate template = FacetsTemplate.compile(facetsFromDatabase);
+		if (template != null) {
+			templates.put(type, template);
+		} else {
+			templates.remove(type);
+		}
+	}
+
+	/**
+	 * Taxonomy of the type compiled when it was last set, null if there is none
+	 */
+	public FacetsTemplate getFacetsTemplate(Type type) {
+		return templates.get(type);
 	}
 
-	private static Type getCategorySchemeType(CategoryScheme scheme) {
+	private static Type getCategorySchemeType(CategoryScheme scheme, Function<LinkedEntity, Category> categoryResolver) {
 		var topConcepts = scheme.getTopConcepts();
 		if (topConcepts == null || topConcepts.isEmpty()) {
 			LOGGER.warn("scheme has no topConcepts, defaulting to DATA. Scheme UID: " + scheme.getUid());
@@ -169,7 +208,7 @@ public class Facets {
 		}
 
 		for (LinkedEntity topConceptEntity : topConcepts) {
-			Category topConcept = (Category) LinkedEntityAPI.retrieveFromLinkedEntity(topConceptEntity);
+			Category topConcept = categoryResolver.apply(topConceptEntity);
 			if (topConcept == null) {
 				continue;
 			}
@@ -192,12 +231,20 @@ public class Facets {
 	}
 
 	public static Type getCategoryType(Category category) {
+		return getCategoryType(category, Catalogue.getInstance().getSnapshot());
+	}
+
+	public static Type getCategoryType(Category category, CatalogueSnapshot snapshot) {
 		if (category.getInScheme() == null) {
 			LOGGER.warn("category has no scheme, defaulting to DATA for type. Category: {}", category.toString());
 			return Type.DATA;
 		}
-		var scheme = (CategoryScheme) LinkedEntityAPI.retrieveFromLinkedEntity(category.getInScheme());
-		return getCategorySchemeType(scheme);
+		var scheme = snapshot.get(CategoryScheme.class, category.getInScheme());
+		if (scheme == null) {
+			LOGGER.warn("category scheme not found, defaulting to DATA for type. Category: {}", category.toString());
+			return Type.DATA;
+		}
+		return getCategorySchemeType(scheme, topConceptEntity -> snapshot.get(Category.class, topConceptEntity));
 	}
 
 	public enum Type {
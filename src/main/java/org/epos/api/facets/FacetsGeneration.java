@@ -2,9 +2,13 @@ package org.epos.api.facets;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.OptionalInt;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.epos.api.beans.DiscoveryItem;
 
@@ -15,71 +19,95 @@ public class FacetsGeneration {
 		return fnt.getFacets();
 	}
 
+	/**
+	 * Taxonomy of the type restricted to the categories of the items, overlaid on the compiled template
+	 */
 	public static FacetsNodeTree generateResponseUsingCategories(Collection<DiscoveryItem> discoveryList,
 			Facets.Type type) {
-		FacetsNodeTree fnt = new FacetsNodeTree(true, type);
-		for (Node node : fnt.getNodes()) {
-			List<DiscoveryItem> distributionsItem = new ArrayList<>();
-			for (DiscoveryItem dp : discoveryList) {
-				if (dp.getCategories() != null) {
-					if (node.getDdss() != null && dp.getCategories().contains(node.getDdss())) {
-						if (distributionsItem.stream().noneMatch(p -> p.getId().equals(dp.getId()))) {
-							distributionsItem.add(dp);
-						}
-					}
-				}
+		FacetsTemplate template = Facets.getInstance().getFacetsTemplate(type);
+		if (template == null) {
+			return new FacetsNodeTree((Node) null);
+		}
+		return new FacetsNodeTree(template.overlay(indexByCategory(discoveryList)));
+	}
+
+	/**
+	 * Items of each category in one pass over the results, in result order and without repeating an id within a category
+	 */
+	private static Map<String, List<DiscoveryItem>> indexByCategory(Collection<DiscoveryItem> discoveryList) {
+		Map<String, List<DiscoveryItem>> itemsByCategory = new HashMap<>();
+		Map<String, Set<String>> idsByCategory = new HashMap<>();
+		for (DiscoveryItem dp : discoveryList) {
+			if (dp.getCategories() == null) {
+				continue;
 			}
-			if (!distributionsItem.isEmpty()) {
-				node.setDistributions(new ArrayList<>());
-				node.getDistributions().addAll(distributionsItem);
+			for (String category : dp.getCategories()) {
+				if (idsByCategory.computeIfAbsent(category, k -> new HashSet<>()).add(dp.getId())) {
+					itemsByCategory.computeIfAbsent(category, k -> new ArrayList<>()).add(dp);
+				}
 			}
 		}
-		fnt.removeEmptyLeaves(fnt.getFacets());
-		return fnt;
+		return itemsByCategory;
 	}
 
 	public static FacetsNodeTree generateResponseUsingDataproviders(Collection<DiscoveryItem> discoveryList) {
-		FacetsNodeTree facets = new FacetsNodeTree();
-		discoveryList.forEach(discoveryItem -> {
-			if (discoveryItem.getDataprovider().isEmpty())
-				addToFacets(facets, "Undefined", discoveryItem);
-			else {
-				for (String org : discoveryItem.getDataprovider()) {
-					addToFacets(facets, org, discoveryItem);
-				}
-			}
-		});
-		return facets;
+		return generateResponseUsingProviders("dataproviders", discoveryList, DiscoveryItem::getDataprovider);
 	}
 
 	public static FacetsNodeTree generateResponseUsingServiceproviders(Collection<DiscoveryItem> discoveryList) {
+		return generateResponseUsingProviders("serviceproviders", discoveryList, DiscoveryItem::getServiceprovider);
+	}
 
-		FacetsNodeTree facets = new FacetsNodeTree();
-
-		discoveryList.forEach(discoveryItem -> {
-			if (discoveryItem.getServiceprovider().isEmpty())
-				addToFacets(facets, "Undefined", discoveryItem);
-			else {
-				for (String org : discoveryItem.getServiceprovider()) {
-					addToFacets(facets, org, discoveryItem);
+	/**
+	 * One node per provider name under a root node, found by hash and kept in order of first appearance
+	 */
+	private static FacetsNodeTree generateResponseUsingProviders(String rootName, Collection<DiscoveryItem> discoveryList,
+			Function<DiscoveryItem, Set<String>> providers) {
+		Map<String, Node> nodesByName = new LinkedHashMap<>();
+		for (DiscoveryItem discoveryItem : discoveryList) {
+			Set<String> names = providers.apply(discoveryItem);
+			if (names == null || names.isEmpty()) {
+				nodesByName.computeIfAbsent("Undefined", Node::new).addDistribution(discoveryItem);
+			} else {
+				for (String org : names) {
+					nodesByName.computeIfAbsent(org, Node::new).addDistribution(discoveryItem);
 				}
 			}
-		});
-		return facets;
+		}
+		Node root = new Node(rootName);
+		nodesByName.values().forEach(root::addChild);
+		return new FacetsNodeTree(root);
 	}
 
-	public static void addToFacets(FacetsNodeTree facets, String name, DiscoveryItem item) {
-
-		OptionalInt indexOpt = IntStream.range(0, facets.getNodes().size())
-				.filter(i -> name.equals(facets.getNodes().get(i).getName()))
-				.findFirst();
+	/**
+	 * Replaces the items under every node of the tree by their count, the number of distinct items in
+	 * the subtree, and optionally by the ids of the node's own items. The items are listed once, on the root.
+	 */
+	public static Node toCounts(Node root, Collection<DiscoveryItem> discoveryList, boolean withIds) {
+		countSubtree(root, withIds);
+		root.setDistributions(discoveryList);
+		return root;
+	}
 
-		if (indexOpt.isPresent()) {
-			facets.getNodes().get(indexOpt.getAsInt()).addDistribution(item);
-		} else {
-			Node node = new Node(name);
-			node.addDistribution(item);
-			facets.getNodes().add(node);
+	private static Set<String> countSubtree(Node node, boolean withIds) {
+		Set<String> ids = new HashSet<>();
+		if (node.getDistributions() != null) {
+			List<String> ownIds = new ArrayList<>(node.getDistributions().size());
+			for (DiscoveryItem item : node.getDistributions()) {
+				ownIds.add(item.getId());
+			}
+			ids.addAll(ownIds);
+			if (withIds) {
+				node.setDistributionIds(ownIds);
+			}
+			node.setDistributions(null);
+		}
+		if (node.getChildren() != null) {
+			for (Node child : node.getChildren()) {
+				ids.addAll(countSubtree(child, withIds));
+			}
 		}
+		node.setCount(ids.size());
+		return ids;
 	}
 }
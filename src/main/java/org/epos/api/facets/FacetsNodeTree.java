@@ -16,10 +16,16 @@ public class FacetsNodeTree {
 		this.nodes = new ArrayList<Node>();
 	}
 
+	public FacetsNodeTree(Node facets) {
+		this.facets = facets;
+		this.nodes = returnAllNodes(facets);
+	}
+
 	public FacetsNodeTree(Boolean fromDatabase, Facets.Type type) {
 		try {
 			if(fromDatabase) {
-				this.facets = Utils.gson.fromJson(Facets.getInstance().getFacetsFromDatabase(type), Node.class);
+				FacetsTemplate template = Facets.getInstance().getFacetsTemplate(type);
+				this.facets = template != null ? template.toNode() : null;
 				nodes = returnAllNodes(facets);
 			}else {
 				this.facets = Utils.gson.fromJson(Facets.getInstance().getFacetsStatic(), Node.class);
@@ -36,6 +42,7 @@ public class FacetsNodeTree {
 
 	public void setFacets(Node facets) {
 		this.facets = facets;
+		this.nodes = returnAllNodes(facets);
 	}
 
 	public static List<Node> returnAllNodes(Node node){
@@ -57,7 +64,6 @@ public class FacetsNodeTree {
 	}
 
 	public List<Node> getNodes() {
-		nodes = returnAllNodes(facets);
 		return nodes;
 	}
 
@@ -65,19 +71,12 @@ public class FacetsNodeTree {
 		this.nodes = nodes;
 	}
 
+	/**
+	 * Prunes the subtrees without distributions in one visit of each node
+	 */
 	public Node removeEmptyLeaves(Node root) {
 		if (root.getChildren() != null) {
-			for (int i = 0; i < root.getChildren().size(); i++) {
-				Node child = removeEmptyLeaves(root.getChildren().get(i));
-				if (child == null) {
-					root.getChildren().remove(i);
-					i--;
-				} else if (child.getChildren() == null && root.getDistributions() == null
-						&& child.getDistributions().isEmpty()) {
-					root.getChildren().remove(i);
-					i--;
-				}
-			}
+			root.getChildren().removeIf(child -> removeEmptyLeaves(child) == null);
 		}
 
 		if ((root.getChildren() == null || root.getChildren().isEmpty())
@@ -86,4 +85,4 @@ public class FacetsNodeTree {
 
 		return root;
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package org.epos.api.facets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.utility.Utils;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Facet taxonomy compiled once from its JSON form into an immutable tree, with the nodes indexed by
+ * ddss. A request overlays its items on the template and only the branches leading to assigned
+ * nodes are materialised as {@link Node}s.
+ */
+public final class FacetsTemplate {
+
+	private final TemplateNode root;
+	private final TemplateNode[] nodes;
+	private final Map<String, List<TemplateNode>> nodesByDdss;
+
+	private FacetsTemplate(TemplateNode root, TemplateNode[] nodes, Map<String, List<TemplateNode>> nodesByDdss) {
+		this.root = root;
+		this.nodes = nodes;
+		this.nodesByDdss = nodesByDdss;
+	}
+
+	/**
+	 * Compiled taxonomy, null if there is none
+	 */
+	public static FacetsTemplate compile(JsonObject facets) {
+		Node parsed = facets != null ? Utils.gson.fromJson(facets, Node.class) : null;
+		if (parsed == null) {
+			return null;
+		}
+		List<TemplateNode> nodes = new ArrayList<>();
+		TemplateNode root = compile(parsed, null, nodes);
+		Map<String, List<TemplateNode>> nodesByDdss = new HashMap<>();
+		for (TemplateNode node : nodes) {
+			if (node.ddss != null) {
+				nodesByDdss.computeIfAbsent(node.ddss, k -> new ArrayList<>()).add(node);
+			}
+		}
+		return new FacetsTemplate(root, nodes.toArray(new TemplateNode[0]), nodesByDdss);
+	}
+
+	private static TemplateNode compile(Node node, TemplateNode parent, List<TemplateNode> nodes) {
+		TemplateNode compiled = new TemplateNode(node, nodes.size(), parent);
+		nodes.add(compiled);
+		List<TemplateNode> children = new ArrayList<>();
+		if (node.getChildren() != null) {
+			for (Node child : node.getChildren()) {
+				children.add(compile(child, compiled, nodes));
+			}
+		}
+		compiled.children = Collections.unmodifiableList(children);
+		compiled.hasChildren = node.getChildren() != null;
+		return compiled;
+	}
+
+	/**
+	 * Full taxonomy as a fresh tree of nodes without items
+	 */
+	@SuppressWarnings("unchecked")
+	public Node toNode() {
+		boolean[] kept = new boolean[nodes.length];
+		Arrays.fill(kept, true);
+		return materialise(root, kept, new Collection[nodes.length]);
+	}
+
+	/**
+	 * Tree of the nodes holding items, their ancestors and the root. Each node gets the items of its
+	 * ddss in a list of its own.
+	 */
+	@SuppressWarnings("unchecked")
+	public Node overlay(Map<String, ? extends Collection<DiscoveryItem>> itemsByDdss) {
+		Collection<DiscoveryItem>[] assigned = new Collection[nodes.length];
+		boolean[] kept = new boolean[nodes.length];
+		itemsByDdss.forEach((ddss, items) -> {
+			if (items == null || items.isEmpty()) {
+				return;
+			}
+			for (TemplateNode node : nodesByDdss.getOrDefault(ddss, List.of())) {
+				assigned[node.ordinal] = items;
+				for (TemplateNode branch = node; branch != null && !kept[branch.ordinal]; branch = branch.parent) {
+					kept[branch.ordinal] = true;
+				}
+			}
+		});
+		return materialise(root, kept, assigned);
+	}
+
+	private static Node materialise(TemplateNode template, boolean[] kept, Collection<DiscoveryItem>[] assigned) {
+		Node node = new Node();
+		node.setName(template.name);
+		node.setDdss(template.ddss);
+		node.setId(template.id);
+		node.setCode(template.code);
+		node.setLinkUrl(template.linkUrl);
+		node.setImgUrl(template.imgUrl);
+		node.setColor(template.color);
+		if (assigned[template.ordinal] != null) {
+			node.setDistributions(new ArrayList<>(assigned[template.ordinal]));
+		}
+		if (template.hasChildren) {
+			List<Node> children = new ArrayList<>();
+			for (TemplateNode child : template.children) {
+				if (kept[child.ordinal]) {
+					children.add(materialise(child, kept, assigned));
+				}
+			}
+			node.setChildren(children);
+		}
+		return node;
+	}
+
+	private static final class TemplateNode {
+		private final int ordinal;
+		private final TemplateNode parent;
+		private final String name;
+		private final String ddss;
+		private final String id;
+		private final String code;
+		private final String linkUrl;
+		private final String imgUrl;
+		private final String color;
+		private List<TemplateNode> children;
+		private boolean hasChildren;
+
+		private TemplateNode(Node node, int ordinal, TemplateNode parent) {
+			this.ordinal = ordinal;
+			this.parent = parent;
+			this.name = node.getName();
+			this.ddss = node.getDdss();
+			this.id = node.getId();
+			this.code = node.getCode();
+			this.linkUrl = node.getLinkUrl();
+			this.imgUrl = node.getImgUrl();
+			this.color = node.getColor();
+		}
+	}
+}
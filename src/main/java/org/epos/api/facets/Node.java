@@ -12,6 +12,8 @@ public class Node
 {
     private List<Node> children = null;
 	private Collection<DiscoveryItem> distributions = null;
+	private Integer count = null;
+	private List<String> distributionIds = null;
     private String ddss = null;
     private String id = null;
     private String code = null;
@@ -52,6 +54,22 @@ public class Node
 		this.distributions = distributions;
 	}
 
+	public Integer getCount() {
+		return count;
+	}
+
+	public void setCount(Integer count) {
+		this.count = count;
+	}
+
+	public List<String> getDistributionIds() {
+		return distributionIds;
+	}
+
+	public void setDistributionIds(List<String> distributionIds) {
+		this.distributionIds = distributionIds;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -126,7 +144,7 @@ public class Node
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(children, code, ddss, distributions, id, name);
+		return Objects.hash(children, code, count, ddss, distributionIds, distributions, id, name);
 	}
 
 
@@ -140,6 +158,7 @@ public class Node
 			return false;
 		Node other = (Node) obj;
 		return Objects.equals(children, other.children) && Objects.equals(code, other.code)
+				&& Objects.equals(count, other.count) && Objects.equals(distributionIds, other.distributionIds)
 				&& Objects.equals(ddss, other.ddss) && Objects.equals(distributions, other.distributions)
 				&& Objects.equals(id, other.id) && Objects.equals(name, other.name);
 	}
@@ -147,7 +166,8 @@ public class Node
 
 	@Override
 	public String toString() {
-		return "Node [children=" + children + ", distributions=" + distributions + ", ddss=" + ddss + ", id=" + id
+		return "Node [children=" + children + ", distributions=" + distributions + ", count=" + count
+				+ ", distributionIds=" + distributionIds + ", ddss=" + ddss + ", id=" + id
 				+ ", code=" + code + ", name=" + name + "]";
 	}
 
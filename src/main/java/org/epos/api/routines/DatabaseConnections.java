@@ -172,6 +172,13 @@ public class DatabaseConnections {
 		return safeRead(plugins);
 	}
 
+	/**
+	 * Number of database connections the API may use at once, bounded by CONNECTION_POOL_MAX_SIZE
+	 */
+	public int getMaxDbConnections() {
+		return maxDbConnections;
+	}
+
 	private <T> T safeRead(T value) {
 		lock.readLock().lock();
 		try {
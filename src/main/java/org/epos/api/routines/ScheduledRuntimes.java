@@ -5,19 +5,15 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
-import abstractapis.AbstractAPI;
 import dao.EposDataModelDAO;
-import metadataapis.EntityNames;
 import org.apache.commons.lang3.StringUtils;
 import org.epos.api.core.EnvironmentVariables;
 import org.epos.api.core.ZabbixExecutor;
-import org.epos.api.core.distributions.DistributionSearchGenerationJPA;
+import org.epos.api.core.catalogue.Catalogue;
+import org.epos.api.core.distributions.DiscoveryItemTable;
 import org.epos.api.facets.Facets;
 import org.epos.api.utility.Utils;
-import org.epos.eposdatamodel.DataProduct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
@@ -95,12 +91,10 @@ public class ScheduledRuntimes {
 		LOGGER.info("[Scheduled Task - Facets] Updating facets information");
 
 		try {
-			var dataFacets = Facets.getInstance().generateFacetsFromDatabase(Facets.Type.DATA);
-			var facilityFacets = Facets.getInstance().generateFacetsFromDatabase(Facets.Type.FACILITY);
-			var softwareFacets = Facets.getInstance().generateFacetsFromDatabase(Facets.Type.SOFTWARE);
-			Facets.getInstance().setFacetsFromDatabase(dataFacets, Facets.Type.DATA);
-			Facets.getInstance().setFacetsFromDatabase(facilityFacets, Facets.Type.FACILITY);
-			Facets.getInstance().setFacetsFromDatabase(softwareFacets, Facets.Type.SOFTWARE);
+			if (!Facets.getInstance().updateFacetsFromDatabase()) {
+				LOGGER.info("[Scheduled Task - Facets] Facets unchanged, nothing to publish");
+				return;
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -113,12 +107,7 @@ public class ScheduledRuntimes {
 		LOGGER.info("[Scheduled Task - Resources] Updating resources information");
         DatabaseConnections.getInstance().syncDatabaseConnections();
         EposDataModelDAO.getInstance().printCacheReport();
-        List<DataProduct> dataproducts = ((List<DataProduct>) AbstractAPI
-                .retrieveAPI(EntityNames.DATAPRODUCT.name())
-                .retrieveAll())
-                .parallelStream()
-                .collect(Collectors.toList());
-        DistributionSearchGenerationJPA.preFetchLinkedEntities(dataproducts);
+        DiscoveryItemTable.of(Catalogue.getInstance().refresh());
         LOGGER.info("[Scheduled Task - Resources] Resources successfully updated");
 	}
 
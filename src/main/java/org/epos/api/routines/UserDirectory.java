@@ -0,0 +1,96 @@
+package org.epos.api.routines;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.epos.api.core.EnvironmentVariables;
+import org.epos.eposdatamodel.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Users by auth identifier, loaded on first use and reloaded in the background once older than the
+ * time to live. Lookups answer from the loaded map: only the very first one waits for the database,
+ * later ones see the previous map while a reload is running.
+ */
+public class UserDirectory {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(UserDirectory.class);
+
+	private static final long DEFAULT_TTL_SECONDS = 300;
+
+	private static UserDirectory instance;
+
+	private final long ttlMillis;
+	private final AtomicBoolean reloading = new AtomicBoolean();
+	private volatile Map<String, User> users;
+	private volatile long loadedAt;
+
+	private UserDirectory() {
+		this.ttlMillis = parse(EnvironmentVariables.USER_DIRECTORY_TTL_SECONDS, DEFAULT_TTL_SECONDS) * 1000;
+	}
+
+	public static synchronized UserDirectory getInstance() {
+		if (instance == null) {
+			instance = new UserDirectory();
+		}
+		return instance;
+	}
+
+	/**
+	 * User with the given auth identifier, null if unknown
+	 */
+	public User get(String authIdentifier) {
+		if (authIdentifier == null) {
+			return null;
+		}
+		return users().get(authIdentifier);
+	}
+
+	private Map<String, User> users() {
+		Map<String, User> current = users;
+		if (current == null) {
+			return load();
+		}
+		if (System.currentTimeMillis() - loadedAt > ttlMillis && reloading.compareAndSet(false, true)) {
+			CompletableFuture.runAsync(() -> {
+				try {
+					reload();
+				} catch (RuntimeException e) {
+					LOGGER.error("[USERS] Error while reloading the user directory", e);
+				} finally {
+					reloading.set(false);
+				}
+			});
+		}
+		return current;
+	}
+
+	private synchronized Map<String, User> load() {
+		if (users == null) {
+			reload();
+		}
+		return users;
+	}
+
+	private void reload() {
+		long startTime = System.currentTimeMillis();
+		Map<String, User> loaded = DatabaseConnections.retrieveUserMap();
+		synchronized (this) {
+			users = loaded;
+			loadedAt = System.currentTimeMillis();
+		}
+		LOGGER.info("[PERF] User directory loaded in {} ms ({} users)", System.currentTimeMillis() - startTime,
+				loaded.size());
+	}
+
+	private static long parse(String value, long defaultValue) {
+		try {
+			return value != null ? Long.parseLong(value.trim()) : defaultValue;
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid user directory setting '{}', using {}", value, defaultValue);
+			return defaultValue;
+		}
+	}
+}
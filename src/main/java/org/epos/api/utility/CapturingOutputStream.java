@@ -0,0 +1,52 @@
+package org.epos.api.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream writing through to the response while keeping a copy of what was written, so that a
+ * payload can be cached as it is streamed out. The copy is given up once it grows past the limit.
+ */
+public class CapturingOutputStream extends FilterOutputStream {
+
+	private final long limit;
+	private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+	public CapturingOutputStream(OutputStream out, long limit) {
+		super(out);
+		this.limit = limit;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		capture(1);
+		if(copy != null) {
+			copy.write(b);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		capture(len);
+		if(copy != null) {
+			copy.write(b, off, len);
+		}
+	}
+
+	/**
+	 * Bytes written so far, null if they went past the limit
+	 */
+	public byte[] getCapturedBytes() {
+		return copy != null ? copy.toByteArray() : null;
+	}
+
+	private void capture(int length) {
+		if(copy != null && copy.size() + (long) length > limit) {
+			copy = null;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package org.epos.api.utility;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Gson writer forwarding every token to a Jackson generator, so that the adapters of
+ * {@link Utils#gson} can produce binary encodings such as CBOR or Smile of the same object model.
+ * Null members are dropped as the text writer does unless nulls are serialised.
+ */
+public class GeneratorJsonWriter extends JsonWriter {
+
+	private static final Writer UNWRITABLE_WRITER = new Writer() {
+		@Override
+		public void write(char[] buffer, int offset, int counter) {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void flush() {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void close() {
+			throw new AssertionError();
+		}
+	};
+
+	private final JsonGenerator generator;
+	private String pendingName;
+
+	public GeneratorJsonWriter(JsonGenerator generator) {
+		super(UNWRITABLE_WRITER);
+		this.generator = generator;
+	}
+
+	private void writePendingName() throws IOException {
+		if (pendingName != null) {
+			generator.writeFieldName(pendingName);
+			pendingName = null;
+		}
+	}
+
+	@Override
+	public JsonWriter beginArray() throws IOException {
+		writePendingName();
+		generator.writeStartArray();
+		return this;
+	}
+
+	@Override
+	public JsonWriter endArray() throws IOException {
+		generator.writeEndArray();
+		return this;
+	}
+
+	@Override
+	public JsonWriter beginObject() throws IOException {
+		writePendingName();
+		generator.writeStartObject();
+		return this;
+	}
+
+	@Override
+	public JsonWriter endObject() throws IOException {
+		if (pendingName != null) {
+			throw new IllegalStateException("Member " + pendingName + " without a value");
+		}
+		generator.writeEndObject();
+		return this;
+	}
+
+	@Override
+	public JsonWriter name(String name) throws IOException {
+		if (name == null) {
+			throw new NullPointerException("name == null");
+		}
+		if (pendingName != null) {
+			throw new IllegalStateException("Member " + pendingName + " without a value");
+		}
+		pendingName = name;
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(String value) throws IOException {
+		if (value == null) {
+			return nullValue();
+		}
+		writePendingName();
+		generator.writeString(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter jsonValue(String value) throws IOException {
+		if (value == null) {
+			return nullValue();
+		}
+		Utils.gson.getAdapter(JsonElement.class).write(this, JsonParser.parseString(value));
+		return this;
+	}
+
+	@Override
+	public JsonWriter nullValue() throws IOException {
+		if (pendingName != null && !getSerializeNulls()) {
+			pendingName = null;
+			return this;
+		}
+		writePendingName();
+		generator.writeNull();
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(boolean value) throws IOException {
+		writePendingName();
+		generator.writeBoolean(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Boolean value) throws IOException {
+		return value == null ? nullValue() : value(value.booleanValue());
+	}
+
+	@Override
+	public JsonWriter value(float value) throws IOException {
+		writePendingName();
+		generator.writeNumber(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(double value) throws IOException {
+		writePendingName();
+		generator.writeNumber(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(long value) throws IOException {
+		writePendingName();
+		generator.writeNumber(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Number value) throws IOException {
+		if (value == null) {
+			return nullValue();
+		}
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			return value(value.longValue());
+		}
+		if (value instanceof Double || value instanceof Float) {
+			return value(value.doubleValue());
+		}
+		writePendingName();
+		if (value instanceof BigDecimal) {
+			generator.writeNumber((BigDecimal) value);
+		} else if (value instanceof BigInteger) {
+			generator.writeNumber((BigInteger) value);
+		} else {
+			// lazily parsed and other numbers keep their textual form
+			String text = value.toString();
+			try {
+				generator.writeNumber(Long.parseLong(text));
+			} catch (NumberFormatException e) {
+				generator.writeNumber(new BigDecimal(text));
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		generator.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+}
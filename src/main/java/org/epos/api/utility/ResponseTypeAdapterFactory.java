@@ -0,0 +1,268 @@
+package org.epos.api.utility;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.epos.api.beans.AvailableFormat;
+import org.epos.api.beans.DataServiceProvider;
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.beans.NodeFilters;
+import org.epos.api.beans.SearchResponse;
+import org.epos.api.enums.AvailableFormatType;
+import org.epos.api.facets.Node;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming serializers of the beans making up most of the response bytes. Fields are written in
+ * declaration order with the rules of the reflective adapters and {@link Utils.CollectionAdapter}:
+ * null fields and empty collections are left out, so the JSON is byte for byte the same. Reading
+ * is left to the reflective adapters.
+ */
+public class ResponseTypeAdapterFactory implements TypeAdapterFactory {
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		Class<? super T> raw = type.getRawType();
+		TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+		if (raw == DiscoveryItem.class) {
+			return (TypeAdapter<T>) new DiscoveryItemAdapter(gson, (TypeAdapter<DiscoveryItem>) delegate);
+		}
+		if (raw == Node.class) {
+			return (TypeAdapter<T>) new NodeAdapter(gson, (TypeAdapter<Node>) delegate);
+		}
+		if (raw == NodeFilters.class) {
+			return (TypeAdapter<T>) new NodeFiltersAdapter(gson, (TypeAdapter<NodeFilters>) delegate);
+		}
+		if (raw == SearchResponse.class) {
+			return (TypeAdapter<T>) new SearchResponseAdapter(gson, (TypeAdapter<SearchResponse>) delegate);
+		}
+		if (raw == AvailableFormat.class) {
+			return (TypeAdapter<T>) new AvailableFormatAdapter(gson, (TypeAdapter<AvailableFormat>) delegate);
+		}
+		if (raw == DataServiceProvider.class) {
+			return (TypeAdapter<T>) new DataServiceProviderAdapter(gson, (TypeAdapter<DataServiceProvider>) delegate);
+		}
+		return null;
+	}
+
+	private abstract static class BeanAdapter<T> extends TypeAdapter<T> {
+
+		protected final Gson gson;
+		private final TypeAdapter<T> delegate;
+
+		BeanAdapter(Gson gson, TypeAdapter<T> delegate) {
+			this.gson = gson;
+			this.delegate = delegate;
+		}
+
+		protected abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+		@Override
+		public void write(JsonWriter out, T value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			writeFields(out, value);
+			out.endObject();
+		}
+
+		@Override
+		public T read(JsonReader in) throws IOException {
+			return delegate.read(in);
+		}
+
+		protected static void field(JsonWriter out, String name, String value) throws IOException {
+			if (value != null) {
+				out.name(name).value(value);
+			}
+		}
+
+		protected static void field(JsonWriter out, String name, Number value) throws IOException {
+			if (value != null) {
+				out.name(name).value(value);
+			}
+		}
+
+		protected static <V> void field(JsonWriter out, String name, V value, TypeAdapter<V> adapter) throws IOException {
+			if (value != null) {
+				out.name(name);
+				adapter.write(out, value);
+			}
+		}
+
+		/**
+		 * Writes the elements with the adapter of their declared type, falling back on the adapter of
+		 * their runtime type as the reflective path does
+		 */
+		@SuppressWarnings("unchecked")
+		protected <E> void field(JsonWriter out, String name, Collection<? extends E> values, Class<E> type,
+				TypeAdapter<E> adapter) throws IOException {
+			if (values == null || values.isEmpty()) {
+				return;
+			}
+			out.name(name).beginArray();
+			for (E element : values) {
+				if (element == null) {
+					out.nullValue();
+				} else if (element.getClass() == type) {
+					adapter.write(out, element);
+				} else {
+					((TypeAdapter<Object>) gson.getAdapter(element.getClass())).write(out, element);
+				}
+			}
+			out.endArray();
+		}
+	}
+
+	private static final class DiscoveryItemAdapter extends BeanAdapter<DiscoveryItem> {
+
+		private final TypeAdapter<DataServiceProvider> dataServiceProviderAdapter;
+		private final TypeAdapter<AvailableFormat> availableFormatAdapter;
+		private final TypeAdapter<LocalDateTime> localDateTimeAdapter;
+
+		DiscoveryItemAdapter(Gson gson, TypeAdapter<DiscoveryItem> delegate) {
+			super(gson, delegate);
+			this.dataServiceProviderAdapter = gson.getAdapter(DataServiceProvider.class);
+			this.availableFormatAdapter = gson.getAdapter(AvailableFormat.class);
+			this.localDateTimeAdapter = gson.getAdapter(LocalDateTime.class);
+		}
+
+		@Override
+		protected void writeFields(JsonWriter out, DiscoveryItem value) throws IOException {
+			field(out, "href", value.getHref());
+			field(out, "hrefExtended", value.getHrefExtended());
+			field(out, "id", value.getId());
+			field(out, "uid", value.getUid());
+			field(out, "metaId", value.getMetaId());
+			field(out, "title", value.getTitle());
+			field(out, "description", value.getDescription());
+			field(out, "status", value.getStatus());
+			field(out, "dataServiceProvider", value.getDataServiceProvider(), dataServiceProviderAdapter);
+			field(out, "versioningStatus", value.getVersioningStatus());
+			field(out, "statusTimestamp", value.getStatusTimestamp());
+			field(out, "statusURL", value.getStatusURL());
+			field(out, "availableFormats", value.getAvailableFormats(), AvailableFormat.class, availableFormatAdapter);
+			field(out, "editorId", value.getEditorId());
+			field(out, "editorFullName", value.getEditorFullName());
+			field(out, "changeDate", value.getChangeDate(), localDateTimeAdapter);
+		}
+	}
+
+	private static final class NodeAdapter extends BeanAdapter<Node> {
+
+		private final TypeAdapter<Node> nodeAdapter;
+		private final TypeAdapter<DiscoveryItem> discoveryItemAdapter;
+		private final TypeAdapter<String> stringAdapter;
+
+		NodeAdapter(Gson gson, TypeAdapter<Node> delegate) {
+			super(gson, delegate);
+			this.nodeAdapter = gson.getAdapter(Node.class);
+			this.discoveryItemAdapter = gson.getAdapter(DiscoveryItem.class);
+			this.stringAdapter = gson.getAdapter(String.class);
+		}
+
+		@Override
+		protected void writeFields(JsonWriter out, Node value) throws IOException {
+			field(out, "children", value.getChildren(), Node.class, nodeAdapter);
+			field(out, "distributions", value.getDistributions(), DiscoveryItem.class, discoveryItemAdapter);
+			field(out, "count", value.getCount());
+			field(out, "distributionIds", value.getDistributionIds(), String.class, stringAdapter);
+			field(out, "ddss", value.getDdss());
+			field(out, "id", value.getId());
+			field(out, "code", value.getCode());
+			field(out, "linkUrl", value.getLinkUrl());
+			field(out, "imgUrl", value.getImgUrl());
+			field(out, "color", value.getColor());
+			field(out, "name", value.getName());
+		}
+	}
+
+	private static final class NodeFiltersAdapter extends BeanAdapter<NodeFilters> {
+
+		private final TypeAdapter<NodeFilters> nodeFiltersAdapter;
+
+		NodeFiltersAdapter(Gson gson, TypeAdapter<NodeFilters> delegate) {
+			super(gson, delegate);
+			this.nodeFiltersAdapter = gson.getAdapter(NodeFilters.class);
+		}
+
+		@Override
+		protected void writeFields(JsonWriter out, NodeFilters value) throws IOException {
+			field(out, "children", value.getChildren(), NodeFilters.class, nodeFiltersAdapter);
+			field(out, "id", value.getId());
+			field(out, "name", value.getName());
+		}
+	}
+
+	private static final class SearchResponseAdapter extends BeanAdapter<SearchResponse> {
+
+		private final TypeAdapter<Node> nodeAdapter;
+		private final TypeAdapter<NodeFilters> nodeFiltersAdapter;
+
+		SearchResponseAdapter(Gson gson, TypeAdapter<SearchResponse> delegate) {
+			super(gson, delegate);
+			this.nodeAdapter = gson.getAdapter(Node.class);
+			this.nodeFiltersAdapter = gson.getAdapter(NodeFilters.class);
+		}
+
+		@Override
+		protected void writeFields(JsonWriter out, SearchResponse value) throws IOException {
+			field(out, "results", value.getResults(), nodeAdapter);
+			field(out, "filters", value.getFilters(), NodeFilters.class, nodeFiltersAdapter);
+			field(out, "errorMessage", value.getErrorMessage());
+			field(out, "total", value.getTotal());
+			field(out, "nextCursor", value.getNextCursor());
+		}
+	}
+
+	private static final class AvailableFormatAdapter extends BeanAdapter<AvailableFormat> {
+
+		private final TypeAdapter<AvailableFormatType> availableFormatTypeAdapter;
+
+		AvailableFormatAdapter(Gson gson, TypeAdapter<AvailableFormat> delegate) {
+			super(gson, delegate);
+			this.availableFormatTypeAdapter = gson.getAdapter(AvailableFormatType.class);
+		}
+
+		@Override
+		protected void writeFields(JsonWriter out, AvailableFormat value) throws IOException {
+			field(out, "method", value.getMethod());
+			field(out, "label", value.getLabel());
+			field(out, "format", value.getFormat());
+			field(out, "originalFormat", value.getOriginalFormat());
+			field(out, "href", value.getHref());
+			field(out, "type", value.getType(), availableFormatTypeAdapter);
+		}
+	}
+
+	private static final class DataServiceProviderAdapter extends BeanAdapter<DataServiceProvider> {
+
+		private final TypeAdapter<DataServiceProvider> dataServiceProviderAdapter;
+
+		DataServiceProviderAdapter(Gson gson, TypeAdapter<DataServiceProvider> delegate) {
+			super(gson, delegate);
+			this.dataServiceProviderAdapter = gson.getAdapter(DataServiceProvider.class);
+		}
+
+		@Override
+		protected void writeFields(JsonWriter out, DataServiceProvider value) throws IOException {
+			field(out, "dataProviderLegalName", value.getDataProviderLegalName());
+			field(out, "dataProviderUrl", value.getDataProviderUrl());
+			field(out, "country", value.getCountry());
+			field(out, "uid", value.getUid());
+			field(out, "metaid", value.getMetaid());
+			field(out, "instanceid", value.getInstanceid());
+			field(out, "relatedDataServiceProvider", value.getRelatedDataServiceProvider(), DataServiceProvider.class, dataServiceProviderAdapter);
+		}
+	}
+}
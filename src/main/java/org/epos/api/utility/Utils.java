@@ -52,7 +52,8 @@ public class Utils {
 
 	public static final String EPOSINTERNALFORMAT = "yyyy-MM-ddThh:mm:ssZ";
 
-	public static Gson gson = Converters.registerAll(new GsonBuilder()).registerTypeHierarchyAdapter(Collection.class, new CollectionAdapter()).create();
+	public static Gson gson = Converters.registerAll(new GsonBuilder()).registerTypeHierarchyAdapter(Collection.class, new CollectionAdapter())
+			.registerTypeAdapterFactory(new ResponseTypeAdapterFactory()).create();
 
 	public static <T> List<T> union(List<T> list1, List<T> list2) {
 		Set<T> set = new HashSet<T>();
@@ -0,0 +1,47 @@
+package org.epos.configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a {@link StreamingResponseBody} returned inside a {@code ResponseEntity<Object>} straight to
+ * the response output stream. Spring only streams such bodies when the declared return type says so,
+ * the generated API interfaces declare the payload types instead.
+ */
+public class StreamingResponseBodyConverter implements HttpMessageConverter<StreamingResponseBody> {
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return StreamingResponseBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return List.of(MediaType.ALL);
+    }
+
+    @Override
+    public StreamingResponseBody read(Class<? extends StreamingResponseBody> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("StreamingResponseBody is write only");
+    }
+
+    @Override
+    public void write(StreamingResponseBody body, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException {
+        if (contentType != null && !contentType.isWildcardType() && !contentType.isWildcardSubtype()) {
+            outputMessage.getHeaders().setContentType(contentType);
+        }
+        body.writeTo(outputMessage.getBody());
+    }
+}
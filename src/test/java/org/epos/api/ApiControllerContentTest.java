@@ -0,0 +1,123 @@
+package org.epos.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.epos.api.beans.Distribution;
+import org.epos.api.beans.DistributionExtended;
+import org.epos.api.beans.NodeFilters;
+import org.epos.api.beans.SearchResponse;
+import org.epos.api.facets.Node;
+import org.epos.api.utility.Utils;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+public class ApiControllerContentTest {
+
+    /**
+     * The rule applied before hasContent: the serialised response parsed back must be a non empty
+     * object or array
+     */
+    private static boolean serialisedHasContent(Object response) {
+        JsonElement element = Utils.gson.fromJson(Utils.gson.toJson(response), JsonElement.class);
+        if (element == null) {
+            return false;
+        }
+        if (element.isJsonObject()) {
+            return !element.getAsJsonObject().entrySet().isEmpty();
+        }
+        return element.isJsonArray() && element.getAsJsonArray().size() > 0;
+    }
+
+    private static void assertContent(boolean expected, Object response) {
+        assertEquals(expected, serialisedHasContent(response), "serialised rule");
+        assertEquals(expected, ApiController.hasContent(response), "hasContent");
+    }
+
+    @Test
+    public void testEmptySearchResponse() {
+        assertContent(false, new SearchResponse((String) null));
+
+        SearchResponse emptyFilters = new SearchResponse((String) null);
+        emptyFilters.setFilters(new ArrayList<>());
+        assertContent(false, emptyFilters);
+    }
+
+    @Test
+    public void testSearchResponseWithContent() {
+        Node root = new Node("root");
+        root.addChild(new Node("results"));
+        assertContent(true, new SearchResponse(root, new ArrayList<>()));
+
+        SearchResponse filtersOnly = new SearchResponse((String) null);
+        filtersOnly.setFilters(new ArrayList<>(List.of(new NodeFilters("keywords"))));
+        assertContent(true, filtersOnly);
+
+        SearchResponse totalOnly = new SearchResponse((String) null);
+        totalOnly.setTotal(0);
+        assertContent(true, totalOnly);
+
+        SearchResponse cursorOnly = new SearchResponse((String) null);
+        cursorOnly.setNextCursor("cursor");
+        assertContent(true, cursorOnly);
+
+        assertContent(true, new SearchResponse("No results"));
+    }
+
+    @Test
+    public void testDetails() {
+        assertContent(false, new Distribution());
+        assertContent(false, new DistributionExtended());
+
+        Distribution distribution = new Distribution();
+        distribution.setId("distribution");
+        assertContent(true, distribution);
+
+        Distribution uidOnly = new Distribution();
+        uidOnly.setUid("uid");
+        assertContent(true, uidOnly);
+
+        DistributionExtended extended = new DistributionExtended();
+        extended.setId("distribution");
+        assertContent(true, extended);
+
+        assertContent(true, new Distribution("Not found"));
+        assertContent(true, new DistributionExtended("Not found"));
+    }
+
+    @Test
+    public void testJsonAndCollections() {
+        assertFalse(ApiController.hasContent(null));
+        assertContent(false, new JsonObject());
+        assertContent(false, new JsonArray());
+        assertContent(false, new ArrayList<>());
+        assertContent(false, Map.of());
+
+        JsonObject object = new JsonObject();
+        object.addProperty("id", "distribution");
+        assertContent(true, object);
+
+        JsonArray array = new JsonArray();
+        array.add("distribution");
+        assertContent(true, array);
+
+        assertContent(true, List.of("distribution"));
+        assertContent(true, Map.of("id", "distribution"));
+    }
+
+    @Test
+    public void testOtherObjectsUseTheirJsonTree() {
+        assertContent(false, new NodeFilters());
+        assertContent(true, new NodeFilters("keywords"));
+        assertContent(false, "distribution");
+        assertTrue(ApiController.hasContent(new String[] { "distribution" }));
+    }
+}
@@ -0,0 +1,47 @@
+package org.epos.api.core.catalogue;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.epos.eposdatamodel.EPOSDataModelEntity;
+import org.epos.eposdatamodel.LinkedEntity;
+
+/**
+ * Builds catalogue snapshots from EDM entities created in memory
+ */
+final class CatalogueFixtures {
+
+    private CatalogueFixtures() {
+    }
+
+    static <T extends EPOSDataModelEntity> T entity(T entity, String instanceId) {
+        entity.setInstanceId(instanceId);
+        entity.setMetaId(instanceId);
+        return entity;
+    }
+
+    static LinkedEntity link(EPOSDataModelEntity entity) {
+        LinkedEntity linkedEntity = new LinkedEntity();
+        linkedEntity.setInstanceId(entity.getInstanceId());
+        return linkedEntity;
+    }
+
+    static BitSet ordinals(int... ordinals) {
+        BitSet bitSet = new BitSet();
+        for (int ordinal : ordinals) {
+            bitSet.set(ordinal);
+        }
+        return bitSet;
+    }
+
+    @SuppressWarnings("unchecked")
+    static CatalogueSnapshot snapshot(EPOSDataModelEntity... entities) {
+        Map<Class<?>, Map<String, ?>> byType = new LinkedHashMap<>();
+        for (EPOSDataModelEntity entity : entities) {
+            ((Map<String, Object>) byType.computeIfAbsent(entity.getClass(), type -> new LinkedHashMap<String, Object>()))
+                    .put(entity.getInstanceId(), entity);
+        }
+        return new CatalogueSnapshot(1, byType);
+    }
+}
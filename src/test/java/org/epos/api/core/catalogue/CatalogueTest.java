@@ -0,0 +1,110 @@
+package org.epos.api.core.catalogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class CatalogueTest {
+
+    @Test
+    public void testFailedBuildDoesNotTakeAVersion() {
+        AtomicInteger builds = new AtomicInteger();
+        Catalogue catalogue = new Catalogue(version -> {
+            if (builds.incrementAndGet() == 2) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return new CatalogueSnapshot(version, Collections.emptyMap());
+        });
+
+        assertEquals(1, catalogue.refresh().getVersion());
+        CatalogueSnapshot kept = catalogue.refresh();
+        assertEquals(1, kept.getVersion());
+        assertSame(kept, catalogue.getSnapshot());
+        assertEquals(2, catalogue.refresh().getVersion());
+    }
+
+    @Test
+    public void testFailedFirstLoadBacksOff() {
+        AtomicInteger builds = new AtomicInteger();
+        Catalogue catalogue = new Catalogue(version -> {
+            builds.incrementAndGet();
+            throw new IllegalStateException("database unavailable");
+        });
+
+        CatalogueSnapshot first = catalogue.getSnapshot();
+        CatalogueSnapshot second = catalogue.getSnapshot();
+        assertEquals(0, first.getVersion());
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testExplicitRefreshIgnoresBackOff() {
+        AtomicInteger builds = new AtomicInteger();
+        Catalogue catalogue = new Catalogue(version -> {
+            if (builds.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return new CatalogueSnapshot(version, Collections.emptyMap());
+        });
+
+        assertEquals(0, catalogue.getSnapshot().getVersion());
+        assertEquals(1, catalogue.refresh().getVersion());
+        assertEquals(1, catalogue.getSnapshot().getVersion());
+    }
+
+    @Test
+    public void testRetainedVersions() {
+        Catalogue catalogue = new Catalogue(version -> new CatalogueSnapshot(version, Collections.emptyMap()));
+        for (int i = 0; i < 4; i++) {
+            catalogue.refresh();
+        }
+
+        assertEquals(4, catalogue.getSnapshot().getVersion());
+        assertNull(catalogue.getSnapshot(1));
+        assertNotNull(catalogue.getSnapshot(2));
+        assertNotNull(catalogue.getSnapshot(4));
+        assertNull(catalogue.getSnapshot(5));
+    }
+
+    @Test
+    public void testOutdatedUntilTheNextVersion() {
+        Catalogue catalogue = new Catalogue(version -> new CatalogueSnapshot(version, Collections.emptyMap()));
+        CatalogueSnapshot loaded = catalogue.refresh();
+        assertFalse(catalogue.isOutdated(loaded, "distribution"));
+
+        catalogue.markOutdated("distribution");
+        assertTrue(catalogue.isOutdated(loaded, "distribution"));
+        assertFalse(catalogue.isOutdated(loaded, "other"));
+
+        CatalogueSnapshot reloaded = catalogue.refresh();
+        assertFalse(catalogue.isOutdated(reloaded, "distribution"));
+    }
+
+    @Test
+    public void testMarkedDuringARefreshOutdatesTheSnapshotBeingBuilt() {
+        Catalogue[] holder = new Catalogue[1];
+        AtomicInteger builds = new AtomicInteger();
+        holder[0] = new Catalogue(version -> {
+            if (builds.incrementAndGet() == 2) {
+                // ingestion reported while the second version is loading
+                holder[0].markOutdated("distribution");
+            }
+            return new CatalogueSnapshot(version, Collections.emptyMap());
+        });
+        Catalogue catalogue = holder[0];
+        catalogue.refresh();
+
+        CatalogueSnapshot loading = catalogue.refresh();
+        assertTrue(catalogue.isOutdated(loading, "distribution"));
+        assertFalse(catalogue.isOutdated(catalogue.refresh(), "distribution"));
+    }
+}
@@ -0,0 +1,79 @@
+package org.epos.api.core.catalogue;
+
+import static org.epos.api.core.catalogue.CatalogueFixtures.entity;
+import static org.epos.api.core.catalogue.CatalogueFixtures.link;
+import static org.epos.api.core.catalogue.CatalogueFixtures.ordinals;
+import static org.epos.api.core.catalogue.CatalogueFixtures.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.WebService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FullTextIndexTest {
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    public void buildIndex() {
+        WebService webService = entity(new WebService(), "ws0");
+        webService.setName("FDSN Station service");
+
+        Distribution distribution = entity(new Distribution(), "d0");
+        distribution.addTitle("Seismic Waveforms");
+        distribution.addAccessService(link(webService));
+
+        DataProduct seismic = entity(new DataProduct(), "dp0");
+        seismic.setUid("dp-seismic-01");
+        seismic.setKeywords("Volcano");
+        seismic.addDistribution(link(distribution));
+
+        DataProduct gnss = entity(new DataProduct(), "dp1");
+        gnss.setUid("gnss-daily");
+        gnss.setKeywords("ml");
+
+        DataProduct trigrams = entity(new DataProduct(), "dp2");
+        trigrams.setUid("abcx-xbcd");
+
+        index = snapshot(seismic, gnss, trigrams, distribution, webService).getFullTextIndex();
+    }
+
+    @Test
+    public void testSubstringOfLinkedFields() {
+        assertEquals(ordinals(0), index.match(List.of("waveform")));
+        assertEquals(ordinals(0), index.match(List.of("station")));
+        assertEquals(ordinals(0), index.match(List.of("seismic-01")));
+        assertEquals(ordinals(), index.match(List.of("zzz")));
+    }
+
+    @Test
+    public void testTermsUnderThreeCharactersScanEveryDataProduct() {
+        assertEquals(ordinals(1), index.match(List.of("ss")));
+        assertEquals(ordinals(0, 1, 2), index.match(List.of("-")));
+        assertEquals(ordinals(1), index.match(List.of("ml")));
+    }
+
+    @Test
+    public void testTrigramCandidatesAreVerified() {
+        // every trigram of the term occurs in dp2, the term itself does not
+        assertEquals(ordinals(), index.match(List.of("abcd")));
+        assertEquals(ordinals(2), index.match(List.of("abcx")));
+    }
+
+    @Test
+    public void testKeywordsMatchExactlyWithoutTrigrams() {
+        assertEquals(ordinals(0), index.match(List.of("volcano")));
+        assertEquals(ordinals(), index.match(List.of("volc")));
+    }
+
+    @Test
+    public void testEveryTermMustMatch() {
+        assertEquals(ordinals(0), index.match(List.of("seismic", "volcano")));
+        assertEquals(ordinals(), index.match(List.of("seismic", "gnss")));
+        assertEquals(ordinals(0, 1, 2), index.match(List.of()));
+    }
+}
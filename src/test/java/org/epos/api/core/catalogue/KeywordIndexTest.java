@@ -0,0 +1,52 @@
+package org.epos.api.core.catalogue;
+
+import static org.epos.api.core.catalogue.CatalogueFixtures.entity;
+import static org.epos.api.core.catalogue.CatalogueFixtures.ordinals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.epos.eposdatamodel.DataProduct;
+import org.junit.jupiter.api.Test;
+
+public class KeywordIndexTest {
+
+    private static DataProduct dataProduct(String instanceId, String keywords) {
+        DataProduct dataProduct = entity(new DataProduct(), instanceId);
+        dataProduct.setKeywords(keywords);
+        return dataProduct;
+    }
+
+    @Test
+    public void testNormalise() {
+        assertEquals(List.of("seismology", "gnss"), KeywordIndex.normalise(" Seismology,GNSS, seismology ,,"));
+        assertTrue(KeywordIndex.normalise(null).isEmpty());
+        assertTrue(KeywordIndex.normalise("").isEmpty());
+    }
+
+    @Test
+    public void testMatchIsAUnionOfExactKeywords() {
+        KeywordIndex index = KeywordIndex.build(List.of(
+                dataProduct("dp0", "Seismology, Waveforms"),
+                dataProduct("dp1", "GNSS"),
+                dataProduct("dp2", null),
+                dataProduct("dp3", "seismology,gnss")));
+
+        assertEquals(ordinals(0, 3), index.match(List.of("seismology")));
+        assertEquals(ordinals(0, 1, 3), index.match(List.of("waveforms", "gnss")));
+        assertEquals(ordinals(), index.match(List.of("seismo")));
+        assertEquals(ordinals(), index.match(List.of()));
+    }
+
+    @Test
+    public void testKeywordsOf() {
+        DataProduct withKeywords = dataProduct("dp0", "Seismology, Waveforms");
+        DataProduct withoutKeywords = dataProduct("dp1", "");
+        KeywordIndex index = KeywordIndex.build(List.of(withKeywords, withoutKeywords));
+
+        assertEquals(List.of("seismology", "waveforms"), index.keywordsOf(withKeywords));
+        assertTrue(index.keywordsOf(withoutKeywords).isEmpty());
+        assertTrue(index.keywordsOf(new DataProduct()).isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+package org.epos.api.core.catalogue;
+
+import static org.epos.api.core.catalogue.CatalogueFixtures.entity;
+import static org.epos.api.core.catalogue.CatalogueFixtures.link;
+import static org.epos.api.core.catalogue.CatalogueFixtures.ordinals;
+import static org.epos.api.core.catalogue.CatalogueFixtures.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.epos.api.utility.BBoxToPolygon;
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.Distribution;
+import org.epos.eposdatamodel.Location;
+import org.epos.eposdatamodel.WebService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+public class SpatialIndexTest {
+
+    private final WKTReader reader = new WKTReader(new GeometryFactory());
+
+    private SpatialIndex index;
+
+    @BeforeEach
+    public void buildIndex() {
+        // footprint crossing the antimeridian, stored split on both sides of it
+        Location pacific = location("l0", "MULTIPOLYGON(((170 -10, 180 -10, 180 10, 170 10, 170 -10)),"
+                + "((-180 -10, -170 -10, -170 10, -180 10, -180 -10)))");
+        DataProduct pacificDataProduct = entity(new DataProduct(), "dp0");
+        pacificDataProduct.addSpatialExtent(link(pacific));
+
+        Location station = location("l1", "POINT(10 45)");
+        WebService webService = entity(new WebService(), "ws1");
+        webService.addSpatialExtent(link(station));
+        Distribution distribution = entity(new Distribution(), "d1");
+        distribution.addAccessService(link(webService));
+        DataProduct stationDataProduct = entity(new DataProduct(), "dp1");
+        stationDataProduct.addDistribution(link(distribution));
+
+        Location invalid = location("l2", "POLYGON((10 45, 11");
+        DataProduct invalidDataProduct = entity(new DataProduct(), "dp2");
+        invalidDataProduct.addSpatialExtent(link(invalid));
+
+        DataProduct withoutExtent = entity(new DataProduct(), "dp3");
+
+        index = snapshot(pacificDataProduct, stationDataProduct, invalidDataProduct, withoutExtent,
+                pacific, station, invalid, webService, distribution).getSpatialIndex();
+    }
+
+    private static Location location(String instanceId, String wkt) {
+        Location location = entity(new Location(), instanceId);
+        location.setLocation(wkt);
+        return location;
+    }
+
+    private Geometry bbox(double north, double east, double south, double west) throws ParseException {
+        return reader.read(BBoxToPolygon.transform(Map.of(
+                "epos:northernmostLatitude", north,
+                "epos:easternmostLongitude", east,
+                "epos:southernmostLatitude", south,
+                "epos:westernmostLongitude", west)));
+    }
+
+    @Test
+    public void testFootprintsOfDataProductsAndWebServices() throws ParseException {
+        assertEquals(ordinals(1), index.intersecting(bbox(50, 20, 40, 0)));
+        assertEquals(ordinals(0, 1), index.intersecting(bbox(50, 180, -50, 0)));
+    }
+
+    @Test
+    public void testFootprintSplitAtTheAntimeridian() throws ParseException {
+        assertEquals(ordinals(0), index.intersecting(bbox(5, 179, -5, 175)));
+        assertEquals(ordinals(0), index.intersecting(bbox(5, -175, -5, -179)));
+        assertEquals(ordinals(0), index.intersecting(bbox(5, 180, -5, 180)));
+        assertEquals(ordinals(), index.intersecting(bbox(5, -160, -5, -169)));
+    }
+
+    @Test
+    public void testEmptyBoundingBox() throws ParseException {
+        assertTrue(index.intersecting(reader.read("POLYGON EMPTY")).isEmpty());
+        assertTrue(index.intersecting(bbox(-60, -100, -70, -110)).isEmpty());
+    }
+
+    @Test
+    public void testEmptyIndex() throws ParseException {
+        SpatialIndex empty = snapshot(entity(new DataProduct(), "dp0")).getSpatialIndex();
+        assertTrue(empty.intersecting(bbox(90, 180, -90, -180)).isEmpty());
+    }
+}
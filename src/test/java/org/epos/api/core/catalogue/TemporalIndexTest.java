@@ -0,0 +1,100 @@
+package org.epos.api.core.catalogue;
+
+import static org.epos.api.core.catalogue.CatalogueFixtures.entity;
+import static org.epos.api.core.catalogue.CatalogueFixtures.link;
+import static org.epos.api.core.catalogue.CatalogueFixtures.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.epos.eposdatamodel.DataProduct;
+import org.epos.eposdatamodel.EPOSDataModelEntity;
+import org.epos.eposdatamodel.PeriodOfTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TemporalIndexTest {
+
+    private final List<DataProduct> dataProducts = new ArrayList<>();
+    private final List<EPOSDataModelEntity> periods = new ArrayList<>();
+
+    private TemporalIndex index;
+
+    @BeforeEach
+    public void buildIndex() {
+        dataProduct("dp0", period(date(2010), date(2012)));
+        dataProduct("dp1", period(null, date(2005)));
+        dataProduct("dp2", period(date(2015), null));
+        // empty and reversed extents never match
+        dataProduct("dp3", period(date(2011), date(2011)), period(date(2013), date(2011)));
+        dataProduct("dp4", period(null, null));
+        dataProduct("dp5");
+        List<EPOSDataModelEntity> entities = new ArrayList<>(dataProducts);
+        entities.addAll(periods);
+        index = snapshot(entities.toArray(new EPOSDataModelEntity[0])).getTemporalIndex();
+    }
+
+    private void dataProduct(String instanceId, PeriodOfTime... periods) {
+        DataProduct dataProduct = entity(new DataProduct(), instanceId);
+        for (PeriodOfTime period : periods) {
+            dataProduct.addTemporalExtent(link(period));
+        }
+        dataProducts.add(dataProduct);
+    }
+
+    private PeriodOfTime period(LocalDateTime start, LocalDateTime end) {
+        PeriodOfTime period = entity(new PeriodOfTime(), "t" + periods.size());
+        period.setStartDate(start);
+        period.setEndDate(end);
+        periods.add(period);
+        return period;
+    }
+
+    private static LocalDateTime date(int year) {
+        return LocalDateTime.of(year, 1, 1, 0, 0);
+    }
+
+    private BitSet dataProducts(String... instanceIds) {
+        List<String> selected = List.of(instanceIds);
+        BitSet bitSet = new BitSet();
+        for (int ordinal = 0; ordinal < dataProducts.size(); ordinal++) {
+            if (selected.contains(dataProducts.get(ordinal).getInstanceId())) {
+                bitSet.set(ordinal);
+            }
+        }
+        return bitSet;
+    }
+
+    @Test
+    public void testClosedRange() {
+        assertEquals(dataProducts("dp0", "dp4"), index.overlapping(date(2011), date(2011).plusMonths(6)));
+        assertEquals(dataProducts("dp0", "dp2", "dp4"), index.overlapping(date(2011), date(2016)));
+        assertEquals(dataProducts("dp0", "dp1", "dp2", "dp4"), index.overlapping(date(2000), date(2020)));
+    }
+
+    @Test
+    public void testOpenBounds() {
+        assertEquals(dataProducts("dp1", "dp4"), index.overlapping(null, date(2006)));
+        assertEquals(dataProducts("dp0", "dp1", "dp4"), index.overlapping(null, date(2011)));
+        assertEquals(dataProducts("dp2", "dp4"), index.overlapping(date(2014), null));
+        assertEquals(dataProducts("dp0", "dp2", "dp4"), index.overlapping(date(2011), null));
+    }
+
+    @Test
+    public void testBoundsAreStrict() {
+        // an extent ending when the range starts, or starting when it ends, does not overlap it
+        assertEquals(dataProducts("dp4"), index.overlapping(date(2012), date(2013)));
+        assertEquals(dataProducts("dp4"), index.overlapping(date(2009), date(2010)));
+        assertEquals(dataProducts("dp2", "dp4"), index.overlapping(date(2012), null));
+        assertEquals(dataProducts("dp1", "dp4"), index.overlapping(null, date(2010)));
+    }
+
+    @Test
+    public void testStartNotBeforeEnd() {
+        assertEquals(new BitSet(), index.overlapping(date(2011), date(2011)));
+        assertEquals(new BitSet(), index.overlapping(date(2012), date(2011)));
+    }
+}
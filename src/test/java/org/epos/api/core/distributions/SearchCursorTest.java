@@ -0,0 +1,93 @@
+package org.epos.api.core.distributions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class SearchCursorTest {
+
+    private static String token(String plain) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String token = new SearchCursor(42, 100, "0123456789abcdef").encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+
+        SearchCursor cursor = SearchCursor.decode(token);
+        assertNotNull(cursor);
+        assertEquals(42, cursor.getVersion());
+        assertEquals(100, cursor.getOffset());
+        assertEquals("0123456789abcdef", cursor.getQueryHash());
+    }
+
+    @Test
+    public void testMalformedTokens() {
+        assertNull(SearchCursor.decode("not a token!"));
+        assertNull(SearchCursor.decode(token("42:100")));
+        assertNull(SearchCursor.decode(token("version:100:0123456789abcdef")));
+        assertNull(SearchCursor.decode(token("42:-1:0123456789abcdef")));
+    }
+
+    @Test
+    public void testVersionIsKeptApartFromTheQuery() {
+        SearchCursor first = SearchCursor.decode(new SearchCursor(1, 20, "0123456789abcdef").encode());
+        SearchCursor later = SearchCursor.decode(new SearchCursor(2, 20, "0123456789abcdef").encode());
+        assertNotEquals(first.getVersion(), later.getVersion());
+        assertEquals(first.getQueryHash(), later.getQueryHash());
+    }
+
+    @Test
+    public void testQueryHashIgnoresPagingAndSetOrder() {
+        Map<String, Object> query = new HashMap<>();
+        query.put("q", "seismic,gnss");
+        query.put("keywords", "a,b");
+
+        Map<String, Object> page = new HashMap<>(query);
+        page.put("q", "gnss,seismic");
+        page.put("limit", "20");
+        page.put("cursor", "token");
+        assertEquals(SearchResultCache.queryHash(query), SearchResultCache.queryHash(page));
+
+        Map<String, Object> other = new HashMap<>(query);
+        other.put("keywords", "a");
+        assertNotEquals(SearchResultCache.queryHash(query), SearchResultCache.queryHash(other));
+    }
+
+    @Test
+    public void testCursorOfAnotherQueryIsRejected() {
+        Map<String, Object> query = new HashMap<>();
+        query.put("q", "seismic");
+        String token = new SearchCursor(1, 20, SearchResultCache.queryHash(query)).encode();
+
+        Map<String, Object> other = new HashMap<>();
+        other.put("q", "gnss");
+        other.put("cursor", token);
+        assertEquals("The cursor is not valid for this query", DistributionSearchGenerationJPA.validatePaging(other));
+
+        other.put("cursor", "not a token!");
+        assertEquals("The cursor is not valid for this query", DistributionSearchGenerationJPA.validatePaging(other));
+    }
+
+    @Test
+    public void testLimitValidation() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("limit", "20");
+        assertNull(DistributionSearchGenerationJPA.validatePaging(parameters));
+
+        parameters.put("limit", "0");
+        assertNotNull(DistributionSearchGenerationJPA.validatePaging(parameters));
+        parameters.put("limit", "many");
+        assertNotNull(DistributionSearchGenerationJPA.validatePaging(parameters));
+    }
+}
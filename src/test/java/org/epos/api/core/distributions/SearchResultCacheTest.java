@@ -0,0 +1,105 @@
+package org.epos.api.core.distributions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.epos.eposdatamodel.User;
+import org.junit.jupiter.api.Test;
+
+public class SearchResultCacheTest {
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final SearchResultCache cache = new SearchResultCache(version::get);
+
+    private static User user(String authIdentifier, boolean admin) {
+        User user = new User();
+        user.setAuthIdentifier(authIdentifier);
+        user.setIsAdmin(admin);
+        return user;
+    }
+
+    @Test
+    public void testSetParameterValuesAreSorted() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("q", "seismic,gnss");
+        parameters.put("keywords", "b,a");
+        parameters.put("facetsmode", "counts");
+
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("facetsmode", "counts");
+        reordered.put("keywords", "a,b");
+        reordered.put("q", "gnss,seismic");
+        assertEquals(cache.key(parameters, null, "json"), cache.key(reordered, null, "json"));
+
+        reordered.put("keywords", "a");
+        assertNotEquals(cache.key(parameters, null, "json"), cache.key(reordered, null, "json"));
+        assertNotEquals(cache.key(parameters, null, "json"), cache.key(parameters, null, "cbor"));
+    }
+
+    @Test
+    public void testEncodedAndDecodedValues() {
+        // the controller decodes each value before the parameters are keyed
+        Map<String, Object> encoded = new HashMap<>();
+        encoded.put("q", URLDecoder.decode("seismic%2Cgnss%20waves", StandardCharsets.UTF_8));
+        Map<String, Object> decoded = new HashMap<>();
+        decoded.put("q", "gnss waves,seismic");
+        assertEquals(cache.key(decoded, null, "json"), cache.key(encoded, null, "json"));
+        assertEquals(SearchResultCache.queryHash(decoded), SearchResultCache.queryHash(encoded));
+    }
+
+    @Test
+    public void testBackofficeScope() {
+        Map<String, Object> published = new HashMap<>();
+        published.put("q", "seismic");
+        String anonymous = cache.key(published, null, "json");
+        assertEquals(anonymous, cache.key(published, user("alice", false), "json"));
+        assertEquals(anonymous, cache.key(published, user("bob", true), "json"));
+
+        Map<String, Object> backoffice = new HashMap<>(published);
+        backoffice.put("versioningStatus", "DRAFT,SUBMITTED");
+        String alice = cache.key(backoffice, user("alice", false), "json");
+        assertNotEquals(alice, cache.key(backoffice, user("bob", false), "json"));
+        assertNotEquals(alice, cache.key(backoffice, user("alice", true), "json"));
+        assertEquals(alice, cache.key(backoffice, user("alice", false), "json"));
+    }
+
+    @Test
+    public void testPagingIsKeyedButNotHashed() {
+        Map<String, Object> query = new HashMap<>();
+        query.put("q", "seismic");
+        Map<String, Object> page = new HashMap<>(query);
+        page.put("limit", "20");
+        Map<String, Object> next = new HashMap<>(page);
+        next.put("cursor", new SearchCursor(1, 20, SearchResultCache.queryHash(query)).encode());
+
+        assertEquals(SearchResultCache.queryHash(query), SearchResultCache.queryHash(page));
+        assertEquals(SearchResultCache.queryHash(query), SearchResultCache.queryHash(next));
+        assertNotEquals(cache.key(query, null, "json"), cache.key(page, null, "json"));
+        assertNotEquals(cache.key(page, null, "json"), cache.key(next, null, "json"));
+    }
+
+    @Test
+    public void testNewVersionDropsCachedPayloads() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("q", "seismic");
+        byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+        String key = cache.key(parameters, null, "json");
+        cache.put(key, payload);
+        assertArrayEquals(payload, cache.getIfPresent(cache.key(parameters, null, "json")));
+
+        version.incrementAndGet();
+        String next = cache.key(parameters, null, "json");
+        assertNotEquals(key, next);
+        assertNull(cache.getIfPresent(key));
+        assertNull(cache.getIfPresent(next));
+    }
+}
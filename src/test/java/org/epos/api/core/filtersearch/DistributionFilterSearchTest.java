@@ -0,0 +1,51 @@
+package org.epos.api.core.filtersearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.epos.eposdatamodel.PeriodOfTime;
+import org.junit.jupiter.api.Test;
+
+public class DistributionFilterSearchTest {
+
+    private static LocalDateTime startDate(String value) {
+        return DistributionFilterSearch.checkTemporalExtent(Map.of("schema:startDate", value)).getStartDate();
+    }
+
+    @Test
+    public void testDateFormats() {
+        assertEquals(LocalDateTime.of(2020, 1, 1, 10, 15, 30), startDate("2020-01-01 10:15:30"));
+        assertEquals(LocalDateTime.of(2020, 1, 1, 10, 15, 30), startDate("2020-01-01T10:15:30Z"));
+        assertEquals(LocalDateTime.of(2020, 1, 1, 10, 15, 30), startDate("2020-01-01T10:15:30.250Z"));
+    }
+
+    @Test
+    public void testHoursOnTheTwentyFourHourClock() {
+        assertEquals(LocalDateTime.of(2020, 1, 1, 12, 30), startDate("2020-01-01 12:30:00"));
+        assertEquals(LocalDateTime.of(2020, 1, 1, 0, 30), startDate("2020-01-01 00:30:00"));
+        assertEquals(LocalDateTime.of(2020, 1, 1, 23, 59, 59), startDate("2020-01-01 23:59:59"));
+    }
+
+    @Test
+    public void testUnparseableDatesLeaveTheRangeOpen() {
+        assertNull(startDate("2020-13-01 00:00:00"));
+        assertNull(startDate("2020-01-01"));
+        assertNull(startDate("yesterday"));
+
+        PeriodOfTime temporal = DistributionFilterSearch.checkTemporalExtent(Map.of());
+        assertNull(temporal.getStartDate());
+        assertNull(temporal.getEndDate());
+    }
+
+    @Test
+    public void testStartAndEndDates() {
+        PeriodOfTime temporal = DistributionFilterSearch.checkTemporalExtent(Map.of(
+                "schema:startDate", "2019-06-01T00:00:00Z",
+                "schema:endDate", "2020-06-01T18:00:00Z"));
+        assertEquals(LocalDateTime.of(2019, 6, 1, 0, 0), temporal.getStartDate());
+        assertEquals(LocalDateTime.of(2020, 6, 1, 18, 0), temporal.getEndDate());
+    }
+}
@@ -0,0 +1,114 @@
+package org.epos.api.facets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.utility.Utils;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+
+public class FacetsTemplateTest {
+
+	private final JsonObject taxonomy = taxonomy();
+	private final FacetsTemplate template = FacetsTemplate.compile(taxonomy);
+
+	private static Node category(String name, String ddss, Node... children) {
+		Node node = new Node(name);
+		node.setDdss(ddss);
+		for (Node child : children) {
+			node.addChild(child);
+		}
+		return node;
+	}
+
+	/**
+	 * Two domains sharing the c1 category, a third one that no item is assigned to
+	 */
+	private static JsonObject taxonomy() {
+		Node first = category("Domain A", null, category("A1", "c1"), category("A2", "c2", category("A2x", "c3")));
+		first.setCode("A");
+		first.setColor("#0a0");
+		first.setImgUrl("https://host/a.png");
+		Node second = category("Domain B", null, category("B1", "c1"));
+		second.setId("domain-b");
+		second.setLinkUrl("https://host/b");
+		Node unassigned = category("Domain C", null, category("C1", "c4", category("C1x", "c5")), category("C2", "c6"));
+		return Utils.gson.toJsonTree(category("domains", null, first, second, unassigned)).getAsJsonObject();
+	}
+
+	private static List<DiscoveryItem> items(String... ids) {
+		List<DiscoveryItem> items = new ArrayList<>();
+		for (String id : ids) {
+			items.add(new DiscoveryItem.DiscoveryItemBuilder(id, "https://host/" + id, null).title(id).build());
+		}
+		return items;
+	}
+
+	/**
+	 * The taxonomy parsed on every request, the items set on the nodes of their ddss and the empty
+	 * subtrees pruned afterwards
+	 */
+	private Node pruned(Map<String, List<DiscoveryItem>> itemsByDdss) {
+		Node facets = Utils.gson.fromJson(taxonomy, Node.class);
+		for (Node node : FacetsNodeTree.returnAllNodes(facets)) {
+			List<DiscoveryItem> items = node.getDdss() != null ? itemsByDdss.get(node.getDdss()) : null;
+			if (items != null) {
+				node.setDistributions(new ArrayList<>(items));
+			}
+		}
+		new FacetsNodeTree().removeEmptyLeaves(facets);
+		return facets;
+	}
+
+	private void assertSameAsPruned(Map<String, List<DiscoveryItem>> itemsByDdss) {
+		assertEquals(Utils.gson.toJson(pruned(itemsByDdss)), Utils.gson.toJson(template.overlay(itemsByDdss)));
+	}
+
+	@Test
+	public void testFullTaxonomy() {
+		assertEquals(Utils.gson.toJson(Utils.gson.fromJson(taxonomy, Node.class)), Utils.gson.toJson(template.toNode()));
+	}
+
+	@Test
+	public void testDdssSharedByTwoNodes() {
+		Map<String, List<DiscoveryItem>> itemsByDdss = new HashMap<>();
+		itemsByDdss.put("c1", items("d0", "d1"));
+		assertSameAsPruned(itemsByDdss);
+
+		Node overlaid = template.overlay(itemsByDdss);
+		Node first = overlaid.getChildren().get(0).getChildren().get(0);
+		Node second = overlaid.getChildren().get(1).getChildren().get(0);
+		assertEquals(first.getDistributions(), second.getDistributions());
+		assertNotSame(first.getDistributions(), second.getDistributions());
+	}
+
+	@Test
+	public void testUnassignedSubtreesArePruned() {
+		Map<String, List<DiscoveryItem>> itemsByDdss = new HashMap<>();
+		itemsByDdss.put("c1", items("d0"));
+		itemsByDdss.put("c3", items("d1", "d2"));
+		itemsByDdss.put("c2", new ArrayList<>());
+		itemsByDdss.put("unknown", items("d3"));
+		assertSameAsPruned(itemsByDdss);
+		assertEquals(2, template.overlay(itemsByDdss).getChildren().size());
+	}
+
+	@Test
+	public void testEmptyResult() {
+		assertSameAsPruned(new HashMap<>());
+		assertSameAsPruned(Map.of("unknown", items("d0")));
+	}
+
+	@Test
+	public void testWithoutTaxonomy() {
+		assertNull(FacetsTemplate.compile(null));
+	}
+}
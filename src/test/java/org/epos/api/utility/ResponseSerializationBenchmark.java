@@ -0,0 +1,141 @@
+package org.epos.api.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.epos.api.beans.AvailableFormat;
+import org.epos.api.beans.DataServiceProvider;
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.beans.NodeFilters;
+import org.epos.api.beans.SearchResponse;
+import org.epos.api.enums.AvailableFormatType;
+import org.epos.api.facets.Node;
+
+import com.fatboyindustrial.gsonjavatime.Converters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Serialises a search response over a synthetic catalogue with the reflective Gson the responses
+ * used to go through and with {@link Utils#gson}, checks that both produce the same bytes and
+ * reports the throughput of each. Not a unit test, run it by hand:
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;dependencies&gt; org.epos.api.utility.ResponseSerializationBenchmark [items] [iterations]
+ * </pre>
+ */
+public class ResponseSerializationBenchmark {
+
+	public static void main(String[] args) {
+		int items = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+		Gson reflective = Converters.registerAll(new GsonBuilder())
+				.registerTypeHierarchyAdapter(Collection.class, new Utils.CollectionAdapter()).create();
+		SearchResponse response = syntheticResponse(items);
+
+		String expected = reflective.toJson(response);
+		String actual = Utils.gson.toJson(response);
+		if (!expected.equals(actual)) {
+			throw new IllegalStateException("Streaming adapters do not reproduce the reflective output");
+		}
+		int bytes = expected.getBytes(StandardCharsets.UTF_8).length;
+		System.out.println("Response of " + items + " items, " + bytes + " bytes, identical output");
+
+		for (int round = 0; round < 2; round++) {
+			String label = round == 0 ? "warm-up" : "measure";
+			report(label + " reflective", reflective, response, iterations, bytes);
+			report(label + " streaming ", Utils.gson, response, iterations, bytes);
+		}
+	}
+
+	private static void report(String label, Gson gson, SearchResponse response, int iterations, int bytes) {
+		long start = System.nanoTime();
+		int length = 0;
+		for (int i = 0; i < iterations; i++) {
+			length += gson.toJson(response).length();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%s: %.1f responses/s, %.1f MB/s (%d chars)%n", label, iterations / seconds,
+				(double) bytes * iterations / seconds / (1024 * 1024), length / iterations);
+	}
+
+	private static SearchResponse syntheticResponse(int items) {
+		List<DiscoveryItem> distributions = new ArrayList<>();
+		for (int i = 0; i < items; i++) {
+			DataServiceProvider provider = new DataServiceProvider();
+			provider.setDataProviderLegalName("Provider <" + (i % 40) + ">");
+			provider.setDataProviderUrl("https://provider" + (i % 40) + ".example.org/?a=1&b=2");
+			provider.setCountry("IT");
+			provider.setUid("provider/" + (i % 40));
+			provider.setRelatedDataServiceProvider(new ArrayList<>());
+
+			List<AvailableFormat> formats = new ArrayList<>();
+			formats.add(new AvailableFormat.AvailableFormatBuilder()
+					.method("GET").label("GEOJSON").format("application/epos.geo+json")
+					.originalFormat("application/epos.geo+json")
+					.href("https://host/api/v1/execute/" + i + "?format=application/epos.geo+json")
+					.type(AvailableFormatType.ORIGINAL).build());
+			formats.add(new AvailableFormat.AvailableFormatBuilder()
+					.method("GET").label("COVJSON").format("covjson")
+					.href("https://host/api/v1/execute/" + i + "?format=covjson")
+					.type(AvailableFormatType.CONVERTED).build());
+
+			DiscoveryItem item = new DiscoveryItem.DiscoveryItemBuilder("id-" + i,
+					"https://host/api/v1/resources/details/id-" + i,
+					"https://host/api/v1/resources/details/id-" + i + "?extended=true")
+					.uid("distribution/" + i)
+					.metaId("meta-" + i)
+					.title("Distribution \"" + i + "\" title")
+					.description("Synthetic distribution number " + i + " with a longer description, unicode é and <tags>")
+					.dataServiceProvider(provider)
+					.availableFormats(formats)
+					.categories(List.of("category:" + (i % 25)))
+					.dataProvider(Set.of("Provider " + (i % 40)))
+					.build();
+			if (i % 3 == 0) {
+				item.setVersioningStatus("PUBLISHED");
+				item.setEditorId("editor-" + (i % 7));
+				item.setChangeDate(LocalDateTime.of(2024, 1, 1 + i % 28, 12, 0));
+			}
+			distributions.add(item);
+		}
+
+		Node root = new Node("domains");
+		for (int d = 0; d < 5; d++) {
+			Node domain = new Node("Domain " + d);
+			domain.setCode("D" + d);
+			domain.setColor("#00" + d);
+			for (int c = 0; c < 5; c++) {
+				Node category = new Node();
+				category.setName("Category " + (d * 5 + c));
+				category.setDdss("category:" + (d * 5 + c));
+				int ddss = d * 5 + c;
+				List<DiscoveryItem> assigned = new ArrayList<>();
+				for (int i = ddss; i < items; i += 25) {
+					assigned.add(distributions.get(i));
+				}
+				category.setDistributions(assigned);
+				domain.addChild(category);
+			}
+			root.addChild(domain);
+		}
+		Node results = new Node("results");
+		results.addChild(root);
+
+		ArrayList<NodeFilters> filters = new ArrayList<>();
+		NodeFilters keywords = new NodeFilters("keywords");
+		for (int k = 0; k < 200; k++) {
+			keywords.addChild(new NodeFilters("keyword " + k));
+		}
+		filters.add(keywords);
+
+		SearchResponse response = new SearchResponse(results, filters);
+		response.setTotal(items);
+		return response;
+	}
+}
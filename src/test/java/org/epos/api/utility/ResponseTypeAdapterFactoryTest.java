@@ -0,0 +1,146 @@
+package org.epos.api.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.epos.api.beans.AvailableFormat;
+import org.epos.api.beans.AvailableFormatConverted;
+import org.epos.api.beans.DataServiceProvider;
+import org.epos.api.beans.DiscoveryItem;
+import org.epos.api.beans.NodeFilters;
+import org.epos.api.beans.SearchResponse;
+import org.epos.api.enums.AvailableFormatType;
+import org.epos.api.facets.Node;
+import org.junit.jupiter.api.Test;
+
+import com.fatboyindustrial.gsonjavatime.Converters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+public class ResponseTypeAdapterFactoryTest {
+
+	/**
+	 * The serializer the responses used to go through, without the streaming adapters
+	 */
+	private static final Gson REFLECTIVE = Converters.registerAll(new GsonBuilder())
+			.registerTypeHierarchyAdapter(Collection.class, new Utils.CollectionAdapter()).create();
+
+	private static void assertSameJson(Object value) {
+		assertEquals(REFLECTIVE.toJson(value), Utils.gson.toJson(value));
+	}
+
+	private static DataServiceProvider provider(String name, DataServiceProvider... related) {
+		DataServiceProvider provider = new DataServiceProvider();
+		provider.setDataProviderLegalName(name);
+		provider.setDataProviderUrl("https://" + name + ".example.org/?a=1&b=2");
+		provider.setUid("provider/" + name);
+		provider.setRelatedDataServiceProvider(new ArrayList<>(Arrays.asList(related)));
+		return provider;
+	}
+
+	private static DiscoveryItem item(String id) {
+		DiscoveryItem item = new DiscoveryItem.DiscoveryItemBuilder(id,
+				"https://host/api/v1/resources/details/" + id,
+				"https://host/api/v1/resources/details/" + id + "?extended=true")
+				.uid("distribution/" + id)
+				.title("Distribution \"" + id + "\"")
+				.description("unicode é and <tags>")
+				.dataServiceProvider(provider("provider"))
+				.availableFormats(List.of(new AvailableFormat.AvailableFormatBuilder()
+						.method("GET").label("GEOJSON").format("application/epos.geo+json")
+						.href("https://host/api/v1/execute/" + id).type(AvailableFormatType.ORIGINAL).build()))
+				.build();
+		item.setChangeDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+		return item;
+	}
+
+	@Test
+	public void testNullFields() {
+		assertSameJson(new DiscoveryItem());
+		assertSameJson(new Node());
+		assertSameJson(new NodeFilters());
+		assertSameJson(new SearchResponse("error"));
+		assertSameJson(new AvailableFormat.AvailableFormatBuilder().build());
+		assertSameJson(new DataServiceProvider());
+
+		DiscoveryItem item = item("d0");
+		item.setStatus(null);
+		item.setDataServiceProvider(null);
+		assertSameJson(item);
+	}
+
+	@Test
+	public void testEmptyCollections() {
+		DiscoveryItem item = item("d0");
+		item.setAvailableFormats(new ArrayList<>());
+		assertSameJson(item);
+
+		Node node = new Node("empty");
+		node.setDistributions(new ArrayList<>());
+		node.setDistributionIds(new ArrayList<>());
+		assertSameJson(node);
+
+		SearchResponse response = new SearchResponse((String) null);
+		response.setResults(node);
+		response.setFilters(new ArrayList<>());
+		assertSameJson(response);
+		assertSameJson(provider("alone"));
+	}
+
+	@Test
+	public void testNestedProviders() {
+		DataServiceProvider provider = provider("parent", provider("child", provider("grandchild")), provider("sibling"));
+		provider.getRelatedDataServiceProvider().add(null);
+		assertSameJson(provider);
+
+		DiscoveryItem item = item("d0");
+		item.setDataServiceProvider(provider);
+		assertSameJson(item);
+	}
+
+	@Test
+	public void testSubclassElement() {
+		DiscoveryItem item = item("d0");
+		List<AvailableFormat> formats = new ArrayList<>(item.getAvailableFormats());
+		formats.add(new AvailableFormatConverted.AvailableFormatConvertedBuilder()
+				.inputFormat("application/epos.geo+json").pluginId("plugin")
+				.method("GET").label("COVJSON").format("covjson").type(AvailableFormatType.CONVERTED).build());
+		item.setAvailableFormats(formats);
+		assertSameJson(item);
+	}
+
+	@Test
+	public void testSearchResponse() {
+		Node category = new Node();
+		category.setName("Category");
+		category.setDdss("category:0");
+		category.addDistribution(item("d0"));
+		category.addDistribution(item("d1"));
+		category.setCount(2);
+		category.setDistributionIds(List.of("d0", "d1"));
+		Node domain = new Node("Domain");
+		domain.setCode("D0");
+		domain.setColor("#000");
+		domain.addChild(category);
+		domain.addChild(new Node("Unassigned"));
+		Node results = new Node("results");
+		results.addChild(domain);
+
+		NodeFilters keywords = new NodeFilters("keywords");
+		keywords.addChild(new NodeFilters("k0", "keyword"));
+		keywords.addChild(new NodeFilters());
+		ArrayList<NodeFilters> filters = new ArrayList<>();
+		filters.add(keywords);
+		filters.add(new NodeFilters("organisations"));
+
+		SearchResponse response = new SearchResponse(results, filters);
+		response.setTotal(2);
+		response.setNextCursor("cursor");
+		assertSameJson(response);
+	}
+}